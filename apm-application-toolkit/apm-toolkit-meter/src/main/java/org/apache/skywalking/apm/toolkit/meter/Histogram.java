@@ -61,6 +61,37 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Set HDR style exponential bucket steps, every power of two from the lowest value is split into the same
+         * count of linear sub buckets, until the highest value is covered. The relative error of a recorded value is
+         * bounded by {@code 1 / subBuckets}, and the agent locates its bucket without searching.
+         *
+         * @param lowest     the first step, must be positive
+         * @param highest    the highest value expected to be recorded, bigger values are counted in the last bucket
+         * @param subBuckets count of the buckets in every power of two, such as 4 or 8
+         */
+        public Builder exponentialSteps(double lowest, double highest, int subBuckets) {
+            if (!(lowest > 0) || Double.isInfinite(lowest)) {
+                throw new IllegalArgumentException("Lowest value must be positive");
+            }
+            if (!(highest > lowest) || Double.isInfinite(highest)) {
+                throw new IllegalArgumentException("Highest value must be finite and bigger than the lowest value");
+            }
+            if (subBuckets < 1) {
+                throw new IllegalArgumentException("Sub buckets must be positive");
+            }
+            final List<Double> steps = new ArrayList<>();
+            double step = lowest;
+            for (int octave = 0; step < highest; octave++) {
+                for (int i = 0; i < subBuckets && step < highest; i++) {
+                    step = Math.scalb(lowest * (1 + (double) i / subBuckets), octave);
+                    steps.add(step);
+                }
+            }
+            this.steps = steps;
+            return this;
+        }
+
         /**
          * Set min value, default is zero
          */
@@ -32,4 +32,20 @@ public class HistogramTest {
                 .tag("k1", "v1").build());
     }
 
+    @Test
+    public void testBuildExponential() {
+        Assert.assertNotNull(MeterFactory.histogram("test_histogram2").exponentialSteps(1, 1000, 4).build());
+
+        try {
+            MeterFactory.histogram("test_histogram3").exponentialSteps(0, 1000, 4);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            MeterFactory.histogram("test_histogram3").exponentialSteps(1, 1000, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
 }
@@ -60,16 +60,29 @@ public class MeterBuilder {
     public static Optional<Histogram> buildHistogram(MeterId meterId, boolean supportsAggregablePercentiles,
                                                      DistributionStatisticConfig distributionStatisticConfig,
                                                      boolean useNanoTime) {
+        return buildHistogram(meterId, supportsAggregablePercentiles, distributionStatisticConfig, useNanoTime,
+            SkywalkingConfig.DEFAULT);
+    }
+
+    /**
+     * Build the histogram, the percentile histogram uses the exponential steps when the config enabled it
+     * @return return histogram if support
+     */
+    public static Optional<Histogram> buildHistogram(MeterId meterId, boolean supportsAggregablePercentiles,
+                                                     DistributionStatisticConfig distributionStatisticConfig,
+                                                     boolean useNanoTime, SkywalkingConfig config) {
         if (!distributionStatisticConfig.isPublishingHistogram()) {
             return Optional.empty();
         }
 
-        final NavigableSet<Double> buckets = distributionStatisticConfig.getHistogramBuckets(supportsAggregablePercentiles);
-        final List<Double> steps = buckets.stream().sorted(Double::compare)
-            .map(t -> useNanoTime ? TimeUtils.nanosToUnit(t, TimeUnit.MILLISECONDS) : t).collect(Collectors.toList());
-
         final Histogram.Builder histogramBuilder = MeterFactory.histogram(
-            meterId.copyTo(meterId.getName() + "_histogram", MeterId.MeterType.HISTOGRAM)).steps(steps);
+            meterId.copyTo(meterId.getName() + "_histogram", MeterId.MeterType.HISTOGRAM));
+        if (!useExponentialSteps(histogramBuilder, distributionStatisticConfig, useNanoTime, config)) {
+            final NavigableSet<Double> buckets = distributionStatisticConfig.getHistogramBuckets(supportsAggregablePercentiles);
+            final List<Double> steps = buckets.stream().sorted(Double::compare)
+                .map(t -> useNanoTime ? TimeUtils.nanosToUnit(t, TimeUnit.MILLISECONDS) : t).collect(Collectors.toList());
+            histogramBuilder.steps(steps);
+        }
         final Double minimumExpectedValueAsDouble = distributionStatisticConfig.getMinimumExpectedValueAsDouble();
         if (minimumExpectedValueAsDouble != null) {
             histogramBuilder.minValue(useNanoTime ?
@@ -78,6 +91,38 @@ public class MeterBuilder {
         return Optional.of(histogramBuilder.build());
     }
 
+    /**
+     * Replace the micrometer percentile buckets by the exponential steps between the minimum and maximum expected
+     * values. Service level objectives need the exact boundaries, so they keep the micrometer buckets.
+     * @return true if the exponential steps have been set
+     */
+    private static boolean useExponentialSteps(Histogram.Builder histogramBuilder,
+                                               DistributionStatisticConfig distributionStatisticConfig,
+                                               boolean useNanoTime, SkywalkingConfig config) {
+        if (!config.isExponentialHistogram()
+            || !Boolean.TRUE.equals(distributionStatisticConfig.isPercentileHistogram())) {
+            return false;
+        }
+        final double[] slo = distributionStatisticConfig.getServiceLevelObjectiveBoundaries();
+        if (slo != null && slo.length > 0) {
+            return false;
+        }
+        Double lowest = distributionStatisticConfig.getMinimumExpectedValueAsDouble();
+        Double highest = distributionStatisticConfig.getMaximumExpectedValueAsDouble();
+        if (lowest == null || highest == null) {
+            return false;
+        }
+        if (useNanoTime) {
+            lowest = TimeUtils.nanosToUnit(lowest, TimeUnit.MILLISECONDS);
+            highest = TimeUtils.nanosToUnit(highest, TimeUnit.MILLISECONDS);
+        }
+        if (!(lowest > 0) || Double.isInfinite(highest) || highest <= lowest) {
+            return false;
+        }
+        histogramBuilder.exponentialSteps(lowest, highest, config.getExponentialHistogramSubBuckets());
+        return true;
+    }
+
     /**
      * Convert micrometer {@link Meter.Id} to skywalking {@link MeterId}
      */
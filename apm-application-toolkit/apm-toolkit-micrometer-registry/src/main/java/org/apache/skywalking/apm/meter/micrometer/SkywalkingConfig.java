@@ -35,8 +35,26 @@ public class SkywalkingConfig implements MeterRegistryConfig {
      */
     private final List<String> rateCounterNames;
 
+    /**
+     * Sub buckets of every power of two when the percentile histogram uses the exponential steps, 0 means using the
+     * micrometer buckets
+     */
+    private final int exponentialHistogramSubBuckets;
+
     public SkywalkingConfig(List<String> rateCounterNames) {
+        this(rateCounterNames, 0);
+    }
+
+    /**
+     * @param exponentialHistogramSubBuckets build the percentile histograms with HDR style exponential steps, split
+     *                                       every power of two into this count of buckets. 0 means disabled.
+     */
+    public SkywalkingConfig(List<String> rateCounterNames, int exponentialHistogramSubBuckets) {
+        if (exponentialHistogramSubBuckets < 0) {
+            throw new IllegalArgumentException("Exponential histogram sub buckets cannot be negative");
+        }
         this.rateCounterNames = rateCounterNames;
+        this.exponentialHistogramSubBuckets = exponentialHistogramSubBuckets;
     }
 
     /**
@@ -46,6 +64,17 @@ public class SkywalkingConfig implements MeterRegistryConfig {
         return rateCounterNames == null ? false : rateCounterNames.contains(name);
     }
 
+    /**
+     * Is percentile histogram built with exponential steps
+     */
+    public boolean isExponentialHistogram() {
+        return exponentialHistogramSubBuckets > 0;
+    }
+
+    public int getExponentialHistogramSubBuckets() {
+        return exponentialHistogramSubBuckets;
+    }
+
     @Override
     public String prefix() {
         return "";
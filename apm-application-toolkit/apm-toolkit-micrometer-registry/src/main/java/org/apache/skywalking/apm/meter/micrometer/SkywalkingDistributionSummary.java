@@ -71,7 +71,8 @@ public class SkywalkingDistributionSummary extends AbstractDistributionSummary {
         this.max = MeterFactory.gauge(meterId.copyTo(baseName + "_max", MeterId.MeterType.GAUGE),
             () -> maxAdder.doubleValue()).build();
 
-        this.histogram = MeterBuilder.buildHistogram(meterId, supportsAggregablePercentiles, distributionStatisticConfig, false);
+        this.histogram = MeterBuilder.buildHistogram(
+            meterId, supportsAggregablePercentiles, distributionStatisticConfig, false, config);
     }
 
     @Override
@@ -70,7 +70,8 @@ public class SkywalkingTimer extends AbstractTimer {
         this.max = MeterFactory.gauge(meterId.copyTo(baseName + "_max", MeterId.MeterType.GAUGE),
             () -> maxAdder.doubleValue()).build();
 
-        this.histogram = MeterBuilder.buildHistogram(meterId, supportsAggregablePercentiles, distributionStatisticConfig, true);
+        this.histogram = MeterBuilder.buildHistogram(
+            meterId, supportsAggregablePercentiles, distributionStatisticConfig, true, config);
     }
 
     @Override
@@ -28,6 +28,7 @@ import org.junit.Test;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +53,28 @@ public class MeterBuilderTest {
         Assert.assertNull(MeterBuilder.buildHistogram(meterId, true, DistributionStatisticConfig.DEFAULT, true).orElse(null));
     }
 
+    @Test
+    public void testBuildExponentialHistogram() {
+        final MeterId meterId = new MeterId("test", MeterId.MeterType.COUNTER,
+            Arrays.asList(new MeterId.Tag("k1", "v1")));
+        final SkywalkingConfig config = new SkywalkingConfig(Collections.emptyList(), 4);
+        Assert.assertTrue(config.isExponentialHistogram());
+
+        // Percentile histogram between 1ms and 30s
+        final DistributionStatisticConfig statisticConfig = DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos()).build();
+        Assert.assertNotNull(MeterBuilder.buildHistogram(meterId, true, statisticConfig, true, config).orElse(null));
+
+        // Without the upper bound, keep the micrometer buckets
+        final DistributionStatisticConfig unboundedConfig = DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .minimumExpectedValue(1d).build()
+            .merge(DistributionStatisticConfig.DEFAULT);
+        Assert.assertNotNull(MeterBuilder.buildHistogram(meterId, true, unboundedConfig, false, config).orElse(null));
+    }
+
     @Test
     public void testConvertId() {
         final List<MeterId.Tag> meterTags = Arrays.asList(new MeterId.Tag("k1", "v1"));
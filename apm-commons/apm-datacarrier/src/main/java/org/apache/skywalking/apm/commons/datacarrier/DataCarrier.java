@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
@@ -49,16 +50,32 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    /**
+     * @param bufferType the implementation of the buffer in each channel, see {@link BufferType}.
+     */
+    public DataCarrier(String name,
+                       String envPrefix,
+                       int channelSize,
+                       int bufferSize,
+                       BufferStrategy strategy,
+                       BufferType bufferType) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, bufferType);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
         this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy);
     }
 
+    public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy, BufferType bufferType) {
+        this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy, bufferType);
+    }
+
     /**
      * set a new IDataPartitioner. It will cover the current one or default one.(Default is {@link
      * SimpleRollingPartitioner}
@@ -71,6 +88,13 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * @return the count of the data could be held in all channels.
+     */
+    public long capacity() {
+        return channels.size();
+    }
+
     /**
      * produce data to buffer, using the given {@link BufferStrategy}.
      *
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import org.apache.skywalking.apm.commons.datacarrier.common.AdaptiveWaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -26,16 +27,37 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  */
 public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
+    /**
+     * The wait strategy of the consumer of each channel, registered by the consume driver.
+     */
+    private final AdaptiveWaitStrategy[] waitStrategies;
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    /**
+     * @param channelSize the count of channels, use the count of available processors if it is not positive.
+     */
+    public Channels(int channelSize,
+                    int bufferSize,
+                    IDataPartitioner<T> partitioner,
+                    BufferStrategy strategy,
+                    BufferType bufferType) {
+        if (channelSize <= 0) {
+            channelSize = Runtime.getRuntime().availableProcessors();
+        }
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
+        waitStrategies = new AdaptiveWaitStrategy[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new RingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
@@ -56,8 +78,15 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                AdaptiveWaitStrategy waitStrategy = waitStrategies[index];
+                if (waitStrategy != null) {
+                    waitStrategy.signal();
+                }
                 return true;
             }
+            if (retryCountDown > 1) {
+                index = dataPartitioner.retryPartition(bufferChannels.length, data, index);
+            }
         }
         return false;
     }
@@ -90,4 +119,11 @@ public class Channels<T> {
     public QueueBuffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
+
+    /**
+     * Register the wait strategy of the consumer thread of the given channel, the producers signal it after saving.
+     */
+    public void setWaitStrategy(int index, AdaptiveWaitStrategy waitStrategy) {
+        this.waitStrategies[index] = waitStrategy;
+    }
 }
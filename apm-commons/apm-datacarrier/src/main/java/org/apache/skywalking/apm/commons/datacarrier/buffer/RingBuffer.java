@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer/single-consumer ring queue.
+ * <p>
+ * Each slot carries a sequence number. A producer claims the position `p` by CAS on the tail only when the slot
+ * sequence equals `p`, writes the data, then publishes the slot by setting its sequence to `p + 1` with release
+ * semantics. The consumer reads the slots in order from the head, and stops at the first slot not published yet, so
+ * {@link #obtain(List)} costs O(items) rather than O(capacity). A consumed slot is released back to producers by
+ * setting its sequence to `p + capacity`.
+ * <p>
+ * Unlike {@link Buffer}, a full queue is detected by the sequence of the next slot, so {@link BufferStrategy#IF_POSSIBLE}
+ * only drops data when all slots are really occupied.
+ * <p>
+ * Only one thread is allowed to call {@link #obtain(List)} at the same time.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private volatile long head;
+    private volatile BufferStrategy strategy;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        this.buffer = new Object[bufferSize];
+        this.sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.lazySet(i, i);
+        }
+        this.tail = new AtomicLong(0);
+        this.head = 0;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        final int capacity = buffer.length;
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = data;
+                    // Release the slot to the consumer, the data write above happens-before this.
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot hasn't been consumed since the last round, the queue is full.
+                if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                    return false;
+                }
+                LockSupport.parkNanos(1);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                position = tail.get();
+            } else {
+                // Other producer has claimed this position.
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        final int capacity = buffer.length;
+        long position = head;
+        while (true) {
+            int index = (int) (position % capacity);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            consumeList.add((T) buffer[index]);
+            buffer[index] = null;
+            // Release the slot to the producers of the next round.
+            sequences.lazySet(index, position + capacity);
+            position++;
+        }
+        head = position;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The idle strategy of one consumer thread. When a consuming pass finds nothing, the consumer spins, then yields, then
+ * parks, until the producers have saved enough data or the consume cycle times out.
+ * <p>
+ * Producers only touch the shared counter while the consumer is waiting, so {@link #signal()} is a single volatile
+ * read on the hot path of a busy consumer. The consumer publishes the waiting state by {@link #prepare()} before its
+ * last check of the buffers, so the data saved after that check always signals it. After the first cycle without
+ * data, the consumer is regarded as idle, and the first saved data wakes it up immediately. The consumer never parks
+ * longer than one consume cycle, so the latency is never worse than the fixed sleep polling.
+ * <p>
+ * A non-positive signal threshold disables producer signals, then the consumer simply parks one consume cycle, which
+ * is the same as the fixed sleep polling.
+ */
+public class AdaptiveWaitStrategy {
+    public static final int DEFAULT_SIGNAL_THRESHOLD = 64;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 10;
+
+    private final long parkNanos;
+    private final int signalThreshold;
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private volatile boolean waiting = false;
+    private volatile int wakeupThreshold;
+    private volatile Thread consumer;
+    /**
+     * The count of continuous cycles without data, only accessed by the consumer thread.
+     */
+    private int idleRounds = 0;
+
+    public AdaptiveWaitStrategy(long consumeCycle, int signalThreshold) {
+        this.parkNanos = TimeUnit.MILLISECONDS.toNanos(consumeCycle);
+        this.signalThreshold = signalThreshold;
+    }
+
+    /**
+     * Called by the consumer thread when nothing has been consumed in the latest pass, before checking the buffers
+     * the last time. Then {@link #await()} if the last check finds nothing, otherwise {@link #reset()}.
+     */
+    public void prepare() {
+        consumer = Thread.currentThread();
+        if (signalThreshold <= 0) {
+            return;
+        }
+        wakeupThreshold = idleRounds == 0 ? signalThreshold : 1;
+        pending.set(0);
+        waiting = true;
+    }
+
+    /**
+     * Called by the consumer thread after {@link #prepare()}, when the last check of the buffers finds nothing.
+     */
+    public void await() {
+        if (signalThreshold <= 0) {
+            LockSupport.parkNanos(this, parkNanos);
+            Thread.interrupted();
+            return;
+        }
+
+        long timeout = parkNanos;
+        idleRounds++;
+        try {
+            for (int i = 0; i < SPIN_TRIES; i++) {
+                if (isSignalled()) {
+                    return;
+                }
+            }
+            for (int i = 0; i < YIELD_TRIES; i++) {
+                Thread.yield();
+                if (isSignalled()) {
+                    return;
+                }
+            }
+            final long deadline = System.nanoTime() + timeout;
+            while (!isSignalled() && timeout > 0) {
+                LockSupport.parkNanos(this, timeout);
+                if (Thread.interrupted()) {
+                    return;
+                }
+                timeout = deadline - System.nanoTime();
+            }
+        } finally {
+            waiting = false;
+        }
+    }
+
+    /**
+     * Called by the consumer thread when some data has been consumed in the latest pass.
+     */
+    public void reset() {
+        idleRounds = 0;
+        waiting = false;
+    }
+
+    /**
+     * Called by the producers after saving data. Unpark the consumer once the pending data reaches the threshold.
+     */
+    public void signal() {
+        if (!waiting) {
+            return;
+        }
+        if (pending.incrementAndGet() == wakeupThreshold) {
+            unparkConsumer();
+        }
+    }
+
+    /**
+     * Stop waiting immediately, such as for shutting down.
+     */
+    public void wakeup() {
+        pending.set(Integer.MAX_VALUE);
+        unparkConsumer();
+    }
+
+    private void unparkConsumer() {
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private boolean isSignalled() {
+        return pending.get() >= wakeupThreshold;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.common.AdaptiveWaitStrategy;
 
 /**
  * BulkConsumePool works for consuming data from multiple channels(DataCarrier instances), with multiple {@link
@@ -35,10 +36,18 @@ public class BulkConsumePool implements ConsumerPool {
     private volatile boolean isStarted = false;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, AdaptiveWaitStrategy.DEFAULT_SIGNAL_THRESHOLD);
+    }
+
+    /**
+     * @param signalThreshold how many saved data wake up a waiting consumer thread, see {@link AdaptiveWaitStrategy}.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, int signalThreshold) {
         size = EnvUtil.getInt(name + "_THREAD", size);
+        signalThreshold = EnvUtil.getInt(name + "_SIGNAL_THRESHOLD", signalThreshold);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, signalThreshold);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
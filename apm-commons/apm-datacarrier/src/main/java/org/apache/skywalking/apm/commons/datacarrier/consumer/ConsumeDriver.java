@@ -22,6 +22,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Properties;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.common.AdaptiveWaitStrategy;
 
 /**
  * Pool of consumers <p> Created by wusheng on 2016/10/25.
@@ -37,22 +38,46 @@ public class ConsumeDriver<T> implements IDriver {
                          int num,
                          long consumeCycle,
                          Properties properties) {
+        this(name, channels, consumerClass, num, consumeCycle, properties, AdaptiveWaitStrategy.DEFAULT_SIGNAL_THRESHOLD);
+    }
+
+    /**
+     * @param signalThreshold how many saved data wake up a waiting consumer thread, see {@link AdaptiveWaitStrategy}.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+                         int num,
+                         long consumeCycle,
+                         Properties properties,
+                         int signalThreshold) {
         this(channels, num);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, signalThreshold
             );
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, AdaptiveWaitStrategy.DEFAULT_SIGNAL_THRESHOLD);
+    }
+
+    /**
+     * @param signalThreshold how many saved data wake up a waiting consumer thread, see {@link AdaptiveWaitStrategy}.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels,
+                         IConsumer<T> prototype,
+                         int num,
+                         long consumeCycle,
+                         int signalThreshold) {
         this(channels, num);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, signalThreshold);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -118,6 +143,7 @@ public class ConsumeDriver<T> implements IDriver {
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            channels.setWaitStrategy(channelIndex, consumerThreads[consumerIndex].getWaitStrategy());
         }
 
     }
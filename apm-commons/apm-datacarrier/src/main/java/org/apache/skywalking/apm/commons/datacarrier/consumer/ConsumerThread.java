@@ -22,19 +22,20 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.AdaptiveWaitStrategy;
 
 public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final AdaptiveWaitStrategy waitStrategy;
 
-    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, int signalThreshold) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = new AdaptiveWaitStrategy(consumeCycle, signalThreshold);
     }
 
     /**
@@ -50,22 +51,27 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList, true)) {
+                waitStrategy.reset();
+                continue;
+            }
+            // publish the waiting state before the last check, the data saved after it signals this thread
+            waitStrategy.prepare();
+            if (consume(consumeList, false)) {
+                waitStrategy.reset();
+            } else {
+                waitStrategy.await();
             }
         }
 
         // consumer thread is going to stop
         // consume the last time
-        consume(consumeList);
+        consume(consumeList, true);
 
         consumer.onExit();
     }
 
-    private boolean consume(List<T> consumeList) {
+    private boolean consume(List<T> consumeList, boolean notifyNothingToConsume) {
         for (DataSource dataSource : dataSources) {
             dataSource.obtain(consumeList);
         }
@@ -80,12 +86,19 @@ public class ConsumerThread<T> extends Thread {
             }
             return true;
         }
-        consumer.nothingToConsume();
+        if (notifyNothingToConsume) {
+            consumer.nothingToConsume();
+        }
         return false;
     }
 
+    AdaptiveWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
     void shutdown() {
         running = false;
+        waitStrategy.wakeup();
     }
 
     /**
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.AdaptiveWaitStrategy;
 
 /**
  * MultipleChannelsConsumer represent a single consumer thread, but support multiple channels with their {@link
@@ -32,12 +33,16 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final AdaptiveWaitStrategy waitStrategy;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, AdaptiveWaitStrategy.DEFAULT_SIGNAL_THRESHOLD);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, int signalThreshold) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = new AdaptiveWaitStrategy(consumeCycle, signalThreshold);
     }
 
     @Override
@@ -46,30 +51,38 @@ public class MultipleChannelsConsumer extends Thread {
 
         final List consumeList = new ArrayList(2000);
         while (running) {
-            boolean hasData = false;
-            for (Group target : consumeTargets) {
-                boolean consume = consume(target, consumeList);
-                hasData = hasData || consume;
+            if (consumeAll(consumeList, true)) {
+                waitStrategy.reset();
+                continue;
             }
-
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            // publish the waiting state before the last check, the data saved after it signals this thread
+            waitStrategy.prepare();
+            if (consumeAll(consumeList, false)) {
+                waitStrategy.reset();
+            } else {
+                waitStrategy.await();
             }
         }
 
         // consumer thread is going to stop
         // consume the last time
         for (Group target : consumeTargets) {
-            consume(target, consumeList);
+            consume(target, consumeList, true);
 
             target.consumer.onExit();
         }
     }
 
-    private boolean consume(Group target, List consumeList) {
+    private boolean consumeAll(List consumeList, boolean notifyNothingToConsume) {
+        boolean hasData = false;
+        for (Group target : consumeTargets) {
+            boolean consume = consume(target, consumeList, notifyNothingToConsume);
+            hasData = hasData || consume;
+        }
+        return hasData;
+    }
+
+    private boolean consume(Group target, List consumeList, boolean notifyNothingToConsume) {
         for (int i = 0; i < target.channels.getChannelSize(); i++) {
             QueueBuffer buffer = target.channels.getBuffer(i);
             buffer.obtain(consumeList);
@@ -85,7 +98,9 @@ public class MultipleChannelsConsumer extends Thread {
             }
             return true;
         }
-        target.consumer.nothingToConsume();
+        if (notifyNothingToConsume) {
+            target.consumer.nothingToConsume();
+        }
         return false;
     }
 
@@ -101,6 +116,9 @@ public class MultipleChannelsConsumer extends Thread {
         }
         newList.add(group);
         consumeTargets = newList;
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.setWaitStrategy(i, waitStrategy);
+        }
         size += channels.size();
     }
 
@@ -110,6 +128,7 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        waitStrategy.wakeup();
     }
 
     private static class Group {
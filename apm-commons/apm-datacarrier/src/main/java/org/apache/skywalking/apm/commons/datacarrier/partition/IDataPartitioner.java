@@ -29,4 +29,12 @@ public interface IDataPartitioner<T> {
      * Less or equal 1, means not support retry.
      */
     int maxRetryCount();
+
+    /**
+     * @param failedIndex the channel which failed to save the data.
+     * @return the channel to retry when {@link BufferStrategy#IF_POSSIBLE}. Retry the same channel by default.
+     */
+    default int retryPartition(int total, T data, int failedIndex) {
+        return failedIndex;
+    }
 }
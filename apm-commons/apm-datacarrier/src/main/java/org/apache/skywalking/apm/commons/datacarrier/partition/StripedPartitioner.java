@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.partition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Partition by a random probe held by each producer thread, as the cells of {@link java.util.concurrent.atomic.LongAdder}.
+ * No state is shared between producers, and the probes spread evenly even when the thread ids are sequential. When the
+ * chosen channel is full, the probe is rehashed, so the thread retries and keeps using another channel.
+ */
+public class StripedPartitioner<T> implements IDataPartitioner<T> {
+    private final ThreadLocal<int[]> probe = ThreadLocal.withInitial(
+        () -> new int[] {ThreadLocalRandom.current().nextInt() | 1});
+
+    @Override
+    public int partition(int total, T data) {
+        return (probe.get()[0] & Integer.MAX_VALUE) % total;
+    }
+
+    @Override
+    public int retryPartition(int total, T data, int failedIndex) {
+        int[] holder = probe.get();
+        // xorshift, the same as LongAdder#advanceProbe
+        int h = holder[0];
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        holder[0] = h;
+        return (h & Integer.MAX_VALUE) % total;
+    }
+
+    @Override
+    public int maxRetryCount() {
+        return 3;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Enqueue-to-consume latency of the consumer wait strategies. signalThreshold = 0 is the fixed sleep polling, read the
+ * p0.99 of the sample time result. {@link #idleConsumer(IdleCpuCounters)} reports the CPU time burnt by the consumer
+ * thread while nothing is produced, read the idleConsumerCpuNanos of its result.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ConsumerWaitBenchmark {
+    private static final long CONSUME_CYCLE = 20;
+    private static final long IDLE_TIME = 100;
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final AtomicInteger TRIALS = new AtomicInteger(0);
+
+    @Param({
+        "0",
+        "1",
+        "64"
+    })
+    private int signalThreshold;
+
+    private Channels<SampleData> channels;
+    private ConsumeDriver<SampleData> driver;
+    private CountingConsumer consumer;
+    private long produced;
+    private long consumerThreadId;
+
+    @Setup
+    public void setup() {
+        channels = new Channels<>(1, 10000, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE);
+        consumer = new CountingConsumer();
+        // A new name for every trial, not to find the consumer thread of the previous one.
+        final String name = "benchmark-" + TRIALS.incrementAndGet();
+        driver = new ConsumeDriver<>(name, channels, consumer, 1, CONSUME_CYCLE, signalThreshold);
+        driver.begin(channels);
+        produced = 0;
+        consumerThreadId = -1;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("DataCarrier." + name + ".")) {
+                consumerThreadId = thread.getId();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.close(channels);
+    }
+
+    @Benchmark
+    public void singleEnqueueToConsume() {
+        channels.save(new SampleData());
+        produced++;
+        while (consumer.consumed.get() < produced) {
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    public void burstEnqueueToConsume() {
+        for (int i = 0; i < 100; i++) {
+            channels.save(new SampleData());
+        }
+        produced += 100;
+        while (consumer.consumed.get() < produced) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * The consumer thread CPU time, in nanoseconds, summed up over every measurement iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class IdleCpuCounters {
+        public long idleConsumerCpuNanos;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void idleConsumer(IdleCpuCounters counters) throws InterruptedException {
+        final long startCpuTime = THREAD_MX_BEAN.getThreadCpuTime(consumerThreadId);
+        Thread.sleep(IDLE_TIME);
+        counters.idleConsumerCpuNanos += THREAD_MX_BEAN.getThreadCpuTime(consumerThreadId) - startCpuTime;
+    }
+
+    private static class CountingConsumer implements IConsumer<SampleData> {
+        private final AtomicLong consumed = new AtomicLong(0);
+
+        @Override
+        public void init(final Properties properties) {
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            consumed.addAndGet(data.size());
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ConsumerWaitBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -18,9 +18,19 @@
 
 package org.apache.skywalking.apm.commons.datacarrier;
 
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -167,6 +177,79 @@ public class LinkedArrayBenchmark {
         }
     }
 
+    /**
+     * One channel shared by 8 producers and drained by 1 consumer, as the agent segment reporter does.
+     */
+    @State(Scope.Group)
+    public static class ChannelsState {
+        private static final SampleData DATA = new SampleData();
+
+        private Channels<SampleData> buffer;
+        private Channels<SampleData> blockingQueue;
+        private Channels<SampleData> ringBuffer;
+        private final List<SampleData> bufferConsumeList = new ArrayList<SampleData>(1500);
+        private final List<SampleData> blockingQueueConsumeList = new ArrayList<SampleData>(1500);
+        private final List<SampleData> ringBufferConsumeList = new ArrayList<SampleData>(1500);
+
+        @Setup
+        public void setup() {
+            buffer = new Channels<>(
+                1, 1000, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE, BufferType.DEFAULT);
+            blockingQueue = new Channels<>(
+                1, 1000, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING, BufferType.DEFAULT);
+            ringBuffer = new Channels<>(
+                1, 1000, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE, BufferType.RING);
+        }
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(8)
+    public boolean bufferSave(ChannelsState state) {
+        return state.buffer.save(ChannelsState.DATA);
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(1)
+    public void bufferObtain(ChannelsState state, Blackhole blackhole) {
+        state.buffer.getBuffer(0).obtain(state.bufferConsumeList);
+        blackhole.consume(state.bufferConsumeList.size());
+        state.bufferConsumeList.clear();
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(8)
+    public boolean blockingQueueSave(ChannelsState state) {
+        return state.blockingQueue.save(ChannelsState.DATA);
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public void blockingQueueObtain(ChannelsState state, Blackhole blackhole) {
+        state.blockingQueue.getBuffer(0).obtain(state.blockingQueueConsumeList);
+        blackhole.consume(state.blockingQueueConsumeList.size());
+        state.blockingQueueConsumeList.clear();
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(8)
+    public boolean ringBufferSave(ChannelsState state) {
+        return state.ringBuffer.save(ChannelsState.DATA);
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public void ringBufferObtain(ChannelsState state, Blackhole blackhole) {
+        state.ringBuffer.getBuffer(0).obtain(state.ringBufferConsumeList);
+        blackhole.consume(state.ringBufferConsumeList.size());
+        state.ringBufferConsumeList.clear();
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder().include(LinkedArrayBenchmark.class.getName())
                                           .addProfiler(GCProfiler.class)
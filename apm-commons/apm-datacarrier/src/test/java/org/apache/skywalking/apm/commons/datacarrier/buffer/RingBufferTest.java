@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testIfPossibleSave() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(10, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(buffer.save(i));
+        }
+        Assert.assertFalse(buffer.save(10));
+
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(10, result.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, result.get(i).intValue());
+        }
+
+        // the released slots are reusable after wrap-around.
+        result.clear();
+        for (int i = 0; i < 15; i++) {
+            buffer.save(i);
+            buffer.obtain(result);
+        }
+        Assert.assertEquals(15, result.size());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(100, BufferStrategy.BLOCKING);
+        final int producerNum = 4;
+        final int countPerProducer = 10000;
+        final CountDownLatch latch = new CountDownLatch(producerNum);
+        for (int p = 0; p < producerNum; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < countPerProducer; i++) {
+                    buffer.save(i);
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        List<Integer> result = new ArrayList<>();
+        while (latch.getCount() > 0 || result.size() < producerNum * countPerProducer) {
+            buffer.obtain(result);
+        }
+        Assert.assertEquals(producerNum * countPerProducer, result.size());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.partition;
+
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedPartitionerTest {
+    @Test
+    public void testPartition() {
+        StripedPartitioner<SampleData> partitioner = new StripedPartitioner<SampleData>();
+        int index = partitioner.partition(10, new SampleData());
+        Assert.assertTrue(index >= 0 && index < 10);
+        // stick to the same channel until retry
+        Assert.assertEquals(index, partitioner.partition(10, new SampleData()));
+
+        int retryIndex = partitioner.retryPartition(10, new SampleData(), index);
+        Assert.assertTrue(retryIndex >= 0 && retryIndex < 10);
+        Assert.assertEquals(retryIndex, partitioner.partition(10, new SampleData()));
+    }
+
+    @Test
+    public void testAutoSizedChannels() {
+        Channels<SampleData> channels = new Channels<SampleData>(
+            0, 10, new StripedPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE);
+        Assert.assertEquals(Runtime.getRuntime().availableProcessors(), channels.getChannelSize());
+    }
+}
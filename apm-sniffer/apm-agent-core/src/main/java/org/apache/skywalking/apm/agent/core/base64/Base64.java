@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.base64;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A wrapper of {@link java.util.Base64} with convenient conversion methods between {@code byte[]} and {@code String}
@@ -27,6 +28,22 @@ public final class Base64 {
     private static final java.util.Base64.Decoder DECODER = java.util.Base64.getDecoder();
     private static final java.util.Base64.Encoder ENCODER = java.util.Base64.getEncoder();
 
+    private static final char[] ENCODE_TABLE =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            DECODE_TABLE[ENCODE_TABLE[i]] = i;
+        }
+    }
+
+    /**
+     * The decoded bytes before building the string, reused in the thread.
+     */
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
     private Base64() {
     }
 
@@ -34,8 +51,98 @@ public final class Base64 {
         return new String(DECODER.decode(in), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Decode the chars of {@code in} in [start, end), the same as {@code decode2UTFString(in.substring(start, end))},
+     * without the intermediate substring and byte array.
+     *
+     * @throws IllegalArgumentException if the chars are not a valid Base64 scheme.
+     */
+    public static String decode2UTFString(String in, int start, int end) {
+        if (end > start && in.charAt(end - 1) == '=') {
+            end--;
+            if (end > start && in.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        final int length = end - start;
+        final int remaining = length % 4;
+        if (remaining == 1) {
+            throw new IllegalArgumentException("Last unit does not have enough valid bits");
+        }
+        final int decodedLength = length / 4 * 3 + (remaining == 0 ? 0 : remaining - 1);
+        byte[] buffer = DECODE_BUFFER.get();
+        if (buffer.length < decodedLength) {
+            buffer = new byte[decodedLength];
+            DECODE_BUFFER.set(buffer);
+        }
+
+        int position = 0;
+        int i = start;
+        for (final int fullEnd = end - remaining; i < fullEnd; i += 4) {
+            final int bits = decodeChar(in, i) << 18 | decodeChar(in, i + 1) << 12
+                | decodeChar(in, i + 2) << 6 | decodeChar(in, i + 3);
+            buffer[position++] = (byte) (bits >> 16);
+            buffer[position++] = (byte) (bits >> 8);
+            buffer[position++] = (byte) bits;
+        }
+        if (remaining == 2) {
+            final int bits = decodeChar(in, i) << 18 | decodeChar(in, i + 1) << 12;
+            buffer[position] = (byte) (bits >> 16);
+        } else if (remaining == 3) {
+            final int bits = decodeChar(in, i) << 18 | decodeChar(in, i + 1) << 12 | decodeChar(in, i + 2) << 6;
+            buffer[position++] = (byte) (bits >> 16);
+            buffer[position] = (byte) (bits >> 8);
+        }
+        return new String(buffer, 0, decodedLength, StandardCharsets.UTF_8);
+    }
+
     public static String encode(String text) {
         return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Append the Base64 form of the text to the builder, the same as {@code out.append(encode(text))}. The ASCII text
+     * is encoded from the chars directly, without the intermediate byte array and string.
+     *
+     * @return the given builder, for chaining
+     */
+    public static StringBuilder encodeTo(String text, StringBuilder out) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                return out.append(encode(text));
+            }
+        }
+
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            final int bits = text.charAt(i) << 16 | text.charAt(i + 1) << 8 | text.charAt(i + 2);
+            out.append(ENCODE_TABLE[bits >>> 18 & 0x3f])
+               .append(ENCODE_TABLE[bits >>> 12 & 0x3f])
+               .append(ENCODE_TABLE[bits >>> 6 & 0x3f])
+               .append(ENCODE_TABLE[bits & 0x3f]);
+        }
+        if (length - i == 1) {
+            final int bits = text.charAt(i) << 16;
+            out.append(ENCODE_TABLE[bits >>> 18 & 0x3f])
+               .append(ENCODE_TABLE[bits >>> 12 & 0x3f])
+               .append("==");
+        } else if (length - i == 2) {
+            final int bits = text.charAt(i) << 16 | text.charAt(i + 1) << 8;
+            out.append(ENCODE_TABLE[bits >>> 18 & 0x3f])
+               .append(ENCODE_TABLE[bits >>> 12 & 0x3f])
+               .append(ENCODE_TABLE[bits >>> 6 & 0x3f])
+               .append('=');
+        }
+        return out;
+    }
+
+    private static int decodeChar(String in, int index) {
+        final char c = in.charAt(index);
+        final int value = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + Integer.toString(c, 16));
+        }
+        return value;
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.base64;
+
+/**
+ * A small direct-mapped cache between the names and their Base64 forms. The service, instance and endpoint names are
+ * propagated in every cross-process header, but the set of them is small, so they are encoded and decoded once, and
+ * the cached forms are reused. A slot is simply overwritten by a conflicting name.
+ */
+public final class Base64NameCache {
+    private static final int SLOTS = 256;
+    /**
+     * The longer names are not cached, to keep the memory cost estimatable.
+     */
+    private static final int MAX_CACHED_LENGTH = 256;
+
+    private final Entry[] encodedNames = new Entry[SLOTS];
+    private final Entry[] decodedNames = new Entry[SLOTS];
+
+    /**
+     * Append the Base64 form of the name to the builder, the same as {@link Base64#encodeTo(String, StringBuilder)}.
+     */
+    public StringBuilder encodeTo(String name, StringBuilder out) {
+        if (name.length() > MAX_CACHED_LENGTH) {
+            return Base64.encodeTo(name, out);
+        }
+        final int slot = name.hashCode() & (SLOTS - 1);
+        Entry entry = encodedNames[slot];
+        if (entry == null || !entry.name.equals(name)) {
+            entry = new Entry(name, Base64.encode(name));
+            encodedNames[slot] = entry;
+        }
+        return out.append(entry.encoded);
+    }
+
+    /**
+     * Decode the chars of {@code in} in [start, end), the same as {@link Base64#decode2UTFString(String, int, int)}.
+     *
+     * @throws IllegalArgumentException if the chars are not a valid Base64 scheme.
+     */
+    public String decode2UTFString(String in, int start, int end) {
+        final int length = end - start;
+        if (length > MAX_CACHED_LENGTH) {
+            return Base64.decode2UTFString(in, start, end);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + in.charAt(i);
+        }
+        final int slot = hash & (SLOTS - 1);
+        final Entry entry = decodedNames[slot];
+        if (entry != null && entry.encoded.length() == length && in.regionMatches(start, entry.encoded, 0, length)) {
+            return entry.name;
+        }
+        final String name = Base64.decode2UTFString(in, start, end);
+        decodedNames[slot] = new Entry(name, in.substring(start, end));
+        return name;
+    }
+
+    /**
+     * Immutable, so it is safe to be published through the plain array.
+     */
+    private static final class Entry {
+        private final String name;
+        private final String encoded;
+
+        private Entry(String name, String encoded) {
+            this.name = name;
+            this.encoded = encoded;
+        }
+    }
+}
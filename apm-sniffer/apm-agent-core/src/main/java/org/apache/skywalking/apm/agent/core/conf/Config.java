@@ -86,6 +86,32 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * Negative or zero means off, by default. Otherwise, sampling N {@link TraceSegment} of every endpoint in 3
+         * seconds tops, and {@link #SAMPLE_N_PER_3_SECS} is not used. An endpoint is the operation name of the first
+         * span.
+         */
+        public static int SAMPLE_N_PER_3_SECS_PER_ENDPOINT = -1;
+
+        /**
+         * The max count of the pending tail sampled {@link TraceSegment}s. When {@link #SAMPLE_N_PER_3_SECS} is
+         * reached, the new requests are still traced, up to this count at the same time, and reported only if they
+         * are erroneous, slower than {@link #TAIL_SAMPLING_LATENCY_THRESHOLD}, or in the per-endpoint reservoir. Zero
+         * means off, by default.
+         */
+        public static int TAIL_SAMPLING_MAX_PENDING = 0;
+
+        /**
+         * The tail sampled {@link TraceSegment}s taking at least this time, in milliseconds, are reported.
+         */
+        public static long TAIL_SAMPLING_LATENCY_THRESHOLD = 1000;
+
+        /**
+         * Report N tail sampled {@link TraceSegment}s of every endpoint in 3 seconds tops, even if they are neither
+         * erroneous nor slow. Zero means only the erroneous and slow ones are reported.
+         */
+        public static int TAIL_SAMPLING_N_PER_ENDPOINT_PER_3_SECS = 1;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored. Multiple
          * values should be separated by `,`.
@@ -126,6 +152,12 @@ public class Config {
          */
         public static int CAUSE_EXCEPTION_DEPTH = 5;
 
+        /**
+         * If true, the span only keeps the logged exception, and its stack is rendered when the segment is reported,
+         * in the reporter thread. The exception is held in memory until then.
+         */
+        public static boolean DEFER_EXCEPTION_STACK = false;
+
         /**
          * Force reconnection period of grpc, based on grpc_channel_check_interval. If count of check grpc channel
          * status more than this number. The channel check will call channel.getState(true) to requestConnection.
@@ -217,6 +249,28 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * If true, the trace segments are sent through several long-lived streams, without waiting for the response
+         * of the collector before sending the next batch.
+         */
+        public static boolean PIPELINED_UPLINK = false;
+        /**
+         * The count of streams in flight at the same time, when the pipelined uplink is activated.
+         */
+        public static int PIPELINED_UPLINK_STREAMS = 2;
+        /**
+         * A stream of the pipelined uplink is completed and rotated after sending this many segments.
+         */
+        public static int PIPELINED_UPLINK_STREAM_MAX_SEGMENTS = 5000;
+        /**
+         * A stream of the pipelined uplink is completed and rotated after this many seconds. Unit is second.
+         */
+        public static int PIPELINED_UPLINK_STREAM_MAX_DURATION = 10;
+        /**
+         * If true, the trace segments are written in the protobuf wire format directly into a byte array of the exact
+         * size, rather than building the SegmentObject messages. The sent bytes are the same.
+         */
+        public static boolean DIRECT_SEGMENT_ENCODING = false;
     }
 
     public static class Profile {
@@ -250,6 +304,52 @@ public class Config {
          * Snapshot transport to backend buffer size
          */
         public static int SNAPSHOT_TRANSPORT_BUFFER_SIZE = 500;
+
+        /**
+         * If true, all profiled threads of a task are dumped in one ThreadMXBean call per period, the frames are
+         * interned in a dictionary of the task, and the repeated stack of a thread is shared by its snapshots.
+         */
+        public static boolean BATCH_THREAD_DUMP = false;
+
+        /**
+         * If true, the threads in the tracing contexts are always sampled at a low rate, without any profile task.
+         * The stacks are aggregated into a call tree of each endpoint, and flushed periodically into a file of folded
+         * stacks in {@link #CONTINUOUS_OUTPUT_DIR}. They are not reported, as the profile protocol has no message for
+         * the folded stacks.
+         */
+        public static boolean CONTINUOUS_ACTIVE = false;
+
+        /**
+         * The dir of the folded stack files of the continuous profiling. Default is {theSkywalkingAgentJarDir}/profiles
+         */
+        public static String CONTINUOUS_OUTPUT_DIR = "";
+
+        /**
+         * Max count of the folded stack files kept in {@link #CONTINUOUS_OUTPUT_DIR}, one file for every flush.
+         */
+        public static int CONTINUOUS_MAX_FILES = 60;
+
+        /**
+         * Sampling times per second of the continuous profiling.
+         */
+        public static int CONTINUOUS_SAMPLING_RATE = 19;
+
+        /**
+         * If true, only the samples of the runnable threads are aggregated, as an approximate CPU profile. Otherwise
+         * all samples are aggregated, as the wall-clock profile.
+         */
+        public static boolean CONTINUOUS_CPU_ONLY = false;
+
+        /**
+         * Period in seconds of flushing the aggregated stacks of the continuous profiling.
+         */
+        public static int CONTINUOUS_FLUSH_PERIOD = 60;
+
+        /**
+         * Max count of the call tree nodes of a flush period, the samples beyond are counted on their deepest
+         * existing frame.
+         */
+        public static int CONTINUOUS_MAX_NODES = 10000;
     }
 
     public static class Meter {
@@ -267,6 +367,26 @@ public class Config {
          * Max size of the meter count, using {@link org.apache.skywalking.apm.agent.core.meter.MeterId} as identity
          */
         public static Integer MAX_METER_SIZE = 500;
+
+        /**
+         * If true, the meters are reported in the pre-encoded batches of MeterReportService#collectBatch, and the
+         * counters, gauges and histograms not changed since the last report are skipped.
+         */
+        public static boolean REPORT_CHANGED_ONLY = false;
+
+        /**
+         * Report all meters once every this count of reports, when {@link #REPORT_CHANGED_ONLY} is true. The report
+         * after a failed one or a reconnection also includes all meters. The backend doesn't carry the last value of a
+         * skipped meter forward, so the default, 3 reports of {@link #REPORT_INTERVAL} 20 seconds, keeps the gap of an
+         * unchanged meter within 60 seconds.
+         */
+        public static int FULL_REPORT_PERIOD = 3;
+
+        /**
+         * Max bytes of a batch of meters, when {@link #REPORT_CHANGED_ONLY} is true. A single meter bigger than it is
+         * sent in its own batch.
+         */
+        public static int MAX_BATCH_BYTES = 256 * 1024;
     }
 
     public static class Jvm {
@@ -288,6 +408,9 @@ public class Config {
     }
 
     public static class Buffer {
+        /**
+         * The count of channels, use the count of available processors if it is set to 0 or less.
+         */
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
@@ -344,6 +467,12 @@ public class Config {
          * @see org.apache.skywalking.apm.agent.core.logging.core.PatternLogger#DEFAULT_CONVERTER_MAP
          */
         public static String PATTERN = "%level %timestamp %thread %class : %msg %throwable";
+
+        /**
+         * If true, the file output is written through a FileChannel in batches by the ChannelFileWriter, which never
+         * blocks the logging threads, and drops the logs beyond its queue.
+         */
+        public static boolean CHANNEL_WRITER = false;
     }
 
     public static class StatusCheck {
@@ -376,6 +505,19 @@ public class Config {
          * Mount the folders of the plugins. The folder path is relative to agent.jar.
          */
         public static List<String> MOUNT = Arrays.asList("plugins", "activations");
+
+        /**
+         * The file caching the classes which match none of the plugins, keyed by the class name and the hash of the
+         * class bytes. These classes are not matched again in the next boots, until any jar file of them is changed.
+         * The relative path is relative to agent.jar. Empty means the cache is disabled.
+         */
+        public static String CLASS_MATCH_CACHE_FILE = "";
+
+        /**
+         * The count of the threads parsing the plugin definition files and instantiating the plugin defines at the
+         * agent startup. The order of the plugins is kept. 0 or 1 means loading them in the premain thread.
+         */
+        public static int BOOTSTRAP_PARALLELISM = 0;
     }
 
     public static class Correlation {
@@ -29,11 +29,20 @@ public class SamplingRateWatcher extends AgentConfigChangeWatcher {
     private static final ILog LOGGER = LogManager.getLogger(SamplingRateWatcher.class);
 
     private final AtomicInteger samplingRate;
+    private final int defaultValue;
     private final SamplingService samplingService;
 
     public SamplingRateWatcher(final String propertyKey, SamplingService samplingService) {
+        this(propertyKey, Config.Agent.SAMPLE_N_PER_3_SECS, samplingService);
+    }
+
+    /**
+     * @param defaultValue the rate used when the dynamic config is deleted.
+     */
+    public SamplingRateWatcher(final String propertyKey, int defaultValue, SamplingService samplingService) {
         super(propertyKey);
-        this.samplingRate = new AtomicInteger(getDefaultValue());
+        this.defaultValue = defaultValue;
+        this.samplingRate = new AtomicInteger(defaultValue);
         this.samplingService = samplingService;
     }
 
@@ -68,7 +77,7 @@ public class SamplingRateWatcher extends AgentConfigChangeWatcher {
     }
 
     private int getDefaultValue() {
-        return Config.Agent.SAMPLE_N_PER_3_SECS;
+        return defaultValue;
     }
 
     public int getSamplingRate() {
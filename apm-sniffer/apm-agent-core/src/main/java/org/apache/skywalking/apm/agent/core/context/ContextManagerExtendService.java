@@ -91,6 +91,8 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
             SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
             if (forceSampling || samplingService.trySampling(operationName)) {
                 context = new TracingContext(operationName, spanLimitWatcher);
+            } else if (samplingService.tryTailSampling()) {
+                context = new TracingContext(operationName, spanLimitWatcher, true);
             } else {
                 context = new IgnoredTracerContext();
             }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.agent.core.base64.Base64NameCache;
+
+/**
+ * The single-pass codec of the sw8 and sw8-correlation headers. The header is encoded into a builder reused in the
+ * thread, and decoded by scanning the separators, without splitting. The names, which are the same in most headers, are
+ * encoded and decoded through {@link Base64NameCache}.
+ */
+final class SW8HeaderCodec {
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * A builder longer than this is not kept, to avoid holding a big array by the thread after a huge header.
+     */
+    private static final int MAX_KEPT_BUILDER_CAPACITY = 4096;
+
+    private static final Base64NameCache NAME_CACHE = new Base64NameCache();
+
+    private SW8HeaderCodec() {
+    }
+
+    /**
+     * Encode the carrier as {@code 1-traceId-segmentId-spanId-service-instance-endpoint-address}, all parts except
+     * the sample flag and the span id are Base64 encoded.
+     */
+    static String encode(ContextCarrier carrier) {
+        final StringBuilder builder = builder();
+        builder.append('1').append('-');
+        Base64.encodeTo(carrier.getTraceId(), builder).append('-');
+        Base64.encodeTo(carrier.getTraceSegmentId(), builder).append('-');
+        builder.append(carrier.getSpanId()).append('-');
+        NAME_CACHE.encodeTo(carrier.getParentService(), builder).append('-');
+        NAME_CACHE.encodeTo(carrier.getParentServiceInstance(), builder).append('-');
+        NAME_CACHE.encodeTo(carrier.getParentEndpoint(), builder).append('-');
+        NAME_CACHE.encodeTo(carrier.getAddressUsedAtClient(), builder);
+        return release(builder);
+    }
+
+    /**
+     * Decode the header into the carrier. The header is ignored if it doesn't have 8 parts, the decoding stops at the
+     * first invalid part.
+     */
+    static void decode(String header, ContextCarrier carrier) {
+        final int traceIdStart = header.indexOf('-') + 1;
+        final int segmentIdStart = nextPart(header, traceIdStart);
+        final int spanIdStart = nextPart(header, segmentIdStart);
+        final int serviceStart = nextPart(header, spanIdStart);
+        final int instanceStart = nextPart(header, serviceStart);
+        final int endpointStart = nextPart(header, instanceStart);
+        final int addressStart = nextPart(header, endpointStart);
+        if (addressStart == 0) {
+            return;
+        }
+        try {
+            // the first part is sample flag, always trace if header exists.
+            carrier.setTraceId(Base64.decode2UTFString(header, traceIdStart, segmentIdStart - 1));
+            carrier.setTraceSegmentId(Base64.decode2UTFString(header, segmentIdStart, spanIdStart - 1));
+            carrier.setSpanId(parseInt(header, spanIdStart, serviceStart - 1));
+            carrier.setParentService(NAME_CACHE.decode2UTFString(header, serviceStart, instanceStart - 1));
+            carrier.setParentServiceInstance(NAME_CACHE.decode2UTFString(header, instanceStart, endpointStart - 1));
+            carrier.setParentEndpoint(NAME_CACHE.decode2UTFString(header, endpointStart, addressStart - 1));
+            carrier.setAddressUsedAtClient(NAME_CACHE.decode2UTFString(header, addressStart, header.length()));
+        } catch (IllegalArgumentException ignored) {
+
+        }
+    }
+
+    /**
+     * Encode the correlation data as {@code key1:value1,key2:value2}, the keys and values are Base64 encoded.
+     */
+    static String encodeCorrelation(Map<String, String> data) {
+        final StringBuilder builder = builder();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            NAME_CACHE.encodeTo(entry.getKey(), builder).append(':');
+            Base64.encodeTo(entry.getValue(), builder);
+        }
+        return release(builder);
+    }
+
+    /**
+     * Decode the correlation header into the data, until the data has max elements. The element without exactly one
+     * key and one non-empty value is skipped.
+     *
+     * @throws IllegalArgumentException if a key or value is not a valid Base64 scheme.
+     */
+    static void decodeCorrelation(String header, Map<String, String> data, int maxElements) {
+        final int length = header.length();
+        int start = 0;
+        while (start < length) {
+            // Only data with limited count of elements can be added
+            if (data.size() >= maxElements) {
+                break;
+            }
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            final int colon = header.indexOf(':', start);
+            if (colon >= 0 && colon < end - 1) {
+                final int nextColon = header.indexOf(':', colon + 1);
+                if (nextColon < 0 || nextColon >= end) {
+                    data.put(
+                        NAME_CACHE.decode2UTFString(header, start, colon),
+                        Base64.decode2UTFString(header, colon + 1, end)
+                    );
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return the start of the part after the one starting at the given index, or 0 if there is no more part.
+     */
+    private static int nextPart(String header, int partStart) {
+        return partStart == 0 ? 0 : header.indexOf('-', partStart) + 1;
+    }
+
+    private static int parseInt(String in, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty span id");
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = in.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("Illegal span id " + in.substring(start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static StringBuilder builder() {
+        final StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        return builder;
+    }
+
+    private static String release(StringBuilder builder) {
+        final String result = builder.toString();
+        if (builder.capacity() > MAX_KEPT_BUILDER_CAPACITY) {
+            BUILDER.set(new StringBuilder(256));
+        }
+        return result;
+    }
+}
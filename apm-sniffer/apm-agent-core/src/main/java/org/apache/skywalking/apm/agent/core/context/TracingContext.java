@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -43,6 +44,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.profile.ProfileStatusContext;
 import org.apache.skywalking.apm.agent.core.profile.ProfileTaskExecutionService;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Agent.CLUSTER;
@@ -67,17 +69,29 @@ public class TracingContext implements AbstractTracerContext {
      */
     private static ProfileTaskExecutionService PROFILE_TASK_EXECUTION_SERVICE;
 
+    /**
+     * @see SamplingService
+     */
+    private static SamplingService SAMPLING_SERVICE;
+
     /**
      * The final {@link TraceSegment}, which includes all finished spans.
      */
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * The initial capacity of 'ActiveSpanStack' and the span list of {@link TraceSegment}, which grow when needed, but
+     * never more than the span limit.
+     */
+    private static final int INITIAL_ACTIVE_SPAN_CAPACITY = 8;
+    private static final int INITIAL_SEGMENT_SPAN_CAPACITY = 32;
+
+    /**
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link ArrayList} is the in-memory
+     * storage-structure, the top element is the last one. {@link #pop()}, {@link #push(AbstractSpan)} and {@link
+     * #peek()} work on the tail of the array, so no node is allocated for a span.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private final ArrayList<AbstractSpan> activeSpanStack;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -115,11 +129,27 @@ public class TracingContext implements AbstractTracerContext {
     //CDS watcher
     private final SpanLimitWatcher spanLimitWatcher;
 
+    /**
+     * True if the {@link #segment} is tail sampled, whether to report it is decided when this context finishes.
+     */
+    private final boolean tailSampling;
+
     /**
      * Initialize all fields with default value.
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
-        this.segment = new TraceSegment();
+        this(firstOPName, spanLimitWatcher, false);
+    }
+
+    /**
+     * Initialize all fields with default value.
+     *
+     * @param tailSampling true if the segment is tail sampled, see {@link SamplingService#tryTailSampling()}.
+     */
+    TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher, boolean tailSampling) {
+        final int spanLimit = spanLimitWatcher.getSpanLimit();
+        this.segment = new TraceSegment(Math.min(spanLimit, INITIAL_SEGMENT_SPAN_CAPACITY));
+        this.activeSpanStack = new ArrayList<>(Math.min(spanLimit, INITIAL_ACTIVE_SPAN_CAPACITY));
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -129,12 +159,16 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
         this.spanLimitWatcher = spanLimitWatcher;
+
+        this.tailSampling = tailSampling;
+        if (tailSampling && SAMPLING_SERVICE == null) {
+            SAMPLING_SERVICE = ServiceManager.INSTANCE.findService(SamplingService.class);
+        }
     }
 
     /**
@@ -208,7 +242,7 @@ public class TracingContext implements AbstractTracerContext {
     @Override
     public ContextSnapshot capture() {
         ContextSnapshot snapshot = new ContextSnapshot(
-            segment.getTraceSegmentId(),
+            this.segment.getTraceSegmentId(),
             activeSpan().getSpanId(),
             getPrimaryTraceId(),
             primaryEndpoint.getName(),
@@ -250,7 +284,7 @@ public class TracingContext implements AbstractTracerContext {
     }
 
     private DistributedTraceId getPrimaryTraceId() {
-        return segment.getRelatedGlobalTrace();
+        return this.segment.getRelatedGlobalTrace();
     }
 
     @Override
@@ -424,6 +458,10 @@ public class TracingContext implements AbstractTracerContext {
         for (AbstractSpan span: activeSpanStack) {
             span.forceIgnoring();
         }
+        if (tailSampling) {
+            SAMPLING_SERVICE.cancelTailSampling();
+        }
+        PROFILE_TASK_EXECUTION_SERVICE.forceIgnoring(this);
         return new IgnoredTracerContext(activeSpanStack.size());
     }
 
@@ -439,7 +477,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, this.segment.getTraceSegmentId(), operationName);
     }
 
     /**
@@ -461,6 +499,13 @@ public class TracingContext implements AbstractTracerContext {
 
             if (isFinishedInMainThread && (!isRunningInAsyncMode || asyncSpanCounter == 0)) {
                 TraceSegment finishedSegment = segment.finish(isLimitMechanismWorking());
+                if (tailSampling && !SAMPLING_SERVICE.finishTailSampling(
+                    primaryEndpoint == null ? null : primaryEndpoint.getName(),
+                    System.currentTimeMillis() - createTime, finishedSegment.isErrorOccurred()
+                )) {
+                    // Discarded before the listeners serialize it.
+                    finishedSegment.setIgnore(true);
+                }
                 TracingContext.ListenerManager.notifyFinish(finishedSegment);
                 running = false;
             }
@@ -534,7 +579,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        return activeSpanStack.remove(activeSpanStack.size() - 1);
     }
 
     /**
@@ -548,7 +593,7 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        activeSpanStack.add(span);
         this.extensionContext.handle(span);
         return span;
     }
@@ -560,7 +605,7 @@ public class TracingContext implements AbstractTracerContext {
         if (activeSpanStack.isEmpty()) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack.get(activeSpanStack.size() - 1);
     }
 
     private boolean isLimitMechanismWorking() {
@@ -19,8 +19,6 @@
 package org.apache.skywalking.apm.agent.core.context.ids;
 
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
@@ -33,11 +31,28 @@ import lombok.ToString;
  * <p>
  * The <code>DistributedTraceId</code> contains only one string, and can NOT be reset, creating a new instance is the
  * only option.
+ * <p>
+ * A new generated id is kept as {@link GlobalId}, and rendered into the string at the first {@link #getId()}.
  */
-@RequiredArgsConstructor
-@ToString
-@EqualsAndHashCode
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class DistributedTraceId {
-    @Getter
+    private final GlobalId globalId;
     private final String id;
+
+    public DistributedTraceId(String id) {
+        this.globalId = null;
+        this.id = id;
+    }
+
+    protected DistributedTraceId(GlobalId globalId) {
+        this.globalId = globalId;
+        this.id = null;
+    }
+
+    @ToString.Include(name = "id")
+    @EqualsAndHashCode.Include
+    public String getId() {
+        return id != null ? id : globalId.toString();
+    }
 }
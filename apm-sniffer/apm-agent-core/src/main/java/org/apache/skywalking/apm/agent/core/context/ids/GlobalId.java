@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * The <code>GlobalId</code> is an id generated by {@link GlobalIdGenerator}, kept as the primitive thread id and
+ * sequence. The process id is the same for all ids of this agent, so it is kept by the generator only. The id is
+ * rendered into the readable string, {@code <process id>.<thread id>.<sequence>}, only when required, and the rendered
+ * string is cached.
+ */
+public final class GlobalId {
+    private final long threadId;
+    private final long sequence;
+
+    /**
+     * The rendered id. The rendering is idempotent, so a racing rendering in another thread is harmless.
+     */
+    private String rendered;
+
+    GlobalId(long threadId, long sequence) {
+        this.threadId = threadId;
+        this.sequence = sequence;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the readable id, the same format as {@link GlobalIdGenerator#generate()}.
+     */
+    @Override
+    public String toString() {
+        String id = rendered;
+        if (id == null) {
+            id = GlobalIdGenerator.render(this);
+            rendered = id;
+        }
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GlobalId)) {
+            return false;
+        }
+        final GlobalId other = (GlobalId) o;
+        return threadId == other.threadId && sequence == other.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(threadId) + Long.hashCode(sequence);
+    }
+}
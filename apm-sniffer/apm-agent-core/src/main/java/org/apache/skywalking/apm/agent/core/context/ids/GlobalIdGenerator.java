@@ -20,8 +20,6 @@ package org.apache.skywalking.apm.agent.core.context.ids;
 
 import java.util.UUID;
 
-import org.apache.skywalking.apm.util.StringUtil;
-
 public final class GlobalIdGenerator {
     private static final String PROCESS_ID = UUID.randomUUID().toString().replaceAll("-", "");
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = ThreadLocal.withInitial(
@@ -43,12 +41,27 @@ public final class GlobalIdGenerator {
      * @return unique id to represent a trace or segment
      */
     public static String generate() {
-        return StringUtil.join(
-            '.',
-            PROCESS_ID,
-            String.valueOf(Thread.currentThread().getId()),
-            String.valueOf(THREAD_ID_SEQUENCE.get().nextSeq())
-        );
+        return generateGlobalId().toString();
+    }
+
+    /**
+     * Generate a new id, the same as {@link #generate()}, but not rendered into string until {@link
+     * GlobalId#toString()} is called.
+     *
+     * @return unique id to represent a trace or segment
+     */
+    public static GlobalId generateGlobalId() {
+        return new GlobalId(Thread.currentThread().getId(), THREAD_ID_SEQUENCE.get().nextSeq());
+    }
+
+    static String render(GlobalId id) {
+        // 32 chars of the process id, 2 dots, and at most 20 chars for each of the thread id and the sequence.
+        return new StringBuilder(74).append(PROCESS_ID)
+                                    .append('.')
+                                    .append(id.getThreadId())
+                                    .append('.')
+                                    .append(id.getSequence())
+                                    .toString();
     }
 
     private static class IDContext {
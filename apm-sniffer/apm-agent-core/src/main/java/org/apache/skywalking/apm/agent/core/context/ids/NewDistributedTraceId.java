@@ -23,6 +23,6 @@ package org.apache.skywalking.apm.agent.core.context.ids;
  */
 public class NewDistributedTraceId extends DistributedTraceId {
     public NewDistributedTraceId() {
-        super(GlobalIdGenerator.generate());
+        super(GlobalIdGenerator.generateGlobalId());
     }
 }
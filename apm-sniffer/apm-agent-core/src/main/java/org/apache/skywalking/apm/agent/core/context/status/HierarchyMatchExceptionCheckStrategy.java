@@ -24,14 +24,29 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
  * HierarchyMatchExceptionCheckStrategy does a hierarchy check for a traced exception. If it or its parent has been
  * listed in org.apache.skywalking.apm.agent.core.conf.Config.StatusCheck#IGNORED_EXCEPTIONS, the error status of the
  * span wouldn't be changed.
+ * <p>
+ * The verdict of every exception class is cached, as resolving the ignored exceptions through its classloader costs a
+ * {@link Class#forName(String, boolean, ClassLoader)} per name, and a thrown {@link ClassNotFoundException} per
+ * missing one. The cache is held by {@link ClassValue}, which doesn't prevent the exception classes from being
+ * unloaded, and is dropped as a whole once the ignored exception names change.
  */
 public class HierarchyMatchExceptionCheckStrategy implements ExceptionCheckStrategy {
 
+    private volatile Verdicts verdicts;
+
     @Override
     public boolean isError(final Throwable e) {
-        Class<? extends Throwable> clazz = e.getClass();
         StatusCheckService statusTriggerService = ServiceManager.INSTANCE.findService(StatusCheckService.class);
         String[] ignoredExceptionNames = statusTriggerService.getIgnoredExceptionNames();
+        Verdicts current = verdicts;
+        if (current == null || current.ignoredExceptionNames != ignoredExceptionNames) {
+            current = new Verdicts(ignoredExceptionNames);
+            verdicts = current;
+        }
+        return current.get(e.getClass());
+    }
+
+    private static boolean isError(final Class<?> clazz, final String[] ignoredExceptionNames) {
         for (final String ignoredExceptionName : ignoredExceptionNames) {
             try {
                 Class<?> parentClazz = Class.forName(ignoredExceptionName, true, clazz.getClassLoader());
@@ -43,4 +58,20 @@ public class HierarchyMatchExceptionCheckStrategy implements ExceptionCheckStrat
         }
         return true;
     }
+
+    /**
+     * The verdicts of the exception classes against one list of ignored exception names.
+     */
+    private static class Verdicts extends ClassValue<Boolean> {
+        private final String[] ignoredExceptionNames;
+
+        private Verdicts(final String[] ignoredExceptionNames) {
+            this.ignoredExceptionNames = ignoredExceptionNames;
+        }
+
+        @Override
+        protected Boolean computeValue(final Class<?> clazz) {
+            return isError(clazz, ignoredExceptionNames);
+        }
+    }
 }
@@ -35,8 +35,11 @@ import static org.apache.skywalking.apm.agent.core.context.status.StatusChecker.
 @DefaultImplementor
 public class StatusCheckService implements BootService {
 
+    /**
+     * Replaced as a whole, the identity of the array tells the cached verdicts when the names change.
+     */
     @Getter
-    private String[] ignoredExceptionNames;
+    private volatile String[] ignoredExceptionNames;
 
     private StatusChecker statusChecker;
 
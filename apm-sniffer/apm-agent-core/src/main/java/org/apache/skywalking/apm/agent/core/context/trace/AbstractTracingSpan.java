@@ -18,8 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -31,7 +32,9 @@ import org.apache.skywalking.apm.agent.core.context.status.StatusCheckService;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufWire;
 import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableStackPair;
 import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
@@ -95,6 +98,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected List<TraceSegmentRef> refs;
 
+    /**
+     * The logs and refs are created at the first use, most spans have none of them.
+     */
+    private static final int INITIAL_LOG_CAPACITY = 2;
+    private static final int INITIAL_REF_CAPACITY = 1;
+
     /**
      * Tracing Mode. If true means represents all spans generated in this context should skip analysis.
      */
@@ -105,6 +114,11 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected boolean ignored;
 
+    /**
+     * The size computed by the last {@link #computeSerializedSize()}, reused when the span is written.
+     */
+    private int memoizedSize;
+
     protected AbstractTracingSpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
         this.operationName = operationName;
         this.spanId = spanId;
@@ -170,7 +184,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(Throwable t) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(INITIAL_LOG_CAPACITY);
         }
         if (!errorOccurred && ServiceManager.INSTANCE.findService(StatusCheckService.class).isError(t)) {
             errorOccurred();
@@ -178,10 +192,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         logs.add(new LogDataEntity.Builder().add(new KeyValuePair("event", "error"))
                                             .add(new KeyValuePair("error.kind", t.getClass().getName()))
                                             .add(new KeyValuePair("message", t.getMessage()))
-                                            .add(new KeyValuePair(
-                                                "stack",
-                                                ThrowableTransformer.INSTANCE.convert2String(t, 4000)
-                                            ))
+                                            .add(Config.Agent.DEFER_EXCEPTION_STACK
+                                                ? new ThrowableStackPair("stack", t, 4000)
+                                                : new KeyValuePair(
+                                                    "stack",
+                                                    ThrowableTransformer.INSTANCE.convert2String(t, 4000)
+                                                ))
                                             .build(System.currentTimeMillis()));
         return this;
     }
@@ -194,7 +210,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(INITIAL_LOG_CAPACITY);
         }
         LogDataEntity.Builder builder = new LogDataEntity.Builder();
         for (Map.Entry<String, ?> entry : fields.entrySet()) {
@@ -216,6 +232,10 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return this;
     }
 
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
     /**
      * Set the operation name, just because these is not compress dictionary value for this name. Use the entire string
      * temporarily, the agent will compress this name in async mode.
@@ -303,10 +323,143 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return spanBuilder;
     }
 
+    /**
+     * @return the size of this span serialized as {@link SpanObject}.
+     */
+    public int computeSerializedSize() {
+        int size = 0;
+        if (spanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.SPANID_FIELD_NUMBER, spanId);
+        }
+        if (parentSpanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.PARENTSPANID_FIELD_NUMBER, parentSpanId);
+        }
+        if (startTime != 0) {
+            size += CodedOutputStream.computeInt64Size(SpanObject.STARTTIME_FIELD_NUMBER, startTime);
+        }
+        if (endTime != 0) {
+            size += CodedOutputStream.computeInt64Size(SpanObject.ENDTIME_FIELD_NUMBER, endTime);
+        }
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                size += ProtobufWire.computeMessageSize(SpanObject.REFS_FIELD_NUMBER, ref.computeSerializedSize());
+            }
+        }
+        size += ProtobufWire.computeStringSize(SpanObject.OPERATIONNAME_FIELD_NUMBER, operationName);
+        size += ProtobufWire.computeStringSize(SpanObject.PEER_FIELD_NUMBER, getSerializedPeer());
+        final int spanType = getSerializedSpanType();
+        if (spanType != 0) {
+            size += CodedOutputStream.computeEnumSize(SpanObject.SPANTYPE_FIELD_NUMBER, spanType);
+        }
+        if (this.layer != null && this.layer.getCode() != 0) {
+            size += CodedOutputStream.computeEnumSize(SpanObject.SPANLAYER_FIELD_NUMBER, this.layer.getCode());
+        }
+        if (componentId != Constants.NULL_VALUE && componentId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.COMPONENTID_FIELD_NUMBER, componentId);
+        }
+        if (errorOccurred) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                size += ProtobufWire.computeMessageSize(SpanObject.TAGS_FIELD_NUMBER, tag.computeSerializedSize());
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                size += ProtobufWire.computeMessageSize(SpanObject.LOGS_FIELD_NUMBER, log.computeSerializedSize());
+            }
+        }
+        if (skipAnalysis) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+        memoizedSize = size;
+        return size;
+    }
+
+    /**
+     * @return the size computed by the last {@link #computeSerializedSize()}, which must be called before.
+     */
+    public int getMemoizedSize() {
+        return memoizedSize;
+    }
+
+    /**
+     * Write this span as {@link SpanObject}, byte-for-byte the same as {@link #transform()}, without building the
+     * message objects. The nested messages are written in the sizes memoized by {@link #computeSerializedSize()}.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        if (spanId != 0) {
+            out.writeInt32(SpanObject.SPANID_FIELD_NUMBER, spanId);
+        }
+        if (parentSpanId != 0) {
+            out.writeInt32(SpanObject.PARENTSPANID_FIELD_NUMBER, parentSpanId);
+        }
+        if (startTime != 0) {
+            out.writeInt64(SpanObject.STARTTIME_FIELD_NUMBER, startTime);
+        }
+        if (endTime != 0) {
+            out.writeInt64(SpanObject.ENDTIME_FIELD_NUMBER, endTime);
+        }
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                ProtobufWire.writeMessageHeader(out, SpanObject.REFS_FIELD_NUMBER, ref.getMemoizedSize());
+                ref.writeTo(out);
+            }
+        }
+        ProtobufWire.writeString(out, SpanObject.OPERATIONNAME_FIELD_NUMBER, operationName);
+        ProtobufWire.writeString(out, SpanObject.PEER_FIELD_NUMBER, getSerializedPeer());
+        final int spanType = getSerializedSpanType();
+        if (spanType != 0) {
+            out.writeEnum(SpanObject.SPANTYPE_FIELD_NUMBER, spanType);
+        }
+        if (this.layer != null && this.layer.getCode() != 0) {
+            out.writeEnum(SpanObject.SPANLAYER_FIELD_NUMBER, this.layer.getCode());
+        }
+        if (componentId != Constants.NULL_VALUE && componentId != 0) {
+            out.writeInt32(SpanObject.COMPONENTID_FIELD_NUMBER, componentId);
+        }
+        if (errorOccurred) {
+            out.writeBool(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                ProtobufWire.writeMessageHeader(out, SpanObject.TAGS_FIELD_NUMBER, tag.getMemoizedSize());
+                tag.writeTo(out);
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                ProtobufWire.writeMessageHeader(out, SpanObject.LOGS_FIELD_NUMBER, log.getMemoizedSize());
+                log.writeTo(out);
+            }
+        }
+        if (skipAnalysis) {
+            out.writeBool(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+    }
+
+    /**
+     * @return the peer in the serialized span, null means no peer.
+     */
+    protected String getSerializedPeer() {
+        return null;
+    }
+
+    private int getSerializedSpanType() {
+        if (isEntry()) {
+            return SpanType.Entry_VALUE;
+        } else if (isExit()) {
+            return SpanType.Exit_VALUE;
+        } else {
+            return SpanType.Local_VALUE;
+        }
+    }
+
     @Override
     public void ref(TraceSegmentRef ref) {
         if (refs == null) {
-            refs = new LinkedList<>();
+            refs = new ArrayList<>(INITIAL_REF_CAPACITY);
         }
         /*
          * Provide the OOM protection if the entry span hosts too many references.
@@ -18,10 +18,13 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufWire;
 import org.apache.skywalking.apm.network.language.agent.v3.Log;
 
 /**
@@ -32,6 +35,11 @@ public class LogDataEntity {
     private long timestamp;
     private List<KeyValuePair> logs;
 
+    /**
+     * The size computed by the last {@link #computeSerializedSize()}, reused when the log is written.
+     */
+    private int memoizedSize;
+
     private LogDataEntity(long timestamp, List<KeyValuePair> logs) {
         this.timestamp = timestamp;
         this.logs = logs;
@@ -45,7 +53,7 @@ public class LogDataEntity {
         protected List<KeyValuePair> logs;
 
         public Builder() {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(4);
         }
 
         public Builder add(KeyValuePair... fields) {
@@ -66,4 +74,39 @@ public class LogDataEntity {
         logMessageBuilder.setTime(timestamp);
         return logMessageBuilder.build();
     }
+
+    /**
+     * @return the size of this log serialized as {@link Log}.
+     */
+    public int computeSerializedSize() {
+        int size = 0;
+        if (timestamp != 0) {
+            size += CodedOutputStream.computeInt64Size(Log.TIME_FIELD_NUMBER, timestamp);
+        }
+        for (KeyValuePair log : logs) {
+            size += ProtobufWire.computeMessageSize(Log.DATA_FIELD_NUMBER, log.computeSerializedSize());
+        }
+        memoizedSize = size;
+        return size;
+    }
+
+    /**
+     * @return the size computed by the last {@link #computeSerializedSize()}, which must be called before.
+     */
+    public int getMemoizedSize() {
+        return memoizedSize;
+    }
+
+    /**
+     * Write this log as {@link Log}, byte-for-byte the same as {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        if (timestamp != 0) {
+            out.writeInt64(Log.TIME_FIELD_NUMBER, timestamp);
+        }
+        for (KeyValuePair log : logs) {
+            ProtobufWire.writeMessageHeader(out, Log.DATA_FIELD_NUMBER, log.getMemoizedSize());
+            log.writeTo(out);
+        }
+    }
 }
@@ -52,6 +52,11 @@ public abstract class StackBasedTracingSpan extends AbstractTracingSpan {
         return spanBuilder;
     }
 
+    @Override
+    protected String getSerializedPeer() {
+        return peer;
+    }
+
     @Override
     public boolean finish(TraceSegment owner) {
         if (--stackDepth == 0) {
@@ -18,12 +18,19 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufWire;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableStackPair;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 /**
@@ -33,9 +40,9 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  */
 public class TraceSegment {
     /**
-     * The id of this trace segment. Every segment has its unique-global-id.
+     * The id of this trace segment. Every segment has its unique-global-id, rendered into string when required.
      */
-    private String traceSegmentId;
+    private GlobalId traceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -65,12 +72,23 @@ public class TraceSegment {
 
     private final long createTime;
 
+    private static final int DEFAULT_SPAN_CAPACITY = 10;
+
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this(DEFAULT_SPAN_CAPACITY);
+    }
+
+    /**
+     * Create a default/empty trace segment, whose span list is pre-sized to hold the given number of spans.
+     *
+     * @param initialSpanCapacity the expected number of spans, the list still grows beyond it.
+     */
+    public TraceSegment(int initialSpanCapacity) {
+        this.traceSegmentId = GlobalIdGenerator.generateGlobalId();
+        this.spans = new ArrayList<>(initialSpanCapacity);
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
     }
@@ -112,6 +130,10 @@ public class TraceSegment {
     }
 
     public String getTraceSegmentId() {
+        return traceSegmentId.toString();
+    }
+
+    public GlobalId getTraceSegmentGlobalId() {
         return traceSegmentId;
     }
 
@@ -130,6 +152,18 @@ public class TraceSegment {
         return this.spans != null && this.spans.size() == 1;
     }
 
+    /**
+     * @return true if any finished span of this segment is erroneous.
+     */
+    public boolean isErrorOccurred() {
+        for (AbstractTracingSpan span : this.spans) {
+            if (span.isErrorOccurred()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isIgnore() {
         return ignore;
     }
@@ -144,12 +178,13 @@ public class TraceSegment {
      * @return the segment as GRPC service parameter
      */
     public SegmentObject transform() {
+        renderThrowableStacks();
         SegmentObject.Builder traceSegmentBuilder = SegmentObject.newBuilder();
         traceSegmentBuilder.setTraceId(getRelatedGlobalTrace().getId());
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(getTraceSegmentId());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -163,6 +198,71 @@ public class TraceSegment {
         return traceSegmentBuilder.build();
     }
 
+    /**
+     * @return the size of this segment serialized as {@link SegmentObject}.
+     */
+    public int computeSerializedSize() {
+        renderThrowableStacks();
+        int size = 0;
+        size += ProtobufWire.computeStringSize(SegmentObject.TRACEID_FIELD_NUMBER, getRelatedGlobalTrace().getId());
+        size += ProtobufWire.computeStringSize(SegmentObject.TRACESEGMENTID_FIELD_NUMBER, getTraceSegmentId());
+        for (AbstractTracingSpan span : this.spans) {
+            size += ProtobufWire.computeMessageSize(SegmentObject.SPANS_FIELD_NUMBER, span.computeSerializedSize());
+        }
+        size += ProtobufWire.computeStringSize(SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME);
+        size += ProtobufWire.computeStringSize(
+            SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME);
+        if (this.isSizeLimited) {
+            size += CodedOutputStream.computeBoolSize(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+        return size;
+    }
+
+    /**
+     * Write this segment as {@link SegmentObject}, byte-for-byte the same as {@link #transform()}, without building
+     * the message objects. The size of the output should be {@link #computeSerializedSize()}, which memoizes the sizes
+     * of the nested messages, so it must be called before.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        ProtobufWire.writeString(out, SegmentObject.TRACEID_FIELD_NUMBER, getRelatedGlobalTrace().getId());
+        ProtobufWire.writeString(out, SegmentObject.TRACESEGMENTID_FIELD_NUMBER, getTraceSegmentId());
+        for (AbstractTracingSpan span : this.spans) {
+            ProtobufWire.writeMessageHeader(out, SegmentObject.SPANS_FIELD_NUMBER, span.getMemoizedSize());
+            span.writeTo(out);
+        }
+        ProtobufWire.writeString(out, SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME);
+        ProtobufWire.writeString(out, SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME);
+        if (this.isSizeLimited) {
+            out.writeBool(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+    }
+
+    /**
+     * Render the stacks of the exceptions logged with {@link Config.Agent#DEFER_EXCEPTION_STACK}, all together so that
+     * the same stacks logged by several spans of this segment are rendered once.
+     */
+    private void renderThrowableStacks() {
+        List<ThrowableStackPair> pairs = null;
+        for (AbstractTracingSpan span : this.spans) {
+            if (span.logs == null) {
+                continue;
+            }
+            for (LogDataEntity log : span.logs) {
+                for (KeyValuePair pair : log.getLogs()) {
+                    if (pair instanceof ThrowableStackPair && !((ThrowableStackPair) pair).isRendered()) {
+                        if (pairs == null) {
+                            pairs = new ArrayList<>(4);
+                        }
+                        pairs.add((ThrowableStackPair) pair);
+                    }
+                }
+            }
+        }
+        if (pairs != null) {
+            ThrowableTransformer.INSTANCE.render(pairs);
+        }
+    }
+
     @Override
     public String toString() {
         return "TraceSegment{" + "traceSegmentId='" + traceSegmentId + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
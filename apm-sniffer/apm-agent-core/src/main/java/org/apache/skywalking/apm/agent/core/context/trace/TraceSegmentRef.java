@@ -18,10 +18,13 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import lombok.Getter;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufWire;
 import org.apache.skywalking.apm.network.language.agent.v3.RefType;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
 
@@ -41,6 +44,11 @@ public class TraceSegmentRef {
     private String parentEndpoint;
     private String addressUsedAtClient;
 
+    /**
+     * The size computed by the last {@link #computeSerializedSize()}, reused when the ref is written.
+     */
+    private int memoizedSize;
+
     /**
      * Transform a {@link ContextCarrier} to the <code>TraceSegmentRef</code>
      *
@@ -87,6 +95,54 @@ public class TraceSegmentRef {
         return refBuilder.build();
     }
 
+    /**
+     * @return the size of this ref serialized as {@link SegmentReference}.
+     */
+    public int computeSerializedSize() {
+        int size = 0;
+        if (SegmentRefType.CROSS_THREAD.equals(type)) {
+            size += CodedOutputStream.computeEnumSize(SegmentReference.REFTYPE_FIELD_NUMBER, RefType.CrossThread_VALUE);
+        }
+        size += ProtobufWire.computeStringSize(SegmentReference.TRACEID_FIELD_NUMBER, traceId);
+        size += ProtobufWire.computeStringSize(SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+        if (spanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SegmentReference.PARENTSPANID_FIELD_NUMBER, spanId);
+        }
+        size += ProtobufWire.computeStringSize(SegmentReference.PARENTSERVICE_FIELD_NUMBER, parentService);
+        size += ProtobufWire.computeStringSize(
+            SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, parentServiceInstance);
+        size += ProtobufWire.computeStringSize(SegmentReference.PARENTENDPOINT_FIELD_NUMBER, parentEndpoint);
+        size += ProtobufWire.computeStringSize(
+            SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, addressUsedAtClient);
+        memoizedSize = size;
+        return size;
+    }
+
+    /**
+     * @return the size computed by the last {@link #computeSerializedSize()}, which must be called before.
+     */
+    public int getMemoizedSize() {
+        return memoizedSize;
+    }
+
+    /**
+     * Write this ref as {@link SegmentReference}, byte-for-byte the same as {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        if (SegmentRefType.CROSS_THREAD.equals(type)) {
+            out.writeEnum(SegmentReference.REFTYPE_FIELD_NUMBER, RefType.CrossThread_VALUE);
+        }
+        ProtobufWire.writeString(out, SegmentReference.TRACEID_FIELD_NUMBER, traceId);
+        ProtobufWire.writeString(out, SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+        if (spanId != 0) {
+            out.writeInt32(SegmentReference.PARENTSPANID_FIELD_NUMBER, spanId);
+        }
+        ProtobufWire.writeString(out, SegmentReference.PARENTSERVICE_FIELD_NUMBER, parentService);
+        ProtobufWire.writeString(out, SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, parentServiceInstance);
+        ProtobufWire.writeString(out, SegmentReference.PARENTENDPOINT_FIELD_NUMBER, parentEndpoint);
+        ProtobufWire.writeString(out, SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, addressUsedAtClient);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
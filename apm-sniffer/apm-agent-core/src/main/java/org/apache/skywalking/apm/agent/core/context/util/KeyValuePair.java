@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 
 /**
@@ -27,6 +29,11 @@ public class KeyValuePair {
     private String key;
     private String value;
 
+    /**
+     * Memoized by {@link #computeSerializedSize()}, for the log writing this pair as a nested message.
+     */
+    private int memoizedSize;
+
     public KeyValuePair(String key, String value) {
         this.key = key;
         this.value = value;
@@ -43,9 +50,42 @@ public class KeyValuePair {
     public KeyStringValuePair transform() {
         KeyStringValuePair.Builder keyValueBuilder = KeyStringValuePair.newBuilder();
         keyValueBuilder.setKey(key);
+        String value = getValue();
         if (value != null) {
             keyValueBuilder.setValue(value);
         }
         return keyValueBuilder.build();
     }
+
+    /**
+     * @return the size of this pair serialized as {@link KeyStringValuePair}.
+     */
+    public int computeSerializedSize() {
+        memoizedSize = computeSerializedSize(key, getValue());
+        return memoizedSize;
+    }
+
+    /**
+     * @return the size memoized by the last {@link #computeSerializedSize()}.
+     */
+    public int getMemoizedSize() {
+        return memoizedSize;
+    }
+
+    /**
+     * Write this pair as {@link KeyStringValuePair}, byte-for-byte the same as {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        writeTo(out, key, getValue());
+    }
+
+    static int computeSerializedSize(String key, String value) {
+        return ProtobufWire.computeStringSize(KeyStringValuePair.KEY_FIELD_NUMBER, key)
+            + ProtobufWire.computeStringSize(KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
+
+    static void writeTo(CodedOutputStream out, String key, String value) throws IOException {
+        ProtobufWire.writeString(out, KeyStringValuePair.KEY_FIELD_NUMBER, key);
+        ProtobufWire.writeString(out, KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+
+/**
+ * Helpers of writing the protobuf wire format directly, following the proto3 rules of the generated messages, the
+ * empty strings and default values are not serialized.
+ */
+public final class ProtobufWire {
+    private ProtobufWire() {
+    }
+
+    public static int computeStringSize(int fieldNumber, String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        return CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    public static void writeString(CodedOutputStream out, int fieldNumber, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        out.writeString(fieldNumber, value);
+    }
+
+    /**
+     * @param messageSize the serialized size of the embedded message.
+     * @return the size of the embedded message including its tag and length.
+     */
+    public static int computeMessageSize(int fieldNumber, int messageSize) {
+        return CodedOutputStream.computeTagSize(fieldNumber)
+            + CodedOutputStream.computeUInt32SizeNoTag(messageSize)
+            + messageSize;
+    }
+
+    /**
+     * Write the tag and the length of an embedded message, the fields of the message should be written after this.
+     */
+    public static void writeMessageHeader(CodedOutputStream out,
+                                          int fieldNumber,
+                                          int messageSize) throws IOException {
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(messageSize);
+    }
+}
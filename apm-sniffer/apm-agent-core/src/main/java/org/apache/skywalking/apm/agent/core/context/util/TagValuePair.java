@@ -17,6 +17,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
@@ -25,6 +27,11 @@ public class TagValuePair {
     private AbstractTag key;
     private String value;
 
+    /**
+     * Memoized by {@link #computeSerializedSize()}, for the span writing this tag as a nested message.
+     */
+    private int memoizedSize;
+
     public TagValuePair(AbstractTag tag, String value) {
         this.key = tag;
         this.value = value;
@@ -47,6 +54,28 @@ public class TagValuePair {
         return keyValueBuilder.build();
     }
 
+    /**
+     * @return the size of this tag serialized as {@link KeyStringValuePair}.
+     */
+    public int computeSerializedSize() {
+        memoizedSize = KeyValuePair.computeSerializedSize(key.key(), value);
+        return memoizedSize;
+    }
+
+    /**
+     * @return the size memoized by the last {@link #computeSerializedSize()}.
+     */
+    public int getMemoizedSize() {
+        return memoizedSize;
+    }
+
+    /**
+     * Write this tag as {@link KeyStringValuePair}, byte-for-byte the same as {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream out) throws IOException {
+        KeyValuePair.writeTo(out, key.key(), value);
+    }
+
     public boolean sameWith(AbstractTag tag) {
         return key.isCanOverwrite() && key.getId() == tag.getId();
     }
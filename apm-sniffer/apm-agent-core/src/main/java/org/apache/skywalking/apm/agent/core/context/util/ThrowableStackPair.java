@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+/**
+ * The <code>ThrowableStackPair</code> is the stack of a logged exception, rendered at the first read of the value. The
+ * segment renders all of them together when it is reported, see {@link ThrowableTransformer#render(java.util.List)}.
+ */
+public class ThrowableStackPair extends KeyValuePair {
+    private Throwable throwable;
+    private final int maxLength;
+    private String stack;
+
+    public ThrowableStackPair(String key, Throwable throwable, int maxLength) {
+        super(key, null);
+        this.throwable = throwable;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String getValue() {
+        if (stack == null) {
+            setStack(ThrowableTransformer.INSTANCE.convert2String(throwable, maxLength));
+        }
+        return stack;
+    }
+
+    public boolean isRendered() {
+        return stack != null;
+    }
+
+    Throwable getThrowable() {
+        return throwable;
+    }
+
+    int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Keep the rendered stack, and drop the exception.
+     */
+    void setStack(String stack) {
+        this.stack = stack;
+        this.throwable = null;
+    }
+}
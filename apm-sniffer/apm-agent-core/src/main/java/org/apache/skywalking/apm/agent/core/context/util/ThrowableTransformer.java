@@ -18,6 +18,13 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.apache.skywalking.apm.agent.core.conf.Config.Agent.CAUSE_EXCEPTION_DEPTH;
 
 /**
@@ -28,25 +35,21 @@ public enum ThrowableTransformer {
 
     private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+    /**
+     * The builder reused by {@link #render(List)} in the reporter threads, dropped if it has grown beyond this.
+     */
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
     public String convert2String(Throwable throwable, final int maxLength) {
         final StringBuilder stackMessage = new StringBuilder();
         Throwable causeException = throwable;
 
         int depth = CAUSE_EXCEPTION_DEPTH;
         while (causeException != null && depth != 0) {
-            stackMessage.append(printExceptionInfo(causeException));
-
-            boolean isLookDeeper = printStackElement(causeException.getStackTrace(), new AppendListener() {
-                @Override
-                public void append(String value) {
-                    stackMessage.append(value);
-                }
-
-                @Override
-                public boolean overMaxLength() {
-                    return stackMessage.length() > maxLength;
-                }
-            });
+            boolean isLookDeeper = printException(
+                stackMessage, causeException.toString(), causeException.getStackTrace(), maxLength);
 
             if (isLookDeeper) {
                 break;
@@ -59,11 +62,53 @@ public enum ThrowableTransformer {
         return stackMessage.toString();
     }
 
-    private String printExceptionInfo(Throwable causeException) {
-        return causeException.toString() + LINE_SEPARATOR;
+    /**
+     * Render the stacks of the given pairs, the same as {@link #convert2String(Throwable, int)} does. The pairs of the
+     * same exception, or of exceptions having the same messages and stack traces, share one rendered stack.
+     */
+    public void render(List<ThrowableStackPair> pairs) {
+        final StringBuilder stackMessage = BUILDER.get();
+        final Map<Throwable, ThrowableStackPair> renderedThrowables = new IdentityHashMap<>();
+        final Map<StackKey, String> renderedStacks = new HashMap<>();
+        for (ThrowableStackPair pair : pairs) {
+            if (pair.isRendered()) {
+                continue;
+            }
+            Throwable throwable = pair.getThrowable();
+            ThrowableStackPair rendered = renderedThrowables.get(throwable);
+            if (rendered != null && rendered.getMaxLength() == pair.getMaxLength()) {
+                pair.setStack(rendered.getValue());
+                continue;
+            }
+            StackKey key = new StackKey(throwable, pair.getMaxLength());
+            String stack = renderedStacks.get(key);
+            if (stack == null) {
+                stackMessage.setLength(0);
+                for (int i = 0; i < key.exceptionInfos.length; i++) {
+                    if (printException(stackMessage, key.exceptionInfos[i], key.stackTraces[i], key.maxLength)) {
+                        break;
+                    }
+                }
+                stack = stackMessage.toString();
+                renderedStacks.put(key, stack);
+            }
+            pair.setStack(stack);
+            renderedThrowables.put(throwable, pair);
+        }
+        if (stackMessage.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+            BUILDER.remove();
+        }
     }
 
-    private boolean printStackElement(StackTraceElement[] stackTrace, AppendListener printListener) {
+    /**
+     * Print the exception info and its stack.
+     *
+     * @return true if the stack shouldn't be printed deeper.
+     */
+    private boolean printException(StringBuilder stackMessage, String exceptionInfo, StackTraceElement[] stackTrace,
+                                   int maxLength) {
+        stackMessage.append(exceptionInfo).append(LINE_SEPARATOR);
+
         if (stackTrace.length == 0) {
             /**
              * In some cases, people would fill empty stackTrace intentionally.
@@ -73,17 +118,61 @@ public enum ThrowableTransformer {
         }
 
         for (StackTraceElement traceElement : stackTrace) {
-            printListener.append("at " + traceElement + LINE_SEPARATOR);
-            if (printListener.overMaxLength()) {
+            stackMessage.append("at ").append(traceElement).append(LINE_SEPARATOR);
+            if (stackMessage.length() > maxLength) {
                 return true;
             }
         }
         return false;
     }
 
-    private interface AppendListener {
-        void append(String value);
+    /**
+     * Everything the rendered stack depends on, the infos and stack traces of the exception and its causes.
+     */
+    private static class StackKey {
+        private final String[] exceptionInfos;
+        private final StackTraceElement[][] stackTraces;
+        private final int maxLength;
+        private final int hashCode;
+
+        private StackKey(Throwable throwable, int maxLength) {
+            List<String> infos = new ArrayList<>(2);
+            List<StackTraceElement[]> traces = new ArrayList<>(2);
+            Throwable causeException = throwable;
+            int depth = CAUSE_EXCEPTION_DEPTH;
+            while (causeException != null && depth != 0) {
+                StackTraceElement[] stackTrace = causeException.getStackTrace();
+                infos.add(causeException.toString());
+                traces.add(stackTrace);
+                if (stackTrace.length == 0) {
+                    break;
+                }
+                causeException = causeException.getCause();
+                depth--;
+            }
+            this.exceptionInfos = infos.toArray(new String[0]);
+            this.stackTraces = traces.toArray(new StackTraceElement[0][]);
+            this.maxLength = maxLength;
+            this.hashCode = 31 * (31 * Arrays.hashCode(exceptionInfos) + Arrays.deepHashCode(stackTraces)) + maxLength;
+        }
 
-        boolean overMaxLength();
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StackKey)) {
+                return false;
+            }
+            StackKey key = (StackKey) o;
+            return maxLength == key.maxLength
+                && Arrays.equals(exceptionInfos, key.exceptionInfos)
+                && Arrays.deepEquals(stackTraces, key.stackTraces);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
@@ -32,7 +32,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 
 /**
  * An abstract class to simplify the real implementation of the loggers.
@@ -186,21 +185,20 @@ public abstract class AbstractLogger implements ILog {
         if (message == null) {
             return message;
         }
+        int index = message.indexOf("{}");
+        if (index == -1 || parameters == null || parameters.length == 0) {
+            return message;
+        }
+        // Copy the message piece by piece, the placeholders inside the parameters are kept as they are.
+        StringBuilder builder = new StringBuilder(message.length() + 16 * parameters.length);
         int startSize = 0;
         int parametersIndex = 0;
-        int index;
-        String tmpMessage = message;
-        while ((index = message.indexOf("{}", startSize)) != -1) {
-            if (parametersIndex >= parameters.length) {
-                break;
-            }
-            /**
-             * @Fix the Illegal group reference issue
-             */
-            tmpMessage = tmpMessage.replaceFirst("\\{\\}", Matcher.quoteReplacement(String.valueOf(parameters[parametersIndex++])));
+        while (index != -1 && parametersIndex < parameters.length) {
+            builder.append(message, startSize, index).append(parameters[parametersIndex++]);
             startSize = index + 2;
+            index = message.indexOf("{}", startSize);
         }
-        return tmpMessage;
+        return builder.append(message, startSize, message.length()).toString();
     }
 
     protected void logger(LogLevel level, String message, Throwable e) {
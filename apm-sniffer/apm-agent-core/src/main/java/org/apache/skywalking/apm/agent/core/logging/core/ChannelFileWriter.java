@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+
+/**
+ * The <code>ChannelFileWriter</code> is the file output activated by {@link Config.Logging#CHANNEL_WRITER}. The logs
+ * are queued into a {@link DataCarrier} without blocking, the lines not fitting in the queue are dropped and counted.
+ * A single consumer thread encodes the lines into a reused direct buffer, writes them through a {@link FileChannel} in
+ * batches, and rolls the file, so the producers never wait for the disk.
+ */
+public class ChannelFileWriter implements IWriter, IConsumer<String> {
+    private static volatile ChannelFileWriter INSTANCE;
+    private static final Object CREATE_LOCK = new Object();
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int DIRECT_BUFFER_SIZE = 64 * 1024;
+
+    private final DataCarrier<String> carrier;
+    private final LongAdder droppedCount = new LongAdder();
+    private final Pattern filenamePattern = Pattern.compile(
+        Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
+
+    /**
+     * Only accessed by the consumer thread.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+    private final CharsetEncoder encoder = Charset.defaultCharset()
+                                                  .newEncoder()
+                                                  .onMalformedInput(CodingErrorAction.REPLACE)
+                                                  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[1024];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private FileChannel fileChannel;
+    private long fileSize;
+
+    public static ChannelFileWriter get() {
+        if (INSTANCE == null) {
+            synchronized (CREATE_LOCK) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ChannelFileWriter();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ChannelFileWriter() {
+        carrier = new DataCarrier<>("SkywalkingAgent-LogChannelWriter", "SW_LOGGING", 1, BUFFER_SIZE,
+                                    BufferStrategy.IF_POSSIBLE);
+        carrier.consume(this, 1);
+    }
+
+    /**
+     * Queue the log without blocking, it is dropped if the queue is full.
+     *
+     * @param message to log
+     */
+    @Override
+    public void write(String message) {
+        if (!carrier.produce(message)) {
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * @return the count of the logs dropped as the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    @Override
+    public void init(final Properties properties) {
+    }
+
+    @Override
+    public void consume(final List<String> data) {
+        if (!prepareChannel()) {
+            droppedCount.add(data.size());
+            return;
+        }
+        try {
+            for (String message : data) {
+                encode(message);
+            }
+            flushBuffer();
+        } catch (IOException e) {
+            e.printStackTrace();
+            buffer.clear();
+            closeChannel();
+        }
+        if (fileSize > Config.Logging.MAX_FILE_SIZE) {
+            switchFile();
+        }
+    }
+
+    @Override
+    public void onError(final List<String> data, final Throwable t) {
+        t.printStackTrace();
+    }
+
+    @Override
+    public void onExit() {
+        closeChannel();
+    }
+
+    /**
+     * Encode the message and the line separator into the direct buffer, writing the buffer out whenever it is full.
+     */
+    private void encode(String message) throws IOException {
+        int length = message.length() + Constants.LINE_SEPARATOR.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        message.getChars(0, message.length(), chars, 0);
+        Constants.LINE_SEPARATOR.getChars(0, Constants.LINE_SEPARATOR.length(), chars, message.length());
+        charBuffer.clear();
+        charBuffer.limit(length);
+
+        encoder.reset();
+        CoderResult result = encoder.encode(charBuffer, buffer, true);
+        while (result.isOverflow()) {
+            flushBuffer();
+            result = encoder.encode(charBuffer, buffer, true);
+        }
+        result = encoder.flush(buffer);
+        while (result.isOverflow()) {
+            flushBuffer();
+            result = encoder.flush(buffer);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileSize += fileChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Roll the file in the consumer thread, the logs keep being queued meanwhile.
+     */
+    private void switchFile() {
+        closeChannel();
+        String suffix = new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss").format(new Date());
+        new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(
+            new File(Config.Logging.DIR, Config.Logging.FILE_NAME + suffix));
+        if (Config.Logging.MAX_HISTORY_FILES > 0) {
+            FileWriter.deleteExpiredFiles(filenamePattern);
+        }
+    }
+
+    private void closeChannel() {
+        if (fileChannel == null) {
+            return;
+        }
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        fileChannel = null;
+    }
+
+    /**
+     * @return true if the channel is ready.
+     */
+    private boolean prepareChannel() {
+        if (fileChannel != null) {
+            return true;
+        }
+        File logFilePath = new File(Config.Logging.DIR);
+        if (!logFilePath.exists()) {
+            logFilePath.mkdirs();
+        } else if (!logFilePath.isDirectory()) {
+            System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
+        }
+        try {
+            fileChannel = FileChannel.open(
+                new File(logFilePath, Config.Logging.FILE_NAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+            );
+            fileSize = fileChannel.size();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return fileChannel != null;
+    }
+}
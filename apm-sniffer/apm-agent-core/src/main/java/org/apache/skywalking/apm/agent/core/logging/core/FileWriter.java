@@ -150,7 +150,7 @@ public class FileWriter implements IWriter {
             });
 
             if (Config.Logging.MAX_HISTORY_FILES > 0) {
-                deleteExpiredFiles();
+                deleteExpiredFiles(filenamePattern);
             }
         }
     }
@@ -160,7 +160,7 @@ public class FileWriter implements IWriter {
      *
      * @return history log file name array
      */
-    private String[] getHistoryFilePath() {
+    private static String[] getHistoryFilePath(final Pattern filenamePattern) {
         File path = new File(Config.Logging.DIR);
         String[] pathArr = path.list(new FilenameFilter() {
             @Override
@@ -175,8 +175,8 @@ public class FileWriter implements IWriter {
     /**
      * delete expired log files
      */
-    private void deleteExpiredFiles() {
-        String[] historyFileArr = getHistoryFilePath();
+    static void deleteExpiredFiles(final Pattern filenamePattern) {
+        String[] historyFileArr = getHistoryFilePath(filenamePattern);
         if (historyFileArr != null && historyFileArr.length > Config.Logging.MAX_HISTORY_FILES) {
 
             Arrays.sort(historyFileArr, new Comparator<String>() {
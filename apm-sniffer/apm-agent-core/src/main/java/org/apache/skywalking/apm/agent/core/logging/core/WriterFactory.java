@@ -46,7 +46,7 @@ public class WriterFactory {
                             e.printStackTrace();
                         }
                     }
-                    WRITER = FileWriter.get();
+                    WRITER = Config.Logging.CHANNEL_WRITER ? ChannelFileWriter.get() : FileWriter.get();
                 } else {
                     return SystemOutWriter.INSTANCE;
                 }
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Locates the bucket of a value in a sorted step array. The step layout is detected once when the histogram is built,
+ * uniform, exponential and HDR style log-linear layouts are resolved by a direct index computation which is corrected
+ * by at most a few neighbour comparisons, any other layout falls back to the binary search.
+ *
+ * A leading bucket of another width is tolerated, as the builders prepend the min value in front of the steps.
+ */
+final class BucketIndexer {
+    /**
+     * Relative tolerance of the layout detection, the direct index is always corrected against the real steps
+     */
+    private static final double TOLERANCE = 1e-9;
+
+    private final double[] steps;
+    private final Layout layout;
+    /**
+     * Index of the first step of the detected layout, 0 or 1
+     */
+    private final int offset;
+    private final double origin;
+    /**
+     * Width of the uniform layout, 1/ln(ratio) of the exponential layout, sub buckets per octave of the log-linear
+     */
+    private final double factor;
+
+    private BucketIndexer(double[] steps, Layout layout, int offset, double factor) {
+        this.steps = steps;
+        this.layout = layout;
+        this.offset = offset;
+        this.origin = steps[offset];
+        this.factor = factor;
+    }
+
+    /**
+     * @param steps sorted and distinct minimal values of every bucket
+     */
+    static BucketIndexer of(double[] steps) {
+        BucketIndexer indexer = detect(steps, 0);
+        if (indexer == null && steps.length > 3) {
+            indexer = detect(steps, 1);
+        }
+        return indexer != null ? indexer : new BucketIndexer(steps, Layout.BINARY, 0, 0);
+    }
+
+    /**
+     * Generate the HDR style log-linear steps, every power of two above the lowest value is split into the same count
+     * of linear sub buckets, so the relative error of each bucket is bounded by {@code 1 / subBuckets}.
+     *
+     * @param lowest     the first step, must be positive
+     * @param highest    the value which the last bounded bucket must reach
+     * @param subBuckets count of the buckets in every power of two
+     */
+    static List<Double> exponentialSteps(double lowest, double highest, int subBuckets) {
+        if (!(lowest > 0) || Double.isInfinite(lowest)) {
+            throw new IllegalArgumentException("Lowest value must be positive");
+        }
+        if (!(highest > lowest) || Double.isInfinite(highest)) {
+            throw new IllegalArgumentException("Highest value must be finite and bigger than the lowest value");
+        }
+        if (subBuckets < 1) {
+            throw new IllegalArgumentException("Sub buckets must be positive");
+        }
+        final List<Double> steps = new ArrayList<>();
+        for (int octave = 0; ; octave++) {
+            for (int i = 0; i < subBuckets; i++) {
+                final double step = Math.scalb(lowest * (1 + (double) i / subBuckets), octave);
+                steps.add(step);
+                if (step >= highest) {
+                    return steps;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the index of the bucket [step(i), step(i + 1)) containing the value, or -1 when it is lower than the
+     * first step
+     */
+    int indexOf(double value) {
+        final double[] steps = this.steps;
+        if (!(value >= steps[0])) {
+            // lower than the min value or NaN
+            return -1;
+        }
+        if (value < origin) {
+            // only reachable by the leading bucket
+            return 0;
+        }
+
+        final int last = steps.length - 1;
+        int index;
+        switch (layout) {
+            case UNIFORM:
+                index = offset + toIndex((value - origin) / factor, last);
+                break;
+            case EXPONENTIAL:
+                index = offset + toIndex(Math.log(value / origin) * factor, last);
+                break;
+            case LOG_LINEAR:
+                final double ratio = value / origin;
+                final int octave = Math.getExponent(ratio);
+                if (octave > Double.MAX_EXPONENT) {
+                    // infinity
+                    return last;
+                }
+                final double linear = (Math.scalb(ratio, -octave) - 1) * factor;
+                index = offset + toIndex(octave * factor + Math.floor(linear), last);
+                break;
+            default:
+                return binarySearch(value);
+        }
+
+        // correct the floating point error of the direct index
+        if (index > last) {
+            index = last;
+        }
+        while (index < last && steps[index + 1] <= value) {
+            index++;
+        }
+        while (steps[index] > value) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int toIndex(double position, int last) {
+        return position >= last ? last : (int) position;
+    }
+
+    private int binarySearch(double value) {
+        int low = 0;
+        int high = steps.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (steps[mid] < value) {
+                low = mid + 1;
+            } else if (steps[mid] > value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        // because using min value as bucket, need using previous bucket
+        return low - 1;
+    }
+
+    Layout getLayout() {
+        return layout;
+    }
+
+    private static BucketIndexer detect(double[] steps, int offset) {
+        final int count = steps.length - offset;
+        if (count < 2) {
+            return null;
+        }
+        final double origin = steps[offset];
+
+        final double width = steps[offset + 1] - origin;
+        if (matches(steps, offset, i -> origin + i * width)) {
+            return new BucketIndexer(steps, Layout.UNIFORM, offset, width);
+        }
+        if (!(origin > 0)) {
+            return null;
+        }
+
+        // log-linear before the exponential, as one sub bucket per octave is both
+        int subBuckets = 0;
+        while (offset + subBuckets < steps.length && steps[offset + subBuckets] < origin * 2) {
+            subBuckets++;
+        }
+        final int perOctave = subBuckets;
+        if (count > perOctave && matches(
+            steps, offset, i -> Math.scalb(origin * (1 + (double) (i % perOctave) / perOctave), i / perOctave))) {
+            return new BucketIndexer(steps, Layout.LOG_LINEAR, offset, perOctave);
+        }
+
+        final double ratio = steps[offset + 1] / origin;
+        if (matches(steps, offset, i -> origin * Math.pow(ratio, i))) {
+            return new BucketIndexer(steps, Layout.EXPONENTIAL, offset, 1 / Math.log(ratio));
+        }
+        return null;
+    }
+
+    private static boolean matches(double[] steps, int offset, StepFunction expected) {
+        for (int i = offset; i < steps.length; i++) {
+            final double step = expected.step(i - offset);
+            if (Math.abs(steps[i] - step) > TOLERANCE * Math.max(Math.abs(steps[i]), Math.abs(step))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface StepFunction {
+        double step(int index);
+    }
+
+    enum Layout {
+        UNIFORM, EXPONENTIAL, LOG_LINEAR, BINARY
+    }
+}
@@ -50,29 +50,34 @@ public class Counter extends BaseMeter {
 
     @Override
     public MeterData.Builder transform() {
+        final double count = takeReportValue();
+
+        final MeterData.Builder builder = MeterData.newBuilder();
+        builder.setSingleValue(MeterSingleValue.newBuilder()
+            .setName(getName())
+            .addAllLabels(transformTags())
+            .setValue(count).build());
+
+        return builder;
+    }
+
+    /**
+     * Get the value to report, which is the increment since the previous report in the rate mode
+     */
+    double takeReportValue() {
         // using rate mode or increase
         final double currentValue = get();
-        double count;
         if (Objects.equals(mode, CounterMode.RATE)) {
             final Double previousValue = previous.getAndSet(currentValue);
 
             // calculate the add count
             if (previousValue == null) {
-                count = currentValue;
+                return currentValue;
             } else {
-                count = currentValue - previousValue;
+                return currentValue - previousValue;
             }
-        } else {
-            count = currentValue;
         }
-
-        final MeterData.Builder builder = MeterData.newBuilder();
-        builder.setSingleValue(MeterSingleValue.newBuilder()
-            .setName(getName())
-            .addAllLabels(transformTags())
-            .setValue(count).build());
-
-        return builder;
+        return currentValue;
     }
 
     /**
@@ -19,10 +19,9 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
@@ -32,9 +31,20 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
  * Histogram represents the distribution of data. It includes the buckets representing continuous ranges of values, with
  * the num of collected values in every specific range. The ranges could start from any value(default 0) to positive
  * infinitive. They can be set through the constructor and immutable after that.
+ *
+ * Every bucket counts through a striped {@link LongAdder}, so concurrent recording threads don't contend on the same
+ * cache line. The bucket of a value is computed directly for the uniform, exponential and log-linear step layouts, see
+ * {@link BucketIndexer}.
  */
 public class Histogram extends BaseMeter {
     protected final Bucket[] buckets;
+    private final BucketIndexer indexer;
+
+    /**
+     * Two snapshots filled in turn by the reporter, recording threads never touch them.
+     */
+    private final Snapshot[] snapshots;
+    private int snapshotIndex;
 
     /**
      * @param meterId as the unique id of this meter instance
@@ -43,45 +53,46 @@ public class Histogram extends BaseMeter {
     public Histogram(MeterId meterId, List<Double> steps) {
         super(meterId);
         this.buckets = initBuckets(steps);
+        final double[] bounds = new double[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            bounds[i] = buckets[i].bucket;
+        }
+        this.indexer = BucketIndexer.of(bounds);
+        this.snapshots = new Snapshot[] {
+            new Snapshot(bounds),
+            new Snapshot(bounds)
+        };
     }
 
     /**
      * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
      */
     public void addValue(double value) {
-        Bucket bucket = findBucket(value);
-        if (bucket == null) {
+        final int index = indexer.indexOf(value);
+        if (index < 0) {
             return;
         }
 
-        bucket.increment(1L);
+        buckets[index].increment(1L);
     }
 
-    /**
-     * Using binary search the bucket
-     */
-    private Bucket findBucket(double value) {
-        int low = 0;
-        int high = buckets.length - 1;
-
-        while (low <= high) {
-            int mid = (low + high) / 2;
-            if (buckets[mid].bucket < value)
-                low = mid + 1;
-            else if (buckets[mid].bucket > value)
-                high = mid - 1;
-            else
-                return buckets[mid];
+    private Bucket[] initBuckets(List<Double> steps) {
+        final Bucket[] buckets = new Bucket[steps.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(steps.get(i));
         }
-
-        // because using min value as bucket, need using previous bucket
-        low -= 1;
-
-        return low < buckets.length && low >= 0 ? buckets[low] : null;
+        return buckets;
     }
 
-    private Bucket[] initBuckets(List<Double> steps) {
-        return steps.stream().map(Bucket::new).toArray(Bucket[]::new);
+    /**
+     * Take the snapshot of the current bucket counts. The two snapshot instances are reused in turn, a returned
+     * snapshot stays valid until the next but one call.
+     */
+    public synchronized Snapshot snapshot() {
+        snapshotIndex ^= 1;
+        final Snapshot snapshot = snapshots[snapshotIndex];
+        snapshot.fill(buckets);
+        return snapshot;
     }
 
     @Override
@@ -89,14 +100,18 @@ public class Histogram extends BaseMeter {
         final MeterData.Builder builder = MeterData.newBuilder();
 
         // get all values
-        List<MeterBucketValue> values = Arrays.stream(buckets)
-                                              .map(Histogram.Bucket::transform).collect(Collectors.toList());
-
-        return builder.setHistogram(MeterHistogram.newBuilder()
-                                                  .setName(getName())
-                                                  .addAllLabels(transformTags())
-                                                  .addAllValues(values)
-                                                  .build());
+        final Snapshot snapshot = snapshot();
+        final MeterHistogram.Builder histogram = MeterHistogram.newBuilder()
+                                                               .setName(getName())
+                                                               .addAllLabels(transformTags());
+        for (int i = 0; i < snapshot.size(); i++) {
+            histogram.addValues(MeterBucketValue.newBuilder()
+                                                .setBucket(snapshot.getBucket(i))
+                                                .setCount(snapshot.getCount(i))
+                                                .build());
+        }
+
+        return builder.setHistogram(histogram.build());
     }
 
     public static class Builder extends AbstractBuilder<Builder, Histogram> {
@@ -118,6 +133,20 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Set HDR style exponential bucket steps, every power of two from the lowest value is split into the same
+         * count of linear sub buckets, until the highest value is covered. The relative error of a recorded value is
+         * bounded by {@code 1 / subBuckets}, and its bucket is computed without searching.
+         *
+         * @param lowest     the first step, must be positive
+         * @param highest    the highest value expected to be recorded, bigger values are counted in the last bucket
+         * @param subBuckets count of the buckets in every power of two, such as 4 or 8
+         */
+        public Builder exponentialSteps(double lowest, double highest, int subBuckets) {
+            this.steps = BucketIndexer.exponentialSteps(lowest, highest, subBuckets);
+            return this;
+        }
+
         /**
          * Set min value, default is zero
          */
@@ -157,20 +186,20 @@ public class Histogram extends BaseMeter {
      */
     protected static class Bucket {
         protected double bucket;
-        protected AtomicLong count = new AtomicLong();
+        protected LongAdder count = new LongAdder();
 
         public Bucket(double bucket) {
             this.bucket = bucket;
         }
 
         public void increment(long count) {
-            this.count.addAndGet(count);
+            this.count.add(count);
         }
 
         public MeterBucketValue transform() {
             return MeterBucketValue.newBuilder()
                                    .setBucket(bucket)
-                                   .setCount(count.get())
+                                   .setCount(count.sum())
                                    .build();
         }
 
@@ -189,4 +218,77 @@ public class Histogram extends BaseMeter {
             return Objects.hash(bucket);
         }
     }
+
+    /**
+     * Point in time copy of the bucket counts, used by the report and to estimate percentiles.
+     */
+    public static class Snapshot {
+        private final double[] buckets;
+        private final long[] counts;
+        private long totalCount;
+
+        Snapshot(double[] buckets) {
+            this.buckets = buckets;
+            this.counts = new long[buckets.length];
+        }
+
+        private void fill(Bucket[] source) {
+            long total = 0;
+            for (int i = 0; i < source.length; i++) {
+                counts[i] = source[i].count.sum();
+                total += counts[i];
+            }
+            totalCount = total;
+        }
+
+        public int size() {
+            return counts.length;
+        }
+
+        /**
+         * @return the minimal value of the bucket
+         */
+        public double getBucket(int index) {
+            return buckets[index];
+        }
+
+        public long getCount(int index) {
+            return counts[index];
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * Estimate the value at the given percentile, by the linear interpolation inside the bucket containing it. The
+         * last bucket has no upper bound, so its minimal value is returned.
+         *
+         * @param percentile in the range of [0, 100]
+         * @return the estimated value, or NaN when nothing has been recorded
+         */
+        public double valueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be in the range of [0, 100]");
+            }
+            if (totalCount == 0) {
+                return Double.NaN;
+            }
+            final double rank = percentile / 100 * totalCount;
+            long passed = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (passed + counts[i] >= rank) {
+                    if (i == counts.length - 1) {
+                        return buckets[i];
+                    }
+                    return buckets[i] + (buckets[i + 1] - buckets[i]) * (rank - passed) / counts[i];
+                }
+                passed += counts[i];
+            }
+            return buckets[counts.length - 1];
+        }
+    }
 }
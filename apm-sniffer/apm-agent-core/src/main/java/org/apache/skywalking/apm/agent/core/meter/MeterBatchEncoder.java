@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterDataCollection;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterReportServiceGrpc;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
+
+/**
+ * Encode the meters into size bounded {@link MeterDataCollection} messages in the protobuf wire format directly, and
+ * send them through the collectBatch method of MeterReportService as pre-encoded messages.
+ * <p>
+ * The name and labels of every meter are encoded once and kept by its {@link MeterId}. The counters, gauges and
+ * histograms not changed since their last report are skipped, except in the full reports, which happen every {@link
+ * Config.Meter#FULL_REPORT_PERIOD} reports and after {@link #resync()}. Other meters are always reported through their
+ * {@link BaseMeter#transform()}.
+ * <p>
+ * The encoder keeps the last reported values, so it should be used by the single report thread only.
+ */
+public class MeterBatchEncoder {
+    private static final ILog LOGGER = LogManager.getLogger(MeterBatchEncoder.class);
+    private static final int MIN_BATCH_CAPACITY = 4096;
+
+    static final MethodDescriptor<EncodedBatch, Commands> COLLECT_BATCH_METHOD =
+        MeterReportServiceGrpc.getCollectBatchMethod()
+                              .toBuilder(
+                                  new EncodedBatchMarshaller(),
+                                  ProtoUtils.marshaller(Commands.getDefaultInstance())
+                              )
+                              .build();
+
+    private final Map<MeterId, ReportedMeter> reportedMeters = new HashMap<>();
+    /**
+     * The length of the last batch, as the initial capacity of the next one.
+     */
+    private int batchCapacity = MIN_BATCH_CAPACITY;
+    private int reportCount;
+    private volatile boolean resyncRequested = true;
+
+    /**
+     * Start a client stream of MeterReportService#collectBatch, which accepts the encoded batches.
+     *
+     * @param serviceStub provides the channel and the call options, such as deadline.
+     */
+    public static StreamObserver<EncodedBatch> collectBatch(MeterReportServiceGrpc.MeterReportServiceStub serviceStub,
+                                                            StreamObserver<Commands> responseObserver) {
+        return ClientCalls.asyncClientStreamingCall(
+            serviceStub.getChannel().newCall(COLLECT_BATCH_METHOD, serviceStub.getCallOptions()), responseObserver);
+    }
+
+    /**
+     * Report all meters in the next encoding, as the backend may have missed the previous reports.
+     */
+    public void resync() {
+        resyncRequested = true;
+    }
+
+    /**
+     * Encode the meters to report into batches. Every batch is a new one, never changed after it is passed to the
+     * consumer, as gRPC could marshal it again, when the call is retried with its buffered messages.
+     */
+    public void encode(Map<MeterId, BaseMeter> meterMap, Consumer<EncodedBatch> consumer) throws IOException {
+        final boolean fullReport = resyncRequested || reportCount % Math.max(Config.Meter.FULL_REPORT_PERIOD, 1) == 0;
+        resyncRequested = false;
+        reportCount = fullReport ? 1 : reportCount + 1;
+        if (fullReport) {
+            // forget the meters removed since the last full report
+            reportedMeters.keySet().retainAll(meterMap.keySet());
+        }
+
+        // only send the service base info at the first data of every batch
+        final String service = Config.Agent.SERVICE_NAME;
+        final String serviceInstance = Config.Agent.INSTANCE_NAME;
+        final long timestamp = System.currentTimeMillis();
+        final int serviceInfoSize = CodedOutputStream.computeStringSize(MeterData.SERVICE_FIELD_NUMBER, service)
+            + CodedOutputStream.computeStringSize(MeterData.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance)
+            + CodedOutputStream.computeInt64Size(MeterData.TIMESTAMP_FIELD_NUMBER, timestamp);
+
+        EncodedBatch batch = new EncodedBatch(batchCapacity);
+        for (BaseMeter meter : meterMap.values()) {
+            final ReportedMeter reportedMeter = reportedMeters.computeIfAbsent(meter.getId(), ReportedMeter::new);
+            final int metricSize;
+            try {
+                metricSize = reportedMeter.prepare(meter, fullReport);
+            } catch (Exception e) {
+                LOGGER.warn(e, "Cannot get the value of meter:{}", meter.getName());
+                continue;
+            }
+            if (metricSize < 0) {
+                continue;
+            }
+
+            if (batch.count > 0 && batch.length + recordSize(metricSize) > Config.Meter.MAX_BATCH_BYTES) {
+                consumer.accept(batch);
+                batchCapacity = Math.max(batch.length, MIN_BATCH_CAPACITY);
+                batch = new EncodedBatch(batchCapacity);
+            }
+
+            final boolean withServiceInfo = batch.count == 0;
+            final int dataSize = metricSize + (withServiceInfo ? serviceInfoSize : 0);
+            final CodedOutputStream out = batch.append(recordSize(dataSize));
+            out.writeTag(MeterDataCollection.METERDATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(dataSize);
+            if (withServiceInfo) {
+                out.writeString(MeterData.SERVICE_FIELD_NUMBER, service);
+                out.writeString(MeterData.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance);
+                out.writeInt64(MeterData.TIMESTAMP_FIELD_NUMBER, timestamp);
+            }
+            reportedMeter.writeTo(out);
+            out.checkNoSpaceLeft();
+        }
+
+        if (batch.count > 0) {
+            consumer.accept(batch);
+            batchCapacity = Math.max(batch.length, MIN_BATCH_CAPACITY);
+        }
+    }
+
+    private static int recordSize(int dataSize) {
+        return CodedOutputStream.computeTagSize(MeterDataCollection.METERDATA_FIELD_NUMBER)
+            + CodedOutputStream.computeUInt32SizeNoTag(dataSize) + dataSize;
+    }
+
+    private static int bucketSize(double bucket, long count) {
+        return (Double.doubleToRawLongBits(bucket) != 0
+            ? CodedOutputStream.computeDoubleSize(MeterBucketValue.BUCKET_FIELD_NUMBER, bucket) : 0)
+            + (count != 0 ? CodedOutputStream.computeInt64Size(MeterBucketValue.COUNT_FIELD_NUMBER, count) : 0);
+    }
+
+    /**
+     * The encoded name and labels and the last reported value of a meter.
+     */
+    private static class ReportedMeter {
+        private final MeterId meterId;
+        /**
+         * The name and labels fields of the MeterSingleValue or MeterHistogram message
+         */
+        private byte[] nameAndLabels;
+        private boolean reported;
+        /**
+         * The raw bits of the single value, or the total count of the histogram
+         */
+        private long lastValue;
+
+        private double value;
+        private Histogram.Snapshot snapshot;
+        private byte[] transformed;
+        private int innerSize;
+
+        private ReportedMeter(MeterId meterId) {
+            this.meterId = meterId;
+        }
+
+        /**
+         * Read the current value of the meter.
+         *
+         * @return the size of the metric fields of the MeterData, or -1 if the meter doesn't need to be reported
+         */
+        private int prepare(BaseMeter meter, boolean fullReport) {
+            snapshot = null;
+            transformed = null;
+            final long currentValue;
+            if (meter instanceof Counter) {
+                final Counter counter = (Counter) meter;
+                value = counter.takeReportValue();
+                currentValue = Double.doubleToRawLongBits(value);
+                // a repeated increment of the rate mode is still a change
+                if (!fullReport && reported && currentValue == lastValue
+                    && (counter.mode != CounterMode.RATE || value == 0)) {
+                    return -1;
+                }
+            } else if (meter instanceof Gauge) {
+                value = ((Gauge) meter).get();
+                currentValue = Double.doubleToRawLongBits(value);
+                if (!fullReport && reported && currentValue == lastValue) {
+                    return -1;
+                }
+            } else if (meter instanceof Histogram) {
+                snapshot = ((Histogram) meter).snapshot();
+                currentValue = snapshot.getTotalCount();
+                // the buckets are cumulative, so they are unchanged when the total count is
+                if (!fullReport && reported && currentValue == lastValue) {
+                    return -1;
+                }
+            } else {
+                final MeterData.Builder builder = meter.transform();
+                if (builder == null) {
+                    return -1;
+                }
+                transformed = builder.build().toByteArray();
+                return transformed.length;
+            }
+            reported = true;
+            lastValue = currentValue;
+
+            if (snapshot != null) {
+                if (nameAndLabels == null) {
+                    nameAndLabels = MeterHistogram.newBuilder()
+                                                  .setName(meterId.getName())
+                                                  .addAllLabels(meterId.transformTags())
+                                                  .build().toByteArray();
+                }
+                innerSize = nameAndLabels.length;
+                for (int i = 0; i < snapshot.size(); i++) {
+                    final int bucketSize = bucketSize(snapshot.getBucket(i), snapshot.getCount(i));
+                    innerSize += CodedOutputStream.computeTagSize(MeterHistogram.VALUES_FIELD_NUMBER)
+                        + CodedOutputStream.computeUInt32SizeNoTag(bucketSize) + bucketSize;
+                }
+                return CodedOutputStream.computeTagSize(MeterData.HISTOGRAM_FIELD_NUMBER)
+                    + CodedOutputStream.computeUInt32SizeNoTag(innerSize) + innerSize;
+            }
+
+            if (nameAndLabels == null) {
+                nameAndLabels = MeterSingleValue.newBuilder()
+                                                .setName(meterId.getName())
+                                                .addAllLabels(meterId.transformTags())
+                                                .build().toByteArray();
+            }
+            innerSize = nameAndLabels.length + (Double.doubleToRawLongBits(value) != 0
+                ? CodedOutputStream.computeDoubleSize(MeterSingleValue.VALUE_FIELD_NUMBER, value) : 0);
+            return CodedOutputStream.computeTagSize(MeterData.SINGLEVALUE_FIELD_NUMBER)
+                + CodedOutputStream.computeUInt32SizeNoTag(innerSize) + innerSize;
+        }
+
+        /**
+         * Write the metric fields of the MeterData read by the last {@link #prepare(BaseMeter, boolean)}
+         */
+        private void writeTo(CodedOutputStream out) throws IOException {
+            if (transformed != null) {
+                // concatenated messages are merged in parsing
+                out.writeRawBytes(transformed);
+                return;
+            }
+
+            if (snapshot != null) {
+                out.writeTag(MeterData.HISTOGRAM_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(innerSize);
+                out.writeRawBytes(nameAndLabels);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    final double bucket = snapshot.getBucket(i);
+                    final long count = snapshot.getCount(i);
+                    out.writeTag(MeterHistogram.VALUES_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    out.writeUInt32NoTag(bucketSize(bucket, count));
+                    if (Double.doubleToRawLongBits(bucket) != 0) {
+                        out.writeDouble(MeterBucketValue.BUCKET_FIELD_NUMBER, bucket);
+                    }
+                    if (count != 0) {
+                        out.writeInt64(MeterBucketValue.COUNT_FIELD_NUMBER, count);
+                    }
+                }
+                return;
+            }
+
+            out.writeTag(MeterData.SINGLEVALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(innerSize);
+            out.writeRawBytes(nameAndLabels);
+            if (Double.doubleToRawLongBits(value) != 0) {
+                out.writeDouble(MeterSingleValue.VALUE_FIELD_NUMBER, value);
+            }
+        }
+    }
+
+    /**
+     * The bytes of one encoded MeterDataCollection, backed by a growing array.
+     */
+    public static class EncodedBatch {
+        private byte[] bytes;
+        private int length;
+        private int count;
+
+        private EncodedBatch(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private CodedOutputStream append(int size) {
+            if (bytes.length < length + size) {
+                final byte[] grown = new byte[Math.max(length + size, bytes.length * 2)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+            final CodedOutputStream out = CodedOutputStream.newInstance(bytes, length, size);
+            length += size;
+            count++;
+            return out;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * @return the count of meters in the batch
+         */
+        public int count() {
+            return count;
+        }
+
+        public byte[] toByteArray() {
+            final byte[] copy = new byte[length];
+            System.arraycopy(bytes, 0, copy, 0, length);
+            return copy;
+        }
+    }
+
+    private static class EncodedBatchMarshaller implements MethodDescriptor.Marshaller<EncodedBatch> {
+        @Override
+        public InputStream stream(EncodedBatch value) {
+            // A new stream of the same bytes in every call, gRPC streams the message again in a retry.
+            return new EncodedBatchStream(value.bytes, value.length);
+        }
+
+        @Override
+        public EncodedBatch parse(InputStream stream) {
+            throw new UnsupportedOperationException("Encoded meter batch is only sent by the agent.");
+        }
+    }
+
+    private static class EncodedBatchStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        private EncodedBatchStream(byte[] bytes, int length) {
+            super(bytes, 0, length);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            final int length = count - pos;
+            target.write(buf, pos, length);
+            pos = count;
+            return length;
+        }
+    }
+}
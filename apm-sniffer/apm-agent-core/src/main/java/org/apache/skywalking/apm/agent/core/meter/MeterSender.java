@@ -50,6 +50,7 @@ public class MeterSender implements BootService, GRPCChannelListener {
 
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile MeterReportServiceGrpc.MeterReportServiceStub meterReportServiceStub;
+    private final MeterBatchEncoder batchEncoder = new MeterBatchEncoder();
 
     @Override
     public void prepare() {
@@ -63,12 +64,10 @@ public class MeterSender implements BootService, GRPCChannelListener {
 
     public void send(Map<MeterId, BaseMeter> meterMap, MeterService meterService) {
         if (status == GRPCChannelStatus.CONNECTED) {
-            StreamObserver<MeterData> reportStreamObserver = null;
+            StreamObserver<?> reportStreamObserver = null;
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
             try {
-                reportStreamObserver = meterReportServiceStub.withDeadlineAfter(
-                    GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-                ).collect(new StreamObserver<Commands>() {
+                final StreamObserver<Commands> responseObserver = new StreamObserver<Commands>() {
                     @Override
                     public void onNext(Commands commands) {
                     }
@@ -76,6 +75,7 @@ public class MeterSender implements BootService, GRPCChannelListener {
                     @Override
                     public void onError(Throwable throwable) {
                         status.finished();
+                        batchEncoder.resync();
                         if (LOGGER.isErrorEnable()) {
                             LOGGER.error(throwable, "Send meters to collector fail with a grpc internal exception.");
                         }
@@ -86,11 +86,22 @@ public class MeterSender implements BootService, GRPCChannelListener {
                     public void onCompleted() {
                         status.finished();
                     }
-                });
-
-                final StreamObserver<MeterData> reporter = reportStreamObserver;
-                transform(meterMap, meterData -> reporter.onNext(meterData));
+                };
+                final MeterReportServiceGrpc.MeterReportServiceStub serviceStub =
+                    meterReportServiceStub.withDeadlineAfter(GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS);
+
+                if (Config.Meter.REPORT_CHANGED_ONLY) {
+                    final StreamObserver<MeterBatchEncoder.EncodedBatch> reporter =
+                        MeterBatchEncoder.collectBatch(serviceStub, responseObserver);
+                    reportStreamObserver = reporter;
+                    batchEncoder.encode(meterMap, reporter::onNext);
+                } else {
+                    final StreamObserver<MeterData> reporter = serviceStub.collect(responseObserver);
+                    reportStreamObserver = reporter;
+                    transform(meterMap, meterData -> reporter.onNext(meterData));
+                }
             } catch (Throwable e) {
+                batchEncoder.resync();
                 if (!(e instanceof StatusRuntimeException)) {
                     LOGGER.error(e, "Report meters to backend fail.");
                     return;
@@ -147,6 +158,8 @@ public class MeterSender implements BootService, GRPCChannelListener {
         if (GRPCChannelStatus.CONNECTED.equals(status)) {
             Channel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class).getChannel();
             meterReportServiceStub = MeterReportServiceGrpc.newStub(channel);
+            // the backend may have been restarted
+            batchEncoder.resync();
         } else {
             meterReportServiceStub = null;
         }
@@ -48,6 +48,8 @@ public abstract class AbstractClassEnhancePluginDefine {
      */
     public static final String CONTEXT_ATTR_NAME = "_$EnhancedClassField_ws";
 
+    private volatile ClassMatch classMatch;
+
     /**
      * Main entrance of enhancing the class.
      *
@@ -145,6 +147,19 @@ public abstract class AbstractClassEnhancePluginDefine {
      */
     protected abstract ClassMatch enhanceClass();
 
+    /**
+     * @return the {@link ClassMatch} of {@link #enhanceClass()}, created once and shared by the {@link PluginFinder}
+     * for all the matching.
+     */
+    ClassMatch getClassMatch() {
+        ClassMatch match = classMatch;
+        if (match == null) {
+            match = enhanceClass();
+            classMatch = match;
+        }
+        return match;
+    }
+
     /**
      * Witness classname list. Why need witness classname? Let's see like this: A library existed two released versions
      * (like 1.0, 2.0), which include the same target classes, but because of version iterator, they may have the same
@@ -165,6 +180,19 @@ public abstract class AbstractClassEnhancePluginDefine {
         return false;
     }
 
+    /**
+     * Inline the interceptor calls into the enhanced methods through byte-buddy's advice, rather than delegating to
+     * {@code InstMethodsInter} or {@code StaticMethodsInter}. It avoids the {@code Callable} and the argument array (see
+     * {@link InstanceMethodsInterceptPoint#isArgumentsRequired()}) on every invocation, and suits the frequently called
+     * methods. Only the instance and static methods declared by the enhanced class could be intercepted in this mode.
+     * It only works for {@link ClassEnhancePluginDefine}, and is ignored in the bootstrap instrumentation.
+     *
+     * @return true to inline the interceptors of the instance and static methods.
+     */
+    public boolean isInlinedInterception() {
+        return false;
+    }
+
     /**
      * Constructor methods intercept point. See {@link ConstructorInterceptPoint}
      *
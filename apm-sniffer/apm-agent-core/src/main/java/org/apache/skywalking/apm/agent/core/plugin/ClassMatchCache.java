@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+
+/**
+ * The on-disk cache of the classes which match none of the plugins, keyed by the class name and the CRC32 of the class
+ * bytes. The classes proven not to match in the previous boots are skipped without evaluating the matchers of {@link
+ * PluginFinder#buildMatch()}, which resolve the type hierarchy and the annotations of every loaded class.
+ * <p>
+ * The matchers of byte-buddy don't expose the class bytes, so this cache is also registered as a {@link
+ * ClassFileTransformer} before the agent transformer. It keeps the hash of the class being transformed in the current
+ * thread, and changes nothing.
+ * <p>
+ * The whole cache is dropped when the agent version, the Java runtime or the activated plugins change. The super types
+ * are not part of the key, so the jar files of the cached classes are kept in the cache file too, by their sizes and
+ * last modified times, and the whole cache is dropped when any of them is changed or removed, such as the dependencies
+ * are upgraded. The classes out of a jar file, such as the ones in a folder, are never cached.
+ */
+public class ClassMatchCache implements ClassFileTransformer {
+    private static final ILog LOGGER = LogManager.getLogger(ClassMatchCache.class);
+
+    private static final int MAGIC = 0x53574d44;
+
+    /**
+     * The source of the classes without a code source, which are provided by the Java runtime.
+     */
+    static final JarFingerprint RUNTIME = new JarFingerprint("", 0, 0);
+    /**
+     * The source of the classes out of a jar file, which are never cached.
+     */
+    static final JarFingerprint UNCACHEABLE = new JarFingerprint("", -1, -1);
+
+    private final File file;
+    private final String fingerprint;
+    /**
+     * The class name to the hash of the class bytes, which matches none of the plugins.
+     */
+    private final Map<String, Integer> unmatched = new ConcurrentHashMap<>();
+    /**
+     * The path to the fingerprint of the jar files, which the cached classes are loaded from.
+     */
+    private final Map<String, JarFingerprint> jars = new ConcurrentHashMap<>();
+    private final Map<URL, JarFingerprint> sources = new ConcurrentHashMap<>();
+    private final ThreadLocal<ClassBytesHash> currentClass = ThreadLocal.withInitial(ClassBytesHash::new);
+    private final AtomicLong hits = new AtomicLong();
+
+    public ClassMatchCache(File file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        load();
+    }
+
+    /**
+     * Open the cache file configured by {@link Config.Plugin#CLASS_MATCH_CACHE_FILE}.
+     *
+     * @param pluginsFingerprint {@link PluginFinder#getPluginsFingerprint()}
+     */
+    public static ClassMatchCache open(String pluginsFingerprint) throws AgentPackageNotFoundException {
+        File file = new File(Config.Plugin.CLASS_MATCH_CACHE_FILE);
+        if (!file.isAbsolute()) {
+            file = new File(AgentPackagePath.getPath(), Config.Plugin.CLASS_MATCH_CACHE_FILE);
+        }
+        return new ClassMatchCache(
+            file, Config.Agent.VERSION + "/" + System.getProperty("java.runtime.version") + "/" + pluginsFingerprint);
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className != null) {
+            CRC32 crc = new CRC32();
+            crc.update(classfileBuffer, 0, classfileBuffer.length);
+            ClassBytesHash current = currentClass.get();
+            current.internalName = className;
+            current.hash = (int) crc.getValue();
+            current.source = sourceOf(protectionDomain);
+        }
+        return null;
+    }
+
+    private JarFingerprint sourceOf(ProtectionDomain protectionDomain) {
+        CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return RUNTIME;
+        }
+        return sources.computeIfAbsent(codeSource.getLocation(), ClassMatchCache::fingerprintOf);
+    }
+
+    /**
+     * @param location the code source location, such as file:/app/lib/a.jar, or jar:file:/app/app.jar!/lib/a.jar!/
+     *                 of the nested jar, which is changed along with the outer jar.
+     * @return the fingerprint of the jar file at the location, or {@link #UNCACHEABLE} if it isn't a jar file.
+     */
+    static JarFingerprint fingerprintOf(URL location) {
+        String spec = location.toString();
+        if (spec.startsWith("jar:")) {
+            spec = spec.substring("jar:".length());
+        }
+        int separator = spec.indexOf("!/");
+        if (separator >= 0) {
+            spec = spec.substring(0, separator);
+        }
+        if (!spec.startsWith("file:")) {
+            return UNCACHEABLE;
+        }
+        try {
+            File jar = new File(new URI(spec));
+            if (jar.isFile()) {
+                return new JarFingerprint(jar.getPath(), jar.length(), jar.lastModified());
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOGGER.debug("Class match cache ignores the classes of {}.", location);
+        }
+        return UNCACHEABLE;
+    }
+
+    /**
+     * @param matcher the matcher of all the plugins.
+     * @return the matcher skipping the cached classes, and caching the new classes which don't match.
+     */
+    public ElementMatcher<? super TypeDescription> wrap(final ElementMatcher<? super TypeDescription> matcher) {
+        return new CachedMatcher(this, matcher);
+    }
+
+    boolean isMatched(String className, int hash, JarFingerprint source,
+                      ElementMatcher<? super TypeDescription> matcher, TypeDescription target) {
+        if (source == UNCACHEABLE) {
+            return matcher.matches(target);
+        }
+        Integer cachedHash = unmatched.get(className);
+        if (cachedHash != null && cachedHash == hash) {
+            hits.incrementAndGet();
+            return false;
+        }
+        boolean matched = matcher.matches(target);
+        if (matched) {
+            unmatched.remove(className);
+        } else {
+            unmatched.put(className, hash);
+            if (source != RUNTIME) {
+                jars.putIfAbsent(source.path, source);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Write the cache file, through a temporary file in the same folder.
+     */
+    public void save() {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            File folder = file.getAbsoluteFile().getParentFile();
+            if (folder != null && !folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Can't create folder " + folder);
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(fingerprint);
+                Map<String, JarFingerprint> jarSnapshot = new HashMap<>(jars);
+                out.writeInt(jarSnapshot.size());
+                for (JarFingerprint jar : jarSnapshot.values()) {
+                    out.writeUTF(jar.path);
+                    out.writeLong(jar.length);
+                    out.writeLong(jar.lastModified);
+                }
+                Map<String, Integer> snapshot = new HashMap<>(unmatched);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Integer> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Class match cache {} saved, {} classes, {} hits.", file, unmatched.size(), hits.get());
+        } catch (IOException e) {
+            LOGGER.warn(e, "Failed to save class match cache {}.", file);
+        }
+    }
+
+    int size() {
+        return unmatched.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        Map<String, JarFingerprint> cachedJars = new HashMap<>();
+        Map<String, Integer> classes = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC || !fingerprint.equals(in.readUTF())) {
+                LOGGER.info("Class match cache {} is outdated, and ignored.", file);
+                return;
+            }
+            int jarCount = in.readInt();
+            for (int i = 0; i < jarCount; i++) {
+                JarFingerprint jar = new JarFingerprint(in.readUTF(), in.readLong(), in.readLong());
+                if (jar.isChanged()) {
+                    LOGGER.info("Class match cache {} is outdated as {} is changed, and ignored.", file, jar.path);
+                    return;
+                }
+                cachedJars.put(jar.path, jar);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String className = in.readUTF();
+                classes.put(className, in.readInt());
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "Failed to load class match cache {}, and ignored.", file);
+            return;
+        }
+        jars.putAll(cachedJars);
+        unmatched.putAll(classes);
+    }
+
+    /**
+     * Skip the cached classes of the {@link ClassMatchCache}, and delegate the others to the matcher of the plugins.
+     */
+    private static class CachedMatcher extends AbstractJunction<TypeDescription> {
+        private final ClassMatchCache cache;
+        private final ElementMatcher<? super TypeDescription> matcher;
+
+        private CachedMatcher(ClassMatchCache cache, ElementMatcher<? super TypeDescription> matcher) {
+            this.cache = cache;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matches(TypeDescription target) {
+            ClassBytesHash current = cache.currentClass.get();
+            if (!target.getInternalName().equals(current.internalName)) {
+                // the class is not being loaded or retransformed, such as the nested types.
+                return matcher.matches(target);
+            }
+            return cache.isMatched(target.getName(), current.hash, current.source, matcher, target);
+        }
+
+        @Override
+        public String toString() {
+            return "ClassMatchCache.CachedMatcher(" + matcher + ')';
+        }
+    }
+
+    private static class ClassBytesHash {
+        private String internalName;
+        private int hash;
+        private JarFingerprint source;
+    }
+
+    static class JarFingerprint {
+        private final String path;
+        private final long length;
+        private final long lastModified;
+
+        private JarFingerprint(String path, long length, long lastModified) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        private boolean isChanged() {
+            File jar = new File(path);
+            return !jar.isFile() || jar.length() != length || jar.lastModified() != lastModified;
+        }
+    }
+}
@@ -20,8 +20,14 @@ package org.apache.skywalking.apm.agent.core.plugin;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -49,25 +55,22 @@ public class PluginBootstrap {
             return new ArrayList<AbstractClassEnhancePluginDefine>();
         }
 
-        for (URL pluginUrl : resources) {
-            try {
-                PluginCfg.INSTANCE.load(pluginUrl.openStream());
-            } catch (Throwable t) {
-                LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+        List<AbstractClassEnhancePluginDefine> plugins;
+        if (Config.Plugin.BOOTSTRAP_PARALLELISM > 1) {
+            plugins = loadPluginsInParallel(resources, Config.Plugin.BOOTSTRAP_PARALLELISM);
+        } else {
+            for (URL pluginUrl : resources) {
+                PluginCfg.INSTANCE.add(parse(pluginUrl));
             }
-        }
 
-        List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
-
-        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
-        for (PluginDefine pluginDefine : pluginClassList) {
-            try {
-                LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
-                AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
-                    .getDefault()).newInstance();
-                plugins.add(plugin);
-            } catch (Throwable t) {
-                LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
+
+            plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
+            for (PluginDefine pluginDefine : pluginClassList) {
+                AbstractClassEnhancePluginDefine plugin = newPlugin(pluginDefine);
+                if (plugin != null) {
+                    plugins.add(plugin);
+                }
             }
         }
 
@@ -77,4 +80,76 @@ public class PluginBootstrap {
 
     }
 
+    /**
+     * Parse the plugin definition files, instantiate the plugin defines and create their {@link
+     * org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch}s on a bounded pool. The results are joined in the
+     * order of the tasks, so the plugins are in the same order as the sequential loading.
+     */
+    private List<AbstractClassEnhancePluginDefine> loadPluginsInParallel(List<URL> resources, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new PluginBootstrapThreadFactory(), null, false);
+        try {
+            List<ForkJoinTask<List<PluginDefine>>> parseTasks = new ArrayList<ForkJoinTask<List<PluginDefine>>>();
+            for (URL pluginUrl : resources) {
+                parseTasks.add(pool.submit(() -> parse(pluginUrl)));
+            }
+            for (ForkJoinTask<List<PluginDefine>> parseTask : parseTasks) {
+                PluginCfg.INSTANCE.add(parseTask.join());
+            }
+
+            List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
+
+            List<ForkJoinTask<AbstractClassEnhancePluginDefine>> loadTasks =
+                new ArrayList<ForkJoinTask<AbstractClassEnhancePluginDefine>>(pluginClassList.size());
+            for (PluginDefine pluginDefine : pluginClassList) {
+                loadTasks.add(pool.submit(() -> {
+                    AbstractClassEnhancePluginDefine plugin = newPlugin(pluginDefine);
+                    if (plugin != null) {
+                        plugin.getClassMatch();
+                    }
+                    return plugin;
+                }));
+            }
+            List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
+            for (ForkJoinTask<AbstractClassEnhancePluginDefine> loadTask : loadTasks) {
+                AbstractClassEnhancePluginDefine plugin = loadTask.join();
+                if (plugin != null) {
+                    plugins.add(plugin);
+                }
+            }
+            return plugins;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<PluginDefine> parse(URL pluginUrl) {
+        try {
+            return PluginCfg.parse(pluginUrl.openStream());
+        } catch (Throwable t) {
+            LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+            return Collections.emptyList();
+        }
+    }
+
+    private static AbstractClassEnhancePluginDefine newPlugin(PluginDefine pluginDefine) {
+        try {
+            LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
+            return (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
+                .getDefault()).newInstance();
+        } catch (Throwable t) {
+            LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            return null;
+        }
+    }
+
+    private static class PluginBootstrapThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final AtomicInteger threadSeq = new AtomicInteger(0);
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("SkywalkingAgent-PluginBootstrap-" + threadSeq.getAndIncrement());
+            return thread;
+        }
+    }
 }
@@ -38,6 +38,14 @@ public enum PluginCfg {
     private PluginSelector pluginSelector = new PluginSelector();
 
     void load(InputStream input) throws IOException {
+        add(parse(input));
+    }
+
+    /**
+     * Parse a plugin definition file, without changing the loaded plugin defines. It could be called concurrently.
+     */
+    static List<PluginDefine> parse(InputStream input) throws IOException {
+        List<PluginDefine> pluginDefines = new ArrayList<PluginDefine>();
         try {
             BufferedReader reader = new BufferedReader(new InputStreamReader(input));
             String pluginDefine;
@@ -47,7 +55,7 @@ public enum PluginCfg {
                         continue;
                     }
                     PluginDefine plugin = PluginDefine.build(pluginDefine);
-                    pluginClassList.add(plugin);
+                    pluginDefines.add(plugin);
                 } catch (IllegalPluginDefineException e) {
                     LOGGER.error(e, "Failed to format plugin({}) define.", pluginDefine);
                 }
@@ -55,6 +63,11 @@ public enum PluginCfg {
         } finally {
             input.close();
         }
+        return pluginDefines;
+    }
+
+    void add(List<PluginDefine> pluginDefines) {
+        pluginClassList.addAll(pluginDefines);
     }
 
     public List<PluginDefine> getPluginClassList() {
@@ -18,11 +18,14 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32;
 import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
@@ -43,11 +46,15 @@ public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final SignatureMatchIndex signatureMatchIndex;
+    private final String pluginsFingerprint;
     private static boolean IS_PLUGIN_INIT_COMPLETED = false;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
+        List<String> pluginNames = new ArrayList<String>(plugins.size());
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
-            ClassMatch match = plugin.enhanceClass();
+            pluginNames.add(plugin.getClass().getName());
+            ClassMatch match = plugin.getClassMatch();
 
             if (match == null) {
                 continue;
@@ -69,6 +76,13 @@ public class PluginFinder {
                 bootstrapClassMatchDefine.add(plugin);
             }
         }
+        signatureMatchIndex = new SignatureMatchIndex(signatureMatchDefine);
+        Collections.sort(pluginNames);
+        CRC32 crc = new CRC32();
+        for (String pluginName : pluginNames) {
+            crc.update(pluginName.getBytes(StandardCharsets.UTF_8));
+        }
+        pluginsFingerprint = pluginNames.size() + "-" + Long.toHexString(crc.getValue());
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
@@ -78,12 +92,7 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
-            IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
-            if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
-            }
-        }
+        matchedPlugins.addAll(signatureMatchIndex.find(typeDescription));
 
         return matchedPlugins;
     }
@@ -96,7 +105,7 @@ public class PluginFinder {
             }
         };
         for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
+            ClassMatch match = define.getClassMatch();
             if (match instanceof IndirectMatch) {
                 judge = judge.or(((IndirectMatch) match).buildJunction());
             }
@@ -106,6 +115,13 @@ public class PluginFinder {
         return new ProtectiveShieldMatcher(judge);
     }
 
+    /**
+     * @return the identity of the activated plugin defines, changed when any of them is added or removed.
+     */
+    public String getPluginsFingerprint() {
+        return pluginsFingerprint;
+    }
+
     public List<AbstractClassEnhancePluginDefine> getBootstrapClassMatchDefine() {
         return bootstrapClassMatchDefine;
     }
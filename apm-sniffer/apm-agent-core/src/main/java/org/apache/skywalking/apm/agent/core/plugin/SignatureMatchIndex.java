@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * The index of the plugin defines matched by {@link IndirectMatch}, built once from the plugin set. The {@link
+ * PrefixMatch}es are resolved through a trie of the prefixes, and the {@link HierarchyMatch}es through a map keyed by
+ * one of their parent types, so only the defines which could match are checked, after a single walk of the hierarchy.
+ * The other {@link IndirectMatch}es are checked one by one.
+ * <p>
+ * The defines are found in the order of the given list.
+ */
+class SignatureMatchIndex {
+    private final List<AbstractClassEnhancePluginDefine> defines;
+    private final TrieNode prefixTrie = new TrieNode();
+    private final Map<String, List<Integer>> hierarchyDefines = new HashMap<String, List<Integer>>();
+    private final List<Integer> otherDefines = new ArrayList<Integer>();
+
+    SignatureMatchIndex(List<AbstractClassEnhancePluginDefine> defines) {
+        this.defines = defines;
+        for (int i = 0; i < defines.size(); i++) {
+            IndirectMatch match = (IndirectMatch) defines.get(i).getClassMatch();
+            if (match instanceof PrefixMatch) {
+                for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                    prefixTrie.add(prefix, i);
+                }
+            } else if (match instanceof HierarchyMatch) {
+                String parentType = ((HierarchyMatch) match).getParentTypes()[0];
+                List<Integer> indexes = hierarchyDefines.get(parentType);
+                if (indexes == null) {
+                    indexes = new ArrayList<Integer>(1);
+                    hierarchyDefines.put(parentType, indexes);
+                }
+                indexes.add(i);
+            } else {
+                otherDefines.add(i);
+            }
+        }
+    }
+
+    /**
+     * @return the defines matching the given type, in the order of the given list.
+     */
+    List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+        MatchedIndexes matched = new MatchedIndexes();
+        prefixTrie.collect(typeDescription.getName(), matched);
+
+        if (!hierarchyDefines.isEmpty()) {
+            Set<String> superTypes = new HashSet<String>();
+            collectSuperTypes(typeDescription, superTypes);
+            for (String superType : superTypes) {
+                List<Integer> indexes = hierarchyDefines.get(superType);
+                if (indexes == null) {
+                    continue;
+                }
+                for (Integer index : indexes) {
+                    HierarchyMatch match = (HierarchyMatch) defines.get(index).getClassMatch();
+                    if (superTypes.containsAll(Arrays.asList(match.getParentTypes()))) {
+                        matched.add(index);
+                    }
+                }
+            }
+        }
+
+        for (Integer index : otherDefines) {
+            if (((IndirectMatch) defines.get(index).getClassMatch()).isMatch(typeDescription)) {
+                matched.add(index);
+            }
+        }
+
+        int[] indexes = matched.values;
+        int size = matched.size;
+        Arrays.sort(indexes, 0, size);
+        List<AbstractClassEnhancePluginDefine> matchedDefines = new ArrayList<AbstractClassEnhancePluginDefine>(size);
+        for (int i = 0; i < size; i++) {
+            // A define with several matched prefixes is collected more than once.
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                matchedDefines.add(defines.get(indexes[i]));
+            }
+        }
+        return matchedDefines;
+    }
+
+    /**
+     * Collect the raw names of all the super classes and interfaces, the same as {@link HierarchyMatch} walks them.
+     */
+    private static void collectSuperTypes(TypeDescription typeDescription, Set<String> superTypes) {
+        for (TypeDescription.Generic implInterface : typeDescription.getInterfaces()) {
+            collectHierarchy(implInterface, superTypes);
+        }
+        if (typeDescription.getSuperClass() != null) {
+            collectHierarchy(typeDescription.getSuperClass(), superTypes);
+        }
+    }
+
+    private static void collectHierarchy(TypeDescription.Generic clazz, Set<String> superTypes) {
+        if (!superTypes.add(clazz.asRawType().getTypeName())) {
+            // The super types of a visited type are collected already.
+            return;
+        }
+        for (TypeDescription.Generic generic : clazz.getInterfaces()) {
+            collectHierarchy(generic, superTypes);
+        }
+        TypeDescription.Generic superClazz = clazz.getSuperClass();
+        if (superClazz != null) {
+            collectHierarchy(superClazz, superTypes);
+        }
+    }
+
+    private static class MatchedIndexes {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int index) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = index;
+        }
+    }
+
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<Character, TrieNode>();
+        private int[] defines = new int[0];
+
+        private void add(String prefix, int index) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                TrieNode child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(prefix.charAt(i), child);
+                }
+                node = child;
+            }
+            node.defines = Arrays.copyOf(node.defines, node.defines.length + 1);
+            node.defines[node.defines.length - 1] = index;
+        }
+
+        /**
+         * Collect the defines of all the prefixes of the name.
+         */
+        private void collect(String name, MatchedIndexes matched) {
+            TrieNode node = this;
+            for (int i = 0; ; i++) {
+                for (int index : node.defines) {
+                    matched.add(index);
+                }
+                if (i == name.length() || (node = node.children.get(name.charAt(i))) == null) {
+                    return;
+                }
+            }
+        }
+    }
+}
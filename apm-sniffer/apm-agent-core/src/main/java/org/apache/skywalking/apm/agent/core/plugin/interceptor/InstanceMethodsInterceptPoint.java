@@ -45,6 +45,16 @@ public interface InstanceMethodsInterceptPoint {
 
     boolean isOverrideArgs();
 
+    /**
+     * Only used when the plugin define enables the inlined interception. Return false if the interceptor never reads
+     * the arguments, then no argument array is created for the invocation, and the interceptor receives an empty one.
+     *
+     * @return true if the interceptor reads the arguments.
+     */
+    default boolean isArgumentsRequired() {
+        return true;
+    }
+
     /**
      * To ensure that the hashCode for recreating the XxxInterceptPoint instance is the same as the previous instance,
      * each ElementMatcher implementation class needs to implement toString() method.
@@ -38,6 +38,7 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.DeclaredInstanceM
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.EnhanceException;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline.InlinedMethodsEnhancer;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
 import org.apache.skywalking.apm.util.StringUtil;
@@ -140,7 +141,13 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                 if (instanceMethodsInterceptPoint instanceof DeclaredInstanceMethodsInterceptPoint) {
                     junction = junction.and(ElementMatchers.<MethodDescription>isDeclaredBy(typeDescription));
                 }
-                if (instanceMethodsInterceptPoint.isOverrideArgs()) {
+                if (isInlinedInterception() && !isBootstrapInstrumentation()) {
+                    newClassBuilder = InlinedMethodsEnhancer.enhanceInstanceMethods(
+                        typeDescription, newClassBuilder, junction, interceptor,
+                        instanceMethodsInterceptPoint.isOverrideArgs(),
+                        instanceMethodsInterceptPoint.isArgumentsRequired(), classLoader
+                    );
+                } else if (instanceMethodsInterceptPoint.isOverrideArgs()) {
                     if (isBootstrapInstrumentation()) {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
@@ -192,7 +199,13 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                 throw new EnhanceException("no StaticMethodsAroundInterceptor define to enhance class " + enhanceOriginClassName);
             }
 
-            if (staticMethodsInterceptPoint.isOverrideArgs()) {
+            if (isInlinedInterception() && !isBootstrapInstrumentation()) {
+                newClassBuilder = InlinedMethodsEnhancer.enhanceStaticMethods(
+                    typeDescription, newClassBuilder, isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()),
+                    interceptor, staticMethodsInterceptPoint.isOverrideArgs(),
+                    staticMethodsInterceptPoint.isArgumentsRequired(), classLoader
+                );
+            } else if (staticMethodsInterceptPoint.isOverrideArgs()) {
                 if (isBootstrapInstrumentation()) {
                     newClassBuilder = newClassBuilder.method(isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()))
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeList;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The registry of the interceptor instances used by the inlined advices. Every advised method gets its own {@link
+ * Entry}, and the index of it is written into the advised method as a constant, so the dispatch from the enhanced code
+ * is an array read rather than a delegation through a generated field and a {@code Callable}.
+ * <p>
+ * The entries are never removed, as the enhanced classes could be alive as long as the JVM.
+ */
+public final class InlinedInterceptors {
+    private static final ILog LOGGER = LogManager.getLogger(InlinedInterceptors.class);
+
+    /**
+     * Passed as the arguments to the interceptor, when the intercept point declares the arguments are not required, or
+     * the advised method has no parameter.
+     */
+    public static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+    private static final Object LOCK = new Object();
+
+    private static volatile Entry[] ENTRIES = new Entry[64];
+
+    private static int SIZE = 0;
+
+    private InlinedInterceptors() {
+    }
+
+    /**
+     * @return the entry of the given index, which is bound into the advised method by {@link InterceptorIndex}.
+     */
+    public static Entry get(int index) {
+        return ENTRIES[index];
+    }
+
+    /**
+     * Register the interceptor for the advised method.
+     *
+     * @return the index of the new entry.
+     */
+    static int register(Object interceptor, MethodDescription method) {
+        final Entry entry = new Entry(interceptor, method);
+        synchronized (LOCK) {
+            Entry[] entries = ENTRIES;
+            if (SIZE == entries.length) {
+                entries = Arrays.copyOf(entries, entries.length << 1);
+            }
+            entries[SIZE] = entry;
+            ENTRIES = entries;
+            return SIZE++;
+        }
+    }
+
+    public static void beforeMethodFailure(Throwable t, Class<?> clazz, int index) {
+        LOGGER.error(t, "class[{}] before method[{}] intercept failure", clazz, get(index).methodName);
+    }
+
+    public static void handleMethodExceptionFailure(Throwable t, Class<?> clazz, int index) {
+        LOGGER.error(t, "class[{}] handle method[{}] exception failure", clazz, get(index).methodName);
+    }
+
+    public static void afterMethodFailure(Throwable t, Class<?> clazz, int index) {
+        LOGGER.error(t, "class[{}] after method[{}] intercept failure", clazz, get(index).methodName);
+    }
+
+    /**
+     * The interceptor of an advised method. The {@link Method} is only known by its description when the class is
+     * being enhanced, so it is resolved from the advised class at the first invocation, and cached.
+     */
+    public static final class Entry {
+        private final Object interceptor;
+        private final String methodName;
+        private final String returnTypeName;
+        private final String[] parameterTypeNames;
+        private volatile Method method;
+        private Class<?>[] parameterTypes;
+
+        private Entry(Object interceptor, MethodDescription method) {
+            this.interceptor = interceptor;
+            this.methodName = method.getInternalName();
+            this.returnTypeName = method.getReturnType().asErasure().getName();
+            TypeList.Generic parameters = method.getParameters().asTypeList();
+            this.parameterTypeNames = new String[parameters.size()];
+            int i = 0;
+            for (TypeDefinition parameter : parameters) {
+                parameterTypeNames[i++] = parameter.asErasure().getName();
+            }
+        }
+
+        public Object getInterceptor() {
+            return interceptor;
+        }
+
+        /**
+         * @param clazz the advised class, bound by the advice as a class constant.
+         * @return the advised method.
+         */
+        public Method getMethod(Class<?> clazz) {
+            Method resolved = method;
+            if (resolved == null) {
+                resolved = resolve(clazz);
+                parameterTypes = resolved.getParameterTypes();
+                method = resolved;
+            }
+            return resolved;
+        }
+
+        /**
+         * @return the parameter types of the advised method. Shared by all invocations, interceptors should not change
+         * it.
+         */
+        public Class<?>[] getParameterTypes(Class<?> clazz) {
+            getMethod(clazz);
+            return parameterTypes;
+        }
+
+        private Method resolve(Class<?> clazz) {
+            for (Method candidate : clazz.getDeclaredMethods()) {
+                if (candidate.getName().equals(methodName)
+                    && candidate.getReturnType().getName().equals(returnTypeName)
+                    && isSameParameterTypes(candidate.getParameterTypes())) {
+                    return candidate;
+                }
+            }
+            throw new IllegalStateException("Can't find method " + methodName + " in " + clazz);
+        }
+
+        private boolean isSameParameterTypes(Class<?>[] candidateTypes) {
+            if (candidateTypes.length != parameterTypeNames.length) {
+                return false;
+            }
+            for (int i = 0; i < candidateTypes.length; i++) {
+                if (!candidateTypes[i].getName().equals(parameterTypeNames[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.isBridge;
+import static net.bytebuddy.matcher.ElementMatchers.isNative;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Enhance the methods by inlining the advices, rather than delegating to {@code InstMethodsInter} or {@code
+ * StaticMethodsInter}. As the advices change the code of the methods, only the methods declared by the enhanced class
+ * could be intercepted, the inherited methods are not overridden.
+ */
+public final class InlinedMethodsEnhancer {
+
+    private InlinedMethodsEnhancer() {
+    }
+
+    /**
+     * @param matcher           the matcher of the instance methods to intercept.
+     * @param interceptor       the class name of the {@code InstanceMethodsAroundInterceptor}.
+     * @param overrideArgs      true, if the interceptor could change the arguments.
+     * @param argumentsRequired false, if the interceptor doesn't read the arguments.
+     */
+    public static DynamicType.Builder<?> enhanceInstanceMethods(TypeDescription typeDescription,
+                                                                DynamicType.Builder<?> newClassBuilder,
+                                                                ElementMatcher<MethodDescription> matcher,
+                                                                String interceptor,
+                                                                boolean overrideArgs,
+                                                                boolean argumentsRequired,
+                                                                ClassLoader classLoader) {
+        return enhance(
+            typeDescription, newClassBuilder, matcher, load(interceptor, classLoader), overrideArgs, argumentsRequired,
+            InstMethodsAdvice.class, InstMethodsNoArgsAdvice.class
+        );
+    }
+
+    /**
+     * @param matcher           the matcher of the static methods to intercept.
+     * @param interceptor       the class name of the {@code StaticMethodsAroundInterceptor}.
+     * @param overrideArgs      true, if the interceptor could change the arguments.
+     * @param argumentsRequired false, if the interceptor doesn't read the arguments.
+     */
+    public static DynamicType.Builder<?> enhanceStaticMethods(TypeDescription typeDescription,
+                                                              DynamicType.Builder<?> newClassBuilder,
+                                                              ElementMatcher<MethodDescription> matcher,
+                                                              String interceptor,
+                                                              boolean overrideArgs,
+                                                              boolean argumentsRequired,
+                                                              ClassLoader classLoader) {
+        return enhance(
+            typeDescription, newClassBuilder, matcher, load(interceptor, classLoader), overrideArgs, argumentsRequired,
+            StaticMethodsAdvice.class, StaticMethodsNoArgsAdvice.class
+        );
+    }
+
+    private static DynamicType.Builder<?> enhance(TypeDescription typeDescription,
+                                                  DynamicType.Builder<?> newClassBuilder,
+                                                  ElementMatcher<MethodDescription> matcher,
+                                                  Object interceptor,
+                                                  boolean overrideArgs,
+                                                  boolean argumentsRequired,
+                                                  Class<?> argumentsAdvice,
+                                                  Class<?> noArgsAdvice) {
+        ElementMatcher.Junction<MethodDescription> advisable = ElementMatchers.<MethodDescription>isMethod()
+            .and(not(isAbstract()))
+            .and(not(isNative()))
+            .and(not(isBridge()))
+            .and(matcher);
+        for (MethodDescription.InDefinedShape method : typeDescription.getDeclaredMethods().filter(advisable)) {
+            boolean withArguments = method.getParameters().size() > 0 && (overrideArgs || argumentsRequired);
+            Advice advice = Advice.withCustomMapping()
+                                  .bind(InterceptorIndex.class, InlinedInterceptors.register(interceptor, method))
+                                  .bind(OverrideArgs.class, overrideArgs)
+                                  .to(withArguments ? argumentsAdvice : noArgsAdvice);
+            newClassBuilder = newClassBuilder.visit(advice.on(ElementMatchers.<MethodDescription>is(method)));
+        }
+        return newClassBuilder;
+    }
+
+    private static Object load(String interceptor, ClassLoader classLoader) {
+        try {
+            return InterceptorInstanceLoader.load(interceptor, classLoader);
+        } catch (Throwable t) {
+            throw new PluginException("Can't create interceptor " + interceptor + ".", t);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+
+/**
+ * The {@link InstMethodsAdvice} for the methods without parameter, or the intercept points not requiring the
+ * arguments. No argument array is created, the interceptor receives {@link InlinedInterceptors#EMPTY_ARGUMENTS}.
+ */
+public class InstMethodsNoArgsAdvice {
+
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static boolean beforeMethod(@InterceptorIndex int index,
+                                       @Advice.This Object obj,
+                                       @Advice.Origin Class<?> clazz,
+                                       @Advice.Local("result") MethodInterceptResult result) {
+        result = new MethodInterceptResult();
+        try {
+            InlinedInterceptors.Entry entry = InlinedInterceptors.get(index);
+            ((InstanceMethodsAroundInterceptor) entry.getInterceptor()).beforeMethod(
+                (EnhancedInstance) obj, entry.getMethod(clazz), InlinedInterceptors.EMPTY_ARGUMENTS,
+                entry.getParameterTypes(clazz), result
+            );
+        } catch (Throwable t) {
+            InlinedInterceptors.beforeMethodFailure(t, clazz, index);
+        }
+        return !result.isContinue();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void afterMethod(@InterceptorIndex int index,
+                                   @Advice.This Object obj,
+                                   @Advice.Origin Class<?> clazz,
+                                   @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object ret,
+                                   @Advice.Thrown Throwable throwable,
+                                   @Advice.Local("result") MethodInterceptResult result) {
+        InlinedInterceptors.Entry entry = InlinedInterceptors.get(index);
+        InstanceMethodsAroundInterceptor interceptor = (InstanceMethodsAroundInterceptor) entry.getInterceptor();
+        if (!result.isContinue()) {
+            ret = result._ret();
+        }
+        if (throwable != null) {
+            try {
+                interceptor.handleMethodException(
+                    (EnhancedInstance) obj, entry.getMethod(clazz), InlinedInterceptors.EMPTY_ARGUMENTS,
+                    entry.getParameterTypes(clazz), throwable
+                );
+            } catch (Throwable t) {
+                InlinedInterceptors.handleMethodExceptionFailure(t, clazz, index);
+            }
+        }
+        try {
+            Object newRet = interceptor.afterMethod(
+                (EnhancedInstance) obj, entry.getMethod(clazz), InlinedInterceptors.EMPTY_ARGUMENTS,
+                entry.getParameterTypes(clazz), ret
+            );
+            if (throwable == null) {
+                ret = newRet;
+            }
+        } catch (Throwable t) {
+            InlinedInterceptors.afterMethodFailure(t, clazz, index);
+        }
+    }
+}
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -28,10 +26,6 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
@@ -60,8 +54,7 @@ public class AgentClassLoader extends ClassLoader {
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
-    private ReentrantLock jarScanLock = new ReentrantLock();
+    private final PluginJarIndex jarIndex;
 
     public static AgentClassLoader getDefault() {
         return DEFAULT_LOADER;
@@ -87,28 +80,16 @@ public class AgentClassLoader extends ClassLoader {
         File agentDictionary = AgentPackagePath.getPath();
         classpath = new LinkedList<>();
         Config.Plugin.MOUNT.forEach(mountFolder -> classpath.add(new File(agentDictionary, mountFolder)));
+        jarIndex = PluginJarIndex.of(classpath);
     }
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(path);
-            if (entry == null) {
-                continue;
-            }
+        PluginJarIndex.Jar jar = jarIndex.findFirst(path);
+        if (jar != null) {
             try {
-                URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
-                byte[] data;
-                try (final BufferedInputStream is = new BufferedInputStream(
-                    classFileUrl.openStream()); final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                    int ch;
-                    while ((ch = is.read()) != -1) {
-                        baos.write(ch);
-                    }
-                    data = baos.toByteArray();
-                }
+                byte[] data = jar.read(path);
                 return processLoadedClass(defineClass(name, data, 0, data.length));
             } catch (IOException e) {
                 LOGGER.error(e, "find class fail.");
@@ -119,14 +100,11 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException ignored) {
-                }
+        PluginJarIndex.Jar jar = jarIndex.findFirst(name);
+        if (jar != null) {
+            try {
+                return jar.getResource(name);
+            } catch (MalformedURLException ignored) {
             }
         }
         return null;
@@ -135,12 +113,8 @@ public class AgentClassLoader extends ClassLoader {
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
         List<URL> allResources = new LinkedList<>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
-            }
+        for (PluginJarIndex.Jar jar : jarIndex.findAll(name)) {
+            allResources.add(jar.getResource(name));
         }
 
         final Iterator<URL> iterator = allResources.iterator();
@@ -168,45 +142,4 @@ public class AgentClassLoader extends ClassLoader {
 
         return loadedClass;
     }
-
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
-            jarScanLock.lock();
-            try {
-                if (allJars == null) {
-                    allJars = doGetJars();
-                }
-            } finally {
-                jarScanLock.unlock();
-            }
-        }
-
-        return allJars;
-    }
-
-    private LinkedList<Jar> doGetJars() {
-        LinkedList<Jar> jars = new LinkedList<>();
-        for (File path : classpath) {
-            if (path.exists() && path.isDirectory()) {
-                String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
-                for (String fileName : jarFileNames) {
-                    try {
-                        File file = new File(path, fileName);
-                        Jar jar = new Jar(new JarFile(file), file);
-                        jars.add(jar);
-                        LOGGER.info("{} loaded.", file.toString());
-                    } catch (IOException e) {
-                        LOGGER.error(e, "{} jar file can't be resolved", fileName);
-                    }
-                }
-            }
-        }
-        return jars;
-    }
-
-    @RequiredArgsConstructor
-    private static class Jar {
-        private final JarFile jarFile;
-        private final File sourceFile;
-    }
-}
\ No newline at end of file
+}
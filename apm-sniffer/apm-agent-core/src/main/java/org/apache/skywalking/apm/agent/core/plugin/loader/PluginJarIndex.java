@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The index of the entry names to the jars in the mounted plugin folders. It is built at the first lookup, and shared
+ * by all {@link AgentClassLoader}s of the same folders, so the jars are opened and scanned only once, rather than once
+ * per loader and per lookup.
+ */
+class PluginJarIndex {
+    private static final ILog LOGGER = LogManager.getLogger(PluginJarIndex.class);
+
+    private static final Map<List<File>, PluginJarIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private static final Jar[] NO_JAR = new Jar[0];
+
+    private final List<File> classpath;
+    /**
+     * The entry name to the jars including it, in the order of the folders and the jars.
+     */
+    private volatile Map<String, Jar[]> entries;
+
+    private PluginJarIndex(List<File> classpath) {
+        this.classpath = classpath;
+    }
+
+    /**
+     * @param classpath the mounted plugin folders.
+     * @return the shared index of the folders.
+     */
+    static PluginJarIndex of(List<File> classpath) {
+        return INDEXES.computeIfAbsent(Collections.unmodifiableList(new ArrayList<>(classpath)), PluginJarIndex::new);
+    }
+
+    /**
+     * @return the first jar including the entry, or null if none.
+     */
+    Jar findFirst(String name) {
+        Jar[] jars = lookup(name);
+        return jars == null ? null : jars[0];
+    }
+
+    /**
+     * @return all the jars including the entry.
+     */
+    Jar[] findAll(String name) {
+        Jar[] jars = lookup(name);
+        return jars == null ? NO_JAR : jars;
+    }
+
+    /**
+     * Resolve the name as {@link JarFile#getJarEntry(String)} does, which also matches a directory without the trailing
+     * slash.
+     */
+    private Jar[] lookup(String name) {
+        Map<String, Jar[]> current = getEntries();
+        Jar[] jars = current.get(name);
+        if (jars == null && !name.endsWith("/")) {
+            jars = current.get(name + "/");
+        }
+        return jars;
+    }
+
+    private Map<String, Jar[]> getEntries() {
+        Map<String, Jar[]> current = entries;
+        if (current == null) {
+            synchronized (this) {
+                current = entries;
+                if (current == null) {
+                    current = buildEntries();
+                    entries = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, Jar[]> buildEntries() {
+        Map<String, Jar[]> index = new HashMap<>(4096);
+        for (File path : classpath) {
+            if (!path.exists() || !path.isDirectory()) {
+                continue;
+            }
+            String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
+            if (jarFileNames == null) {
+                continue;
+            }
+            for (String fileName : jarFileNames) {
+                File file = new File(path, fileName);
+                Jar jar;
+                try {
+                    jar = new Jar(new JarFile(file), file);
+                } catch (IOException e) {
+                    LOGGER.error(e, "{} jar file can't be resolved", fileName);
+                    continue;
+                }
+                Enumeration<JarEntry> jarEntries = jar.jarFile.entries();
+                while (jarEntries.hasMoreElements()) {
+                    JarEntry entry = jarEntries.nextElement();
+                    Jar[] jars = index.get(entry.getName());
+                    if (jars == null) {
+                        jars = new Jar[] {jar};
+                    } else {
+                        jars = Arrays.copyOf(jars, jars.length + 1);
+                        jars[jars.length - 1] = jar;
+                    }
+                    index.put(entry.getName(), jars);
+                }
+                LOGGER.info("{} loaded.", file.toString());
+            }
+        }
+        return index;
+    }
+
+    static class Jar {
+        private final JarFile jarFile;
+        private final String urlPrefix;
+
+        private Jar(JarFile jarFile, File sourceFile) {
+            this.jarFile = jarFile;
+            this.urlPrefix = "jar:file:" + sourceFile.getAbsolutePath() + "!/";
+        }
+
+        URL getResource(String name) throws MalformedURLException {
+            return new URL(urlPrefix + name);
+        }
+
+        /**
+         * Read the whole entry from the opened jar file, in bulk.
+         */
+        byte[] read(String name) throws IOException {
+            JarEntry entry = jarFile.getJarEntry(name);
+            if (entry == null) {
+                throw new IOException("Can't find " + name + " in " + jarFile.getName());
+            }
+            try (InputStream is = jarFile.getInputStream(entry)) {
+                long size = entry.getSize();
+                if (size >= 0 && size <= Integer.MAX_VALUE) {
+                    byte[] data = new byte[(int) size];
+                    int offset = 0;
+                    while (offset < data.length) {
+                        int count = is.read(data, offset, data.length - offset);
+                        if (count < 0) {
+                            throw new EOFException("Unexpected end of " + name + " in " + jarFile.getName());
+                        }
+                        offset += count;
+                    }
+                    return data;
+                }
+                ByteArrayOutputStream baos = new ByteArrayOutputStream(8192);
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = is.read(buffer)) != -1) {
+                    baos.write(buffer, 0, count);
+                }
+                return baos.toByteArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Write every flush of the {@link ContinuousProfiler} into its own file of folded stacks, which is named by the flush
+ * time, such as continuous-profile.2023_01_01_00_00_00.folded, and could be rendered by the flame graph tools
+ * directly. Only the latest files are kept.
+ */
+public class ContinuousProfileFileWriter {
+    static final String FILE_PREFIX = "continuous-profile.";
+    static final String FILE_SUFFIX = ".folded";
+
+    private final File dir;
+    private final int maxFiles;
+
+    public ContinuousProfileFileWriter(File dir, int maxFiles) {
+        this.dir = dir;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * write the folded stacks of a flush, then delete the oldest files beyond the max files
+     */
+    public void write(List<String> foldedStacks, long time) throws IOException {
+        if (!dir.exists() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Cannot create the continuous profiling dir " + dir);
+        }
+        final String name = FILE_PREFIX + new SimpleDateFormat("yyyy_MM_dd_HH_mm_ss").format(new Date(time));
+        // the file of a flush appears complete, or not at all
+        final File temp = new File(dir, name + ".tmp");
+        Files.write(temp.toPath(), foldedStacks, StandardCharsets.UTF_8);
+        Files.move(
+            temp.toPath(), new File(dir, name + FILE_SUFFIX).toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+        deleteExpiredFiles();
+    }
+
+    private void deleteExpiredFiles() {
+        final String[] files = dir.list((parent, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= maxFiles) {
+            return;
+        }
+        // the names are ordered by the flush time
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - maxFiles; i++) {
+            new File(dir, files[i]).delete();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * Always-on sampling of the threads inside the {@link TracingContext}s, without any profile task. In each sampling,
+ * all watched threads are dumped in one {@link ThreadMXBean#getThreadInfo(long[], int)}, and the stacks are aggregated
+ * into the {@link ProfileCallTree} by the endpoint of the tracing context. The tree is flushed as folded stacks, which
+ * are kept in the agent, as the profile protocol has no message for them.
+ * <p>
+ * A thread is watched by its latest tracing context only, a new context of the thread replaces the old one. The threads
+ * are watched and unwatched by the tracing threads, {@link #sample()} and {@link #flush()} must be called by one thread.
+ */
+public class ContinuousProfiler {
+    private static final ILog LOGGER = LogManager.getLogger(ContinuousProfiler.class);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final Map<Long, WatchedThread> watchedThreads = new ConcurrentHashMap<>();
+    private final ProfileCallTree callTree;
+    private final int maxStackDepth;
+    private final boolean cpuOnly;
+
+    // watched threads of the sampling, reused in each sampling
+    private WatchedThread[] sampledThreads = new WatchedThread[16];
+
+    public ContinuousProfiler(int maxNodes, int maxStackDepth, boolean cpuOnly) {
+        this.callTree = new ProfileCallTree(maxNodes);
+        this.maxStackDepth = maxStackDepth;
+        this.cpuOnly = cpuOnly;
+    }
+
+    /**
+     * watch the current thread, which is running the tracing context
+     */
+    public void watch(TracingContext tracingContext, String endpoint) {
+        final long threadId = Thread.currentThread().getId();
+        watchedThreads.put(threadId, new WatchedThread(threadId, tracingContext, endpoint));
+    }
+
+    /**
+     * update the endpoint, in case that third-party plugins change the operation name of the first span
+     */
+    public void rename(TracingContext tracingContext, String endpoint) {
+        final WatchedThread watchedThread = watchedThreads.get(Thread.currentThread().getId());
+        if (watchedThread != null && watchedThread.tracingContext == tracingContext) {
+            watchedThread.endpoint = endpoint;
+        }
+    }
+
+    /**
+     * stop watching the thread of the finished or ignored tracing context, if the thread is still watched by it
+     */
+    public void unwatch(TracingContext tracingContext) {
+        final long threadId = Thread.currentThread().getId();
+        final WatchedThread watchedThread = watchedThreads.get(threadId);
+        if (watchedThread != null && watchedThread.tracingContext == tracingContext) {
+            watchedThreads.remove(threadId, watchedThread);
+            return;
+        }
+        // finished in another thread, rarely
+        watchedThreads.values().removeIf(watched -> watched.tracingContext == tracingContext);
+    }
+
+    /**
+     * dump all watched threads and add their stacks into the call tree
+     */
+    public void sample() {
+        int count = 0;
+        for (Iterator<WatchedThread> iterator = watchedThreads.values().iterator(); iterator.hasNext(); ) {
+            if (count == sampledThreads.length) {
+                final WatchedThread[] grown = new WatchedThread[count * 2];
+                System.arraycopy(sampledThreads, 0, grown, 0, count);
+                sampledThreads = grown;
+            }
+            sampledThreads[count++] = iterator.next();
+        }
+        if (count == 0) {
+            return;
+        }
+
+        final long[] threadIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            threadIds[i] = sampledThreads[i].threadId;
+        }
+        final ThreadInfo[] threadInfos = THREAD_MX_BEAN.getThreadInfo(threadIds, maxStackDepth);
+        for (int i = 0; i < count; i++) {
+            final WatchedThread watchedThread = sampledThreads[i];
+            sampledThreads[i] = null;
+            // thread info is null, means thread is not alive
+            final ThreadInfo threadInfo = threadInfos[i];
+            if (threadInfo == null) {
+                watchedThreads.remove(watchedThread.threadId, watchedThread);
+                continue;
+            }
+            if (cpuOnly && threadInfo.getThreadState() != Thread.State.RUNNABLE) {
+                continue;
+            }
+            final StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+            if (stackTrace.length > 0) {
+                callTree.add(watchedThread.endpoint, stackTrace, Math.min(stackTrace.length, maxStackDepth));
+            }
+        }
+    }
+
+    /**
+     * @return folded stacks of the samples since the last flush
+     */
+    public List<String> flush() {
+        if (callTree.getTruncatedSamples() > 0 || callTree.getDroppedSamples() > 0) {
+            LOGGER.warn(
+                "Continuous profiling reached the max nodes {}, {} samples are truncated and {} samples are dropped.",
+                callTree.size(), callTree.getTruncatedSamples(), callTree.getDroppedSamples()
+            );
+        }
+        return callTree.flush();
+    }
+
+    /**
+     * @return count of the watched threads
+     */
+    public int watchedCount() {
+        return watchedThreads.size();
+    }
+
+    private static class WatchedThread {
+        private final long threadId;
+        private final TracingContext tracingContext;
+        private volatile String endpoint;
+
+        private WatchedThread(long threadId, TracingContext tracingContext, String endpoint) {
+            this.threadId = threadId;
+            this.tracingContext = tracingContext;
+            this.endpoint = endpoint;
+        }
+    }
+}
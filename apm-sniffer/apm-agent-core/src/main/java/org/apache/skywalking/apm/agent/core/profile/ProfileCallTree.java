@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Call tree of the sampled stacks, one root for each endpoint. The nodes are kept in parallel int arrays, and the
+ * children of a node are linked as siblings, so a sample adds no object unless it reaches a new frame.
+ * <p>
+ * The count of the nodes is bounded by the max nodes. When the budget is used up, a sample is counted on its deepest
+ * existing node, and a sample of a new endpoint is dropped. The tree is written by one thread only.
+ */
+public class ProfileCallTree {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NONE = -1;
+
+    private final int maxNodes;
+
+    private ProfileFrameDictionary dictionary = new ProfileFrameDictionary();
+    private final Map<String, Integer> endpointRoots = new HashMap<>();
+    private final List<String> endpoints = new ArrayList<>();
+
+    // frame id of the node, or the endpoint index of the root node
+    private int[] frameIds;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    // count of the samples ending at the node
+    private int[] samples;
+    private int size;
+
+    private long truncatedSamples;
+    private long droppedSamples;
+
+    public ProfileCallTree(int maxNodes) {
+        this.maxNodes = maxNodes;
+        final int capacity = Math.min(INITIAL_CAPACITY, maxNodes);
+        frameIds = new int[capacity];
+        parents = new int[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        samples = new int[capacity];
+    }
+
+    /**
+     * add a sample of the endpoint
+     *
+     * @param stackTrace the dumped stack, start with top
+     * @param depth      count of the frames to add from the bottom of the stack
+     */
+    public void add(String endpoint, StackTraceElement[] stackTrace, int depth) {
+        if (endpoint == null) {
+            endpoint = "";
+        }
+        Integer root = endpointRoots.get(endpoint);
+        if (root == null) {
+            if (size == maxNodes) {
+                droppedSamples++;
+                return;
+            }
+            root = newNode(NONE, endpoints.size());
+            endpointRoots.put(endpoint, root);
+            // the frames are separated by ';' and the stacks by lines in the folded format
+            endpoints.add(endpoint.replace(';', ',').replace('\n', ' ').replace('\r', ' '));
+        }
+
+        int node = root;
+        // use inverted order, because thread dump is start with bottom
+        for (int i = depth - 1; i >= 0; i--) {
+            final int frameId = dictionary.intern(stackTrace[i]);
+            int child = firstChildren[node];
+            while (child != NONE && frameIds[child] != frameId) {
+                child = nextSiblings[child];
+            }
+            if (child == NONE) {
+                if (size == maxNodes) {
+                    truncatedSamples++;
+                    break;
+                }
+                child = newNode(node, frameId);
+            }
+            node = child;
+        }
+        samples[node]++;
+    }
+
+    /**
+     * fold each stack with samples into a line, as {@code endpoint;bottom frame;...;top frame count}, then clear the
+     * tree for the next period.
+     */
+    public List<String> flush() {
+        final List<String> foldedStacks = new ArrayList<>();
+        for (int node = 0; node < size; node++) {
+            if (samples[node] == 0 || parents[node] == NONE) {
+                continue;
+            }
+            int depth = 0;
+            int root = node;
+            while (parents[root] != NONE) {
+                depth++;
+                root = parents[root];
+            }
+            final String[] frames = new String[depth];
+            for (int frame = node; frame != root; frame = parents[frame]) {
+                frames[--depth] = dictionary.signature(frameIds[frame]);
+            }
+            foldedStacks.add(endpoints.get(frameIds[root]) + ';' + String.join(";", frames) + ' ' + samples[node]);
+        }
+
+        // the frames of the last period are not used anymore
+        dictionary = new ProfileFrameDictionary();
+        endpointRoots.clear();
+        endpoints.clear();
+        Arrays.fill(samples, 0, size, 0);
+        size = 0;
+        truncatedSamples = 0;
+        droppedSamples = 0;
+        return foldedStacks;
+    }
+
+    private int newNode(int parent, int frameId) {
+        if (size == frameIds.length) {
+            final int capacity = Math.min(size * 2, maxNodes);
+            frameIds = Arrays.copyOf(frameIds, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            samples = Arrays.copyOf(samples, capacity);
+        }
+        final int node = size++;
+        frameIds[node] = frameId;
+        parents[node] = parent;
+        firstChildren[node] = NONE;
+        if (parent == NONE) {
+            nextSiblings[node] = NONE;
+        } else {
+            nextSiblings[node] = firstChildren[parent];
+            firstChildren[parent] = node;
+        }
+        return node;
+    }
+
+    /**
+     * @return count of the nodes, including the endpoint roots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return count of the samples counted on a shorter stack in this period, because of the max nodes
+     */
+    public long getTruncatedSamples() {
+        return truncatedSamples;
+    }
+
+    /**
+     * @return count of the samples dropped in this period, because of the max nodes
+     */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+}
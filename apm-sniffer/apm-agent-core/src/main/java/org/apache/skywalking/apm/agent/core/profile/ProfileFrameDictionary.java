@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Frame dictionary of a profile task. Every distinct stack frame gets an id and its code signature is built once, so
+ * the snapshots keep the frame ids only, and the code signatures are looked up when the snapshots are sent.
+ * <p>
+ * The frames are interned by the profile thread of the task only. The signatures could be read by any thread, after
+ * the snapshot holding their ids is published through the snapshot queue.
+ */
+public class ProfileFrameDictionary {
+    private final Map<StackTraceElement, Integer> frameIds = new HashMap<>();
+    private volatile String[] signatures = new String[256];
+    private int size;
+
+    /**
+     * @return the id of the frame, assigned at its first time
+     */
+    public int intern(StackTraceElement element) {
+        final Integer id = frameIds.get(element);
+        if (id != null) {
+            return id;
+        }
+
+        String[] signatures = this.signatures;
+        if (size == signatures.length) {
+            final String[] grown = new String[size * 2];
+            System.arraycopy(signatures, 0, grown, 0, size);
+            signatures = grown;
+        }
+        signatures[size] = ThreadProfiler.buildStackElementCodeSignature(element);
+        // publish the grown array after the signature is set
+        this.signatures = signatures;
+        frameIds.put(element, size);
+        return size++;
+    }
+
+    /**
+     * @return code sign of the frame: className.methodName:lineNumber
+     */
+    public String signature(int id) {
+        return signatures[id];
+    }
+
+    /**
+     * @return the count of the interned frames
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.profile;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,15 +28,19 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingThreadListener;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.constants.ProfileConstants;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.apm.util.StringUtil;
 
 /**
@@ -62,6 +68,10 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
     // profile task list, include running and waiting running tasks
     private final List<ProfileTask> profileTaskList = Collections.synchronizedList(new LinkedList<>());
 
+    // continuous profiler, null if the continuous profiling is not active
+    private volatile ContinuousProfiler continuousProfiler;
+    private volatile ScheduledExecutorService continuousProfilingSchedule;
+
     /**
      * add profile task from OAP
      */
@@ -90,16 +100,20 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
     /**
      * check and add {@link TracingContext} profiling
      */
-    public ProfileStatusContext addProfiling(TracingContext tracingContext,
-                                             String traceSegmentId,
-                                             String firstSpanOPName) {
+    public ProfileStatusContext addProfiling(TracingContext tracingContext, String firstSpanOPName) {
+        final ContinuousProfiler continuousProfiler = this.continuousProfiler;
+        if (continuousProfiler != null) {
+            continuousProfiler.watch(tracingContext, firstSpanOPName);
+        }
+
         // get current profiling task, check need profiling
         final ProfileTaskExecutionContext executionContext = taskExecutionContext.get();
         if (executionContext == null) {
             return ProfileStatusContext.createWithNone();
         }
 
-        return executionContext.attemptProfiling(tracingContext, traceSegmentId, firstSpanOPName);
+        // the segment id is only rendered when a profiling task is running
+        return executionContext.attemptProfiling(tracingContext, tracingContext.getSegmentId(), firstSpanOPName);
     }
 
     /**
@@ -118,6 +132,11 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
      * Re-check current trace need profiling, in case that third-party plugins change the operation name.
      */
     public void profilingRecheck(TracingContext tracingContext, String traceSegmentId, String firstSpanOPName) {
+        final ContinuousProfiler continuousProfiler = this.continuousProfiler;
+        if (continuousProfiler != null) {
+            continuousProfiler.rename(tracingContext, firstSpanOPName);
+        }
+
         // get current profiling task, check need profiling
         final ProfileTaskExecutionContext executionContext = taskExecutionContext.get();
         if (executionContext == null) {
@@ -127,6 +146,16 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
         executionContext.profilingRecheck(tracingContext, traceSegmentId, firstSpanOPName);
     }
 
+    /**
+     * The {@link TracingContext} is ignored before it finishes, stop watching its thread in the continuous profiling.
+     */
+    public void forceIgnoring(TracingContext tracingContext) {
+        final ContinuousProfiler continuousProfiler = this.continuousProfiler;
+        if (continuousProfiler != null) {
+            continuousProfiler.unwatch(tracingContext);
+        }
+    }
+
     /**
      * active the selected profile task to execution task, and start a removal task for it.
      */
@@ -171,6 +200,60 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
 
     @Override
     public void boot() {
+        if (Config.Profile.ACTIVE && Config.Profile.CONTINUOUS_ACTIVE) {
+            startContinuousProfiling();
+        }
+    }
+
+    /**
+     * start sampling the tracing threads, and flushing the folded stacks into the files. The profile protocol has no
+     * message for the folded stacks, so they are not reported.
+     */
+    private void startContinuousProfiling() {
+        String outputDir = Config.Profile.CONTINUOUS_OUTPUT_DIR;
+        if (StringUtil.isEmpty(outputDir)) {
+            try {
+                outputDir = AgentPackagePath.getPath() + "/profiles";
+            } catch (AgentPackageNotFoundException e) {
+                LOGGER.error(e, "Continuous profiling is not started, no dir to write the folded stacks.");
+                return;
+            }
+        }
+        final ContinuousProfileFileWriter writer = new ContinuousProfileFileWriter(
+            new File(outputDir), Config.Profile.CONTINUOUS_MAX_FILES);
+        final ContinuousProfiler profiler = new ContinuousProfiler(
+            Config.Profile.CONTINUOUS_MAX_NODES,
+            Config.Profile.DUMP_MAX_STACK_DEPTH,
+            Config.Profile.CONTINUOUS_CPU_ONLY
+        );
+
+        // sampling and flushing run in one thread, so the call tree has a single writer
+        continuousProfilingSchedule = Executors.newSingleThreadScheduledExecutor(
+            new DefaultNamedThreadFactory("PROFILE-CONTINUOUS"));
+        final long samplingPeriod = TimeUnit.SECONDS.toMicros(1) / Math.max(1, Config.Profile.CONTINUOUS_SAMPLING_RATE);
+        continuousProfilingSchedule.scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(
+                profiler::sample,
+                t -> LOGGER.error("Continuous profiling sample failure.", t)
+            ), 0, samplingPeriod, TimeUnit.MICROSECONDS
+        );
+        continuousProfilingSchedule.scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(
+                () -> {
+                    final List<String> foldedStacks = profiler.flush();
+                    if (foldedStacks.isEmpty()) {
+                        return;
+                    }
+                    try {
+                        writer.write(foldedStacks, System.currentTimeMillis());
+                    } catch (IOException e) {
+                        LOGGER.error(e, "Continuous profiling folded stacks cannot be written.");
+                    }
+                },
+                t -> LOGGER.error("Continuous profiling flush failure.", t)
+            ), Config.Profile.CONTINUOUS_FLUSH_PERIOD, Config.Profile.CONTINUOUS_FLUSH_PERIOD, TimeUnit.SECONDS
+        );
+        continuousProfiler = profiler;
     }
 
     @Override
@@ -184,6 +267,11 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
         // remove trace listener
         TracingContext.TracingThreadListenerManager.remove(this);
 
+        continuousProfiler = null;
+        if (continuousProfilingSchedule != null) {
+            continuousProfilingSchedule.shutdown();
+        }
+
         PROFILE_TASK_SCHEDULE.shutdown();
 
         PROFILE_EXECUTOR.shutdown();
@@ -260,6 +348,11 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
 
     @Override
     public void afterMainThreadFinish(TracingContext tracingContext) {
+        final ContinuousProfiler continuousProfiler = this.continuousProfiler;
+        if (continuousProfiler != null) {
+            continuousProfiler.unwatch(tracingContext);
+        }
+
         if (tracingContext.profileStatus().isBeingWatched()) {
             // stop profiling tracing context
             ProfileTaskExecutionContext currentExecutionContext = taskExecutionContext.get();
@@ -19,9 +19,13 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
@@ -30,6 +34,7 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 public class ProfileThread implements Runnable {
 
     private static final ILog LOGGER = LogManager.getLogger(ProfileThread.class);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
 
     // profiling task context
     private final ProfileTaskExecutionContext taskExecutionContext;
@@ -37,6 +42,10 @@ public class ProfileThread implements Runnable {
     private final ProfileTaskExecutionService profileTaskExecutionService;
     private final ProfileTaskChannelService profileTaskChannelService;
 
+    // profilers and their thread ids of the batched thread dump, reused in each period
+    private ThreadProfiler[] batchProfilers = new ThreadProfiler[0];
+    private long[] batchThreadIds = new long[0];
+
     public ProfileThread(ProfileTaskExecutionContext taskExecutionContext) {
         this.taskExecutionContext = taskExecutionContext;
         profileTaskExecutionService = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
@@ -72,34 +81,10 @@ public class ProfileThread implements Runnable {
         while (!Thread.currentThread().isInterrupted()) {
             currentLoopStartTime = System.currentTimeMillis();
 
-            // each all slot
-            AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
-            int profilerCount = profilers.length();
-            for (int slot = 0; slot < profilerCount; slot++) {
-                ThreadProfiler currentProfiler = profilers.get(slot);
-                if (currentProfiler == null) {
-                    continue;
-                }
-
-                switch (currentProfiler.profilingStatus().get()) {
-
-                    case PENDING:
-                        // check tracing context running time
-                        currentProfiler.startProfilingIfNeed();
-                        break;
-
-                    case PROFILING:
-                        // dump stack
-                        TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
-                        if (snapshot != null) {
-                            profileTaskChannelService.addProfilingSnapshot(snapshot);
-                        } else {
-                            // tell execution context current tracing thread dump failed, stop it
-                            executionContext.stopTracingProfile(currentProfiler.tracingContext());
-                        }
-                        break;
-
-                }
+            if (Config.Profile.BATCH_THREAD_DUMP) {
+                profilingInBatch(executionContext);
+            } else {
+                profilingEachSlot(executionContext);
             }
 
             // sleep to next period
@@ -110,4 +95,106 @@ public class ProfileThread implements Runnable {
         }
     }
 
+    /**
+     * dump the stack of each profiling thread one by one
+     */
+    private void profilingEachSlot(ProfileTaskExecutionContext executionContext) {
+        // each all slot
+        AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
+        int profilerCount = profilers.length();
+        for (int slot = 0; slot < profilerCount; slot++) {
+            ThreadProfiler currentProfiler = profilers.get(slot);
+            if (currentProfiler == null) {
+                continue;
+            }
+
+            switch (currentProfiler.profilingStatus().get()) {
+
+                case PENDING:
+                    // check tracing context running time
+                    currentProfiler.startProfilingIfNeed();
+                    break;
+
+                case PROFILING:
+                    // dump stack
+                    TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
+                    if (snapshot != null) {
+                        profileTaskChannelService.addProfilingSnapshot(snapshot);
+                    } else {
+                        // tell execution context current tracing thread dump failed, stop it
+                        executionContext.stopTracingProfile(currentProfiler.tracingContext());
+                    }
+                    break;
+
+            }
+        }
+    }
+
+    /**
+     * dump the stacks of all profiling threads in one {@link ThreadMXBean#getThreadInfo(long[], int)}, instead of
+     * one {@link Thread#getStackTrace()} for each of them
+     */
+    private void profilingInBatch(ProfileTaskExecutionContext executionContext) {
+        AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
+        int profilerCount = profilers.length();
+        if (batchProfilers.length < profilerCount) {
+            batchProfilers = new ThreadProfiler[profilerCount];
+            batchThreadIds = new long[profilerCount];
+        }
+
+        int dumpCount = 0;
+        for (int slot = 0; slot < profilerCount; slot++) {
+            ThreadProfiler currentProfiler = profilers.get(slot);
+            if (currentProfiler == null) {
+                continue;
+            }
+
+            switch (currentProfiler.profilingStatus().get()) {
+
+                case PENDING:
+                    // check tracing context running time
+                    currentProfiler.startProfilingIfNeed();
+                    break;
+
+                case PROFILING:
+                    batchProfilers[dumpCount] = currentProfiler;
+                    batchThreadIds[dumpCount++] = currentProfiler.profilingThread().getId();
+                    break;
+
+            }
+        }
+        if (dumpCount == 0) {
+            return;
+        }
+
+        long[] threadIds = batchThreadIds;
+        if (dumpCount < threadIds.length) {
+            threadIds = new long[dumpCount];
+            System.arraycopy(batchThreadIds, 0, threadIds, 0, dumpCount);
+        }
+        ThreadInfo[] threadInfos;
+        try {
+            threadInfos = THREAD_MX_BEAN.getThreadInfo(threadIds, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        } catch (Exception e) {
+            // dump error ignore and make these profilers stop
+            threadInfos = new ThreadInfo[dumpCount];
+        }
+
+        long currentTime = System.currentTimeMillis();
+        for (int i = 0; i < dumpCount; i++) {
+            ThreadProfiler currentProfiler = batchProfilers[i];
+            batchProfilers[i] = null;
+            // thread info is null, means thread is not alive
+            ThreadInfo threadInfo = threadInfos[i];
+            TracingThreadSnapshot snapshot = threadInfo == null ? null : currentProfiler.buildSnapshot(
+                threadInfo.getStackTrace(), currentTime);
+            if (snapshot != null) {
+                profileTaskChannelService.addProfilingSnapshot(snapshot);
+            } else {
+                // tell execution context current tracing thread dump failed, stop it
+                executionContext.stopTracingProfile(currentProfiler.tracingContext());
+            }
+        }
+    }
+
 }
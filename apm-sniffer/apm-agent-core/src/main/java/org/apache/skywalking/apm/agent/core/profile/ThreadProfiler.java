@@ -44,6 +44,10 @@ public class ThreadProfiler {
     // thread dump sequence
     private int dumpSequence = 0;
 
+    // frame ids of the current dump, and the stack of the last snapshot, used in the batched thread dump
+    private int[] frameIdBuffer = new int[0];
+    private TracingThreadSnapshot.InternedStack lastStack;
+
     public ThreadProfiler(TracingContext tracingContext, String traceSegmentId, Thread profilingThread,
         ProfileTaskExecutionContext executionContext) {
         this.tracingContext = tracingContext;
@@ -92,15 +96,27 @@ public class ThreadProfiler {
         StackTraceElement[] stackTrace;
         try {
             stackTrace = profilingThread.getStackTrace();
-
-            // stack depth is zero, means thread is already run finished
-            if (stackTrace.length == 0) {
-                return null;
-            }
         } catch (Exception e) {
             // dump error ignore and make this profiler stop
             return null;
         }
+        return buildSnapshot(stackTrace, currentTime);
+    }
+
+    /**
+     * build thread snapshot from the stack trace dumped by the profile thread, such as in a batched thread dump
+     *
+     * @return snapshot, if null means dump snapshot error, should stop it
+     */
+    public TracingThreadSnapshot buildSnapshot(StackTraceElement[] stackTrace, long currentTime) {
+        if (!isProfilingContinuable()) {
+            return null;
+        }
+
+        // stack depth is zero, means thread is already run finished
+        if (stackTrace == null || stackTrace.length == 0) {
+            return null;
+        }
 
         // if is first dump, check is can start profiling
         if (dumpSequence == 0 && !executionContext.isStartProfileable()) {
@@ -109,6 +125,10 @@ public class ThreadProfiler {
 
         int dumpElementCount = Math.min(stackTrace.length, Config.Profile.DUMP_MAX_STACK_DEPTH);
 
+        if (Config.Profile.BATCH_THREAD_DUMP) {
+            return buildInternedSnapshot(stackTrace, dumpElementCount, currentTime);
+        }
+
         // use inverted order, because thread dump is start with bottom
         final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
         for (int i = dumpElementCount - 1; i >= 0; i--) {
@@ -119,12 +139,37 @@ public class ThreadProfiler {
         return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
     }
 
+    /**
+     * intern the frames into the dictionary of the task, the stack is shared with the last snapshot if it is the same
+     */
+    private TracingThreadSnapshot buildInternedSnapshot(StackTraceElement[] stackTrace,
+                                                        int dumpElementCount,
+                                                        long currentTime) {
+        if (frameIdBuffer.length < dumpElementCount) {
+            frameIdBuffer = new int[dumpElementCount];
+        }
+        // use inverted order, because thread dump is start with bottom
+        final ProfileFrameDictionary dictionary = executionContext.getFrameDictionary();
+        for (int i = 0; i < dumpElementCount; i++) {
+            frameIdBuffer[i] = dictionary.intern(stackTrace[dumpElementCount - 1 - i]);
+        }
+
+        if (lastStack == null || !lastStack.matches(frameIdBuffer, dumpElementCount)) {
+            final int[] frameIds = new int[dumpElementCount];
+            System.arraycopy(frameIdBuffer, 0, frameIds, 0, dumpElementCount);
+            lastStack = new TracingThreadSnapshot.InternedStack(frameIds, dictionary);
+        }
+
+        String taskId = executionContext.getTask().getTaskId();
+        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, lastStack);
+    }
+
     /**
      * build thread stack element code signature
      *
      * @return code sign: className.methodName:lineNumber
      */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
+    static String buildStackElementCodeSignature(StackTraceElement element) {
         return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
     }
 
@@ -149,6 +194,10 @@ public class ThreadProfiler {
         return tracingContext;
     }
 
+    public Thread profilingThread() {
+        return profilingThread;
+    }
+
     public ProfileStatusContext profilingStatus() {
         return profilingStatus;
     }
@@ -32,6 +32,7 @@ public class TracingThreadSnapshot {
     private final int sequence;
     private final long time;
     private final List<String> stackList;
+    private final InternedStack internedStack;
 
     public TracingThreadSnapshot(String taskId,
                                  String traceSegmentId,
@@ -43,6 +44,20 @@ public class TracingThreadSnapshot {
         this.sequence = sequence;
         this.time = time;
         this.stackList = stackList;
+        this.internedStack = null;
+    }
+
+    public TracingThreadSnapshot(String taskId,
+                                 String traceSegmentId,
+                                 int sequence,
+                                 long time,
+                                 InternedStack internedStack) {
+        this.taskId = taskId;
+        this.traceSegmentId = traceSegmentId;
+        this.sequence = sequence;
+        this.time = time;
+        this.stackList = null;
+        this.internedStack = internedStack;
     }
 
     /**
@@ -59,6 +74,10 @@ public class TracingThreadSnapshot {
         // snapshot dump sequence
         builder.setSequence(sequence);
         // snapshot stack
+        if (internedStack != null) {
+            builder.setStack(internedStack.expand());
+            return builder.build();
+        }
         final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
         for (String codeSign : stackList) {
             stackBuilder.addCodeSignatures(codeSign);
@@ -68,4 +87,50 @@ public class TracingThreadSnapshot {
         return builder.build();
     }
 
+    /**
+     * Stack of the frame ids in the {@link ProfileFrameDictionary} of the task, from the bottom to the top. The
+     * consecutive snapshots of a thread with the same stack share one instance, so it is expanded only once.
+     */
+    public static class InternedStack {
+        private final int[] frameIds;
+        private final ProfileFrameDictionary dictionary;
+        private volatile ThreadStack expanded;
+
+        public InternedStack(int[] frameIds, ProfileFrameDictionary dictionary) {
+            this.frameIds = frameIds;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * @return true if the given frame ids are the same as this stack
+         */
+        public boolean matches(int[] frameIds, int length) {
+            if (this.frameIds.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.frameIds[i] != frameIds[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * look up the code signatures of the frames, the result is cached for the other snapshots of this stack
+         */
+        ThreadStack expand() {
+            ThreadStack stack = expanded;
+            if (stack == null) {
+                final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
+                for (int frameId : frameIds) {
+                    stackBuilder.addCodeSignatures(dictionary.signature(frameId));
+                }
+                stack = stackBuilder.build();
+                expanded = stack;
+            }
+            return stack;
+        }
+    }
+
 }
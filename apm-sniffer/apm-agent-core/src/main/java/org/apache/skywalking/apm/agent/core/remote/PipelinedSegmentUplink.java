@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.commands.CommandService;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * Send segments through several long-lived client streams, without waiting for the collector response of each batch.
+ * <p>
+ * The segments are sent round-robin to the streams which are ready, following the flow control of gRPC. When no
+ * stream is ready, the segments stay pending and are sent in the next cycle of the consumer, the older ones are
+ * abandoned when the pending queue is full. A stream is completed and replaced after sending the max segments or
+ * lasting the max duration.
+ * <p>
+ * All methods, except the counter getters, should be called by the consumer thread only.
+ */
+class PipelinedSegmentUplink {
+    private static final ILog LOGGER = LogManager.getLogger(PipelinedSegmentUplink.class);
+
+    private final UplinkStream[] streams;
+    private final int maxSegmentsPerStream;
+    private final long maxStreamDurationMillis;
+    private final long streamTimeoutSeconds;
+    private final int maxPending;
+    private final ArrayDeque<TraceSegment> pending = new ArrayDeque<>();
+    /**
+     * The size of {@link #pending}, visible to the threads reading the counters.
+     */
+    private volatile int pendingCount = 0;
+    private int nextStream = 0;
+
+    private final AtomicLong uplinkedCounter = new AtomicLong(0);
+    private final AtomicLong abandonedCounter = new AtomicLong(0);
+    private final AtomicLong inFlightCounter = new AtomicLong(0);
+
+    PipelinedSegmentUplink(int streamCount,
+                           int maxSegmentsPerStream,
+                           long maxStreamDurationSeconds,
+                           long upstreamTimeoutSeconds,
+                           int maxPending) {
+        this.streams = new UplinkStream[Math.max(streamCount, 1)];
+        this.maxSegmentsPerStream = maxSegmentsPerStream;
+        this.maxStreamDurationMillis = TimeUnit.SECONDS.toMillis(maxStreamDurationSeconds);
+        this.streamTimeoutSeconds = maxStreamDurationSeconds + upstreamTimeoutSeconds;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Queue the segments, and send as many as the streams could accept now.
+     */
+    void send(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub, List<TraceSegment> data) {
+        for (TraceSegment segment : data) {
+            if (pending.size() >= maxPending) {
+                pending.pollFirst();
+                abandonedCounter.incrementAndGet();
+            }
+            pending.addLast(segment);
+        }
+        pendingCount = pending.size();
+        flush(serviceStub);
+    }
+
+    /**
+     * Rotate the expired streams, and send the pending segments to the ready streams.
+     */
+    void flush(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub) {
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < streams.length; i++) {
+            UplinkStream stream = streams[i];
+            if (stream != null && stream.isExpired(now)) {
+                stream.complete();
+                streams[i] = null;
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            final int index = nextReadyStream(serviceStub);
+            if (index < 0) {
+                // Back pressure from the collector, keep the segments pending.
+                break;
+            }
+            final UplinkStream stream = streams[index];
+            final TraceSegment segment = pending.pollFirst();
+            try {
+                stream.send(SegmentEncoder.encode(segment));
+            } catch (Throwable t) {
+                abandonedCounter.incrementAndGet();
+                LOGGER.error(t, "Encode and send UpstreamSegment to collector fail.");
+            }
+            if (stream.sent >= maxSegmentsPerStream) {
+                stream.complete();
+                streams[index] = null;
+            }
+        }
+        pendingCount = pending.size();
+    }
+
+    /**
+     * Complete all streams and abandon the pending segments, such as the channel is disconnected.
+     */
+    void close() {
+        for (int i = 0; i < streams.length; i++) {
+            if (streams[i] != null) {
+                streams[i].complete();
+                streams[i] = null;
+            }
+        }
+        abandonedCounter.addAndGet(pending.size());
+        pending.clear();
+        pendingCount = 0;
+    }
+
+    long getUplinkedCount() {
+        return uplinkedCounter.get();
+    }
+
+    /**
+     * @return the count of the segments abandoned by this uplink, as the pending queue is full, the encoding fails,
+     * the stream fails or the channel is disconnected.
+     */
+    long getAbandonedCount() {
+        return abandonedCounter.get();
+    }
+
+    long getInFlightCount() {
+        return inFlightCounter.get();
+    }
+
+    long getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return the index of the next ready stream in round-robin, or -1 if none is ready.
+     */
+    private int nextReadyStream(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub) {
+        for (int i = 0; i < streams.length; i++) {
+            final int index = (nextStream + i) % streams.length;
+            UplinkStream stream = streams[index];
+            if (stream == null || stream.closed) {
+                stream = new UplinkStream(serviceStub);
+                streams[index] = stream;
+            }
+            if (stream.isReady()) {
+                nextStream = (index + 1) % streams.length;
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private class UplinkStream implements ClientResponseObserver<SegmentEncoder.EncodedSegment, Commands> {
+        private final long openTime;
+        private volatile ClientCallStreamObserver<SegmentEncoder.EncodedSegment> requestStream;
+        private volatile boolean closed = false;
+        private boolean completed = false;
+        @SuppressWarnings("NonAtomicVolatileUpdate")
+        private volatile int sent = 0;
+
+        private UplinkStream(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub) {
+            this.openTime = System.currentTimeMillis();
+            SegmentEncoder.collect(serviceStub.withDeadlineAfter(streamTimeoutSeconds, TimeUnit.SECONDS), this);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<SegmentEncoder.EncodedSegment> requestStream) {
+            this.requestStream = requestStream;
+        }
+
+        private boolean isReady() {
+            return !closed && !completed && requestStream != null && requestStream.isReady();
+        }
+
+        private boolean isExpired(long now) {
+            return closed || now - openTime >= maxStreamDurationMillis;
+        }
+
+        private void send(SegmentEncoder.EncodedSegment encodedSegment) {
+            requestStream.onNext(encodedSegment);
+            sent++;
+            inFlightCounter.incrementAndGet();
+        }
+
+        private void complete() {
+            if (completed || closed) {
+                return;
+            }
+            completed = true;
+            requestStream.onCompleted();
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closed = true;
+            final int count = sent;
+            inFlightCounter.addAndGet(-count);
+            abandonedCounter.addAndGet(count);
+            if (LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            closed = true;
+            final int count = sent;
+            inFlightCounter.addAndGet(-count);
+            uplinkedCounter.addAndGet(count);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+/**
+ * The status of the buffer of a segment reporter, which holds the finished segments until they are sent to the
+ * backend. It is filled up, and then the segments are abandoned, when the backend can't keep up.
+ */
+public interface SegmentBufferStatus {
+    /**
+     * @return the count of the segments in the buffer, waiting to be sent.
+     */
+    long getBufferedCount();
+
+    /**
+     * @return the max count of the segments in the buffer.
+     */
+    long getBufferCapacity();
+
+    /**
+     * @return the count of the segments abandoned since the reporter booted, as the buffer is full or there is no
+     * available channel.
+     */
+    long getAbandonedCount();
+}
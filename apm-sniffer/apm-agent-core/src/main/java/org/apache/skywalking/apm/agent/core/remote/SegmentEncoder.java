@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import com.google.protobuf.CodedOutputStream;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * Encode the {@link TraceSegment} into a byte array of its exact size, and send the bytes through the collect method
+ * of TraceSegmentReportService as a pre-encoded message.
+ * <p>
+ * If {@link Config.Collector#DIRECT_SEGMENT_ENCODING} is true, the segment is written in the protobuf wire format
+ * directly, the SegmentObject builders are never created. Otherwise, it is serialized from {@link
+ * TraceSegment#transform()}. The bytes are the same in both ways.
+ */
+public class SegmentEncoder {
+    static final MethodDescriptor<EncodedSegment, Commands> COLLECT_METHOD =
+        TraceSegmentReportServiceGrpc.getCollectMethod()
+                                     .toBuilder(
+                                         new EncodedSegmentMarshaller(),
+                                         ProtoUtils.marshaller(Commands.getDefaultInstance())
+                                     )
+                                     .build();
+
+    /**
+     * Encode the segment into a new byte array. The encoded segment is never changed afterwards, as gRPC could marshal
+     * it again, when the call is retried with its buffered messages.
+     */
+    public static EncodedSegment encode(TraceSegment segment) throws IOException {
+        final byte[] bytes;
+        if (Config.Collector.DIRECT_SEGMENT_ENCODING) {
+            bytes = new byte[segment.computeSerializedSize()];
+            final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            segment.writeTo(out);
+            out.checkNoSpaceLeft();
+        } else {
+            final SegmentObject segmentObject = segment.transform();
+            bytes = new byte[segmentObject.getSerializedSize()];
+            final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            segmentObject.writeTo(out);
+            out.checkNoSpaceLeft();
+        }
+        return new EncodedSegment(bytes);
+    }
+
+    /**
+     * Start a client stream of TraceSegmentReportService#collect, which accepts the encoded segments.
+     *
+     * @param serviceStub provides the channel and the call options, such as deadline.
+     */
+    public static StreamObserver<EncodedSegment> collect(
+        TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub,
+        StreamObserver<Commands> responseObserver) {
+        return ClientCalls.asyncClientStreamingCall(
+            serviceStub.getChannel().newCall(COLLECT_METHOD, serviceStub.getCallOptions()), responseObserver);
+    }
+
+    /**
+     * The immutable bytes of one encoded segment.
+     */
+    public static class EncodedSegment {
+        private final byte[] bytes;
+
+        private EncodedSegment(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public int length() {
+            return bytes.length;
+        }
+
+        public byte[] toByteArray() {
+            return bytes.clone();
+        }
+    }
+
+    private static class EncodedSegmentMarshaller implements MethodDescriptor.Marshaller<EncodedSegment> {
+        @Override
+        public InputStream stream(EncodedSegment value) {
+            // A new stream of the same bytes in every call, gRPC streams the message again in a retry.
+            return new EncodedSegmentStream(value.bytes);
+        }
+
+        @Override
+        public EncodedSegment parse(InputStream stream) {
+            throw new UnsupportedOperationException("Encoded segment is only sent by the agent.");
+        }
+    }
+
+    private static class EncodedSegmentStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        private EncodedSegmentStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            final int length = count - pos;
+            target.write(buf, pos, length);
+            pos = count;
+            return length;
+        }
+    }
+}
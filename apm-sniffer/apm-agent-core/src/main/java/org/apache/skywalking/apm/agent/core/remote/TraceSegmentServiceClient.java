@@ -23,6 +23,8 @@ import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -33,9 +35,11 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.StripedPartitioner;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
@@ -45,15 +49,27 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SI
 import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
 
 @DefaultImplementor
-public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
+public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener, SegmentBufferStatus {
     private static final ILog LOGGER = LogManager.getLogger(TraceSegmentServiceClient.class);
 
     private long lastLogTime;
     private long segmentUplinkedCounter;
     private long segmentAbandonedCounter;
+    /**
+     * The counters of the pipelined uplink at the last log, see {@link #printUplinkStatus()}.
+     */
+    private long lastPipelinedUplinkedCount;
+    private long lastPipelinedAbandonedCount;
+    /**
+     * The counters of the segments since booted, for {@link SegmentBufferStatus}.
+     */
+    private final LongAdder producedCounter = new LongAdder();
+    private final AtomicLong consumedCounter = new AtomicLong(0);
+    private final LongAdder abandonedCounter = new LongAdder();
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private volatile PipelinedSegmentUplink pipelinedUplink;
 
     @Override
     public void prepare() {
@@ -66,6 +82,13 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        carrier.setPartitioner(new StripedPartitioner<>());
+        if (Config.Collector.PIPELINED_UPLINK) {
+            final PipelinedSegmentUplink uplink = getPipelinedUplink();
+            MeterFactory.gauge("sw_agent_segment_uplinked_count", () -> (double) uplink.getUplinkedCount()).build();
+            MeterFactory.gauge("sw_agent_segment_abandoned_count", () -> (double) getAbandonedCount()).build();
+            MeterFactory.gauge("sw_agent_segment_in_flight_count", () -> (double) uplink.getInFlightCount()).build();
+        }
         carrier.consume(this, 1);
     }
 
@@ -87,11 +110,24 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
+        consumedCounter.addAndGet(data.size());
+        if (Config.Collector.PIPELINED_UPLINK) {
+            if (CONNECTED.equals(status)) {
+                getPipelinedUplink().send(serviceStub, data);
+            } else {
+                segmentAbandonedCounter += data.size();
+                abandonedCounter.add(data.size());
+                getPipelinedUplink().close();
+            }
+            printUplinkStatus();
+            return;
+        }
         if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
+            final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
                 Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            );
+            final StreamObserver<Commands> responseObserver = new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -117,23 +153,39 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 public void onCompleted() {
                     status.finished();
                 }
-            });
+            };
 
-            try {
-                for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
+            if (Config.Collector.DIRECT_SEGMENT_ENCODING) {
+                StreamObserver<SegmentEncoder.EncodedSegment> upstreamSegmentStreamObserver = SegmentEncoder.collect(
+                    stub, responseObserver);
+                try {
+                    for (TraceSegment segment : data) {
+                        upstreamSegmentStreamObserver.onNext(SegmentEncoder.encode(segment));
+                    }
+                } catch (Throwable t) {
+                    LOGGER.error(t, "Encode and send UpstreamSegment to collector fail.");
                 }
-            } catch (Throwable t) {
-                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
-            }
 
-            upstreamSegmentStreamObserver.onCompleted();
+                upstreamSegmentStreamObserver.onCompleted();
+            } else {
+                StreamObserver<SegmentObject> upstreamSegmentStreamObserver = stub.collect(responseObserver);
+                try {
+                    for (TraceSegment segment : data) {
+                        SegmentObject upstreamSegment = segment.transform();
+                        upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                    }
+                } catch (Throwable t) {
+                    LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+                }
+
+                upstreamSegmentStreamObserver.onCompleted();
+            }
 
             status.wait4Finish();
             segmentUplinkedCounter += data.size();
         } else {
             segmentAbandonedCounter += data.size();
+            abandonedCounter.add(data.size());
         }
 
         printUplinkStatus();
@@ -143,6 +195,17 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
             lastLogTime = currentTimeMillis;
+            final PipelinedSegmentUplink uplink = pipelinedUplink;
+            long pipelinedAbandoned = 0;
+            if (uplink != null) {
+                // The pipelined segments are sent only when the collector completes their stream.
+                final long uplinked = uplink.getUplinkedCount();
+                segmentUplinkedCounter += uplinked - lastPipelinedUplinkedCount;
+                lastPipelinedUplinkedCount = uplinked;
+                final long abandoned = uplink.getAbandonedCount();
+                pipelinedAbandoned = abandoned - lastPipelinedAbandonedCount;
+                lastPipelinedAbandonedCount = abandoned;
+            }
             if (segmentUplinkedCounter > 0) {
                 LOGGER.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
                 segmentUplinkedCounter = 0;
@@ -152,9 +215,32 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                     "{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
                 segmentAbandonedCounter = 0;
             }
+            if (pipelinedAbandoned > 0) {
+                LOGGER.debug("{} trace segments have been abandoned by the pipelined uplink.", pipelinedAbandoned);
+            }
         }
     }
 
+    @Override
+    public void nothingToConsume() {
+        if (pipelinedUplink != null && CONNECTED.equals(status)) {
+            pipelinedUplink.flush(serviceStub);
+        }
+    }
+
+    private PipelinedSegmentUplink getPipelinedUplink() {
+        if (pipelinedUplink == null) {
+            pipelinedUplink = new PipelinedSegmentUplink(
+                Config.Collector.PIPELINED_UPLINK_STREAMS,
+                Config.Collector.PIPELINED_UPLINK_STREAM_MAX_SEGMENTS,
+                Config.Collector.PIPELINED_UPLINK_STREAM_MAX_DURATION,
+                Config.Collector.GRPC_UPSTREAM_TIMEOUT,
+                BUFFER_SIZE
+            );
+        }
+        return pipelinedUplink;
+    }
+
     @Override
     public void onError(List<TraceSegment> data, Throwable t) {
         LOGGER.error(t, "Try to send {} trace segments to collector, with unexpected exception.", data.size());
@@ -162,7 +248,12 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void onExit() {
-
+        if (pipelinedUplink != null) {
+            if (CONNECTED.equals(status)) {
+                pipelinedUplink.flush(serviceStub);
+            }
+            pipelinedUplink.close();
+        }
     }
 
     @Override
@@ -170,13 +261,38 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         if (traceSegment.isIgnore()) {
             return;
         }
-        if (!carrier.produce(traceSegment)) {
+        if (carrier.produce(traceSegment)) {
+            producedCounter.increment();
+        } else {
+            abandonedCounter.increment();
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
         }
     }
 
+    @Override
+    public long getBufferedCount() {
+        long buffered = Math.max(0, producedCounter.sum() - consumedCounter.get());
+        final PipelinedSegmentUplink uplink = pipelinedUplink;
+        if (uplink != null) {
+            // The consumed segments are still held by the uplink, until the collector completes their stream.
+            buffered += uplink.getPendingCount() + uplink.getInFlightCount();
+        }
+        return buffered;
+    }
+
+    @Override
+    public long getBufferCapacity() {
+        return carrier.capacity();
+    }
+
+    @Override
+    public long getAbandonedCount() {
+        final PipelinedSegmentUplink uplink = pipelinedUplink;
+        return abandonedCounter.sum() + (uplink == null ? 0 : uplink.getAbandonedCount());
+    }
+
     @Override
     public void statusChanged(GRPCChannelStatus status) {
         if (CONNECTED.equals(status)) {
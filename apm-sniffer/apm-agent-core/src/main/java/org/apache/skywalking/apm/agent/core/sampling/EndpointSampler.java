@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The <code>EndpointSampler</code> samples N traces of every endpoint in 3 seconds tops, see {@link
+ * Config.Agent#SAMPLE_N_PER_3_SECS_PER_ENDPOINT}. Every endpoint has its own token bucket, refilled by the time
+ * elapsed when it is acquired, so a hot endpoint can't take the samples of the rare ones, and the request threads of
+ * different endpoints don't contend.
+ * <p>
+ * The buckets are kept for {@link #MAX_ENDPOINTS} endpoints tops. The buckets full and idle for {@link #IDLE_TIMEOUT}
+ * are evicted when the map is full, and the endpoints beyond the max share one overflow bucket.
+ */
+class EndpointSampler {
+    static final int MAX_ENDPOINTS = 1000;
+    static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+    private static final long WINDOW = TimeUnit.SECONDS.toMillis(3);
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(WINDOW);
+
+    private final int rate;
+    /**
+     * The nanoseconds to refill one token, rounded up so that the tokens are never more than the rate per window.
+     */
+    private final long tokenInterval;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+    private final AtomicLong lastEvictionTime = new AtomicLong(0);
+
+    EndpointSampler(int rate, long now) {
+        this.rate = rate;
+        this.tokenInterval = (WINDOW_NANOS + rate - 1) / rate;
+        this.overflowBucket = new TokenBucket(now);
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    /**
+     * @return true if the endpoint has a token to sample the new trace.
+     */
+    boolean trySampling(String operationName, long now) {
+        TokenBucket bucket = buckets.get(operationName);
+        if (bucket == null) {
+            bucket = createBucket(operationName, now);
+        }
+        return bucket.tryAcquire(tokenInterval, now);
+    }
+
+    private TokenBucket createBucket(String operationName, long now) {
+        if (buckets.size() >= MAX_ENDPOINTS) {
+            evictIdleBuckets(now);
+            if (buckets.size() >= MAX_ENDPOINTS) {
+                return overflowBucket;
+            }
+        }
+        return buckets.computeIfAbsent(operationName, key -> new TokenBucket(now));
+    }
+
+    /**
+     * Scan the buckets for the idle ones, once in a window tops.
+     */
+    private void evictIdleBuckets(long now) {
+        long lastEviction = lastEvictionTime.get();
+        if (now - lastEviction < WINDOW || !lastEvictionTime.compareAndSet(lastEviction, now)) {
+            return;
+        }
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getFullTime() > IDLE_TIMEOUT) {
+                iterator.remove();
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * A token bucket holding {@code rate} tokens tops, refilled by {@code rate} tokens per {@link #WINDOW}. Rather than
+     * counting the tokens, the bucket keeps the time when it is full again, in nanoseconds, as the interval of a token
+     * is a fraction of a millisecond for a high rate. Every acquired token pushes that time by one interval, and no
+     * token is left if that time is more than a window ahead. So a token is acquired by a single CAS, and the
+     * remainder of the elapsed time is never lost by rounding.
+     */
+    static class TokenBucket {
+        private final AtomicLong fullTime;
+
+        TokenBucket(long now) {
+            fullTime = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(now));
+        }
+
+        boolean tryAcquire(long interval, long now) {
+            final long nowNanos = TimeUnit.MILLISECONDS.toNanos(now);
+            while (true) {
+                long current = fullTime.get();
+                long next = Math.max(current, nowNanos) + interval;
+                if (next - nowNanos > WINDOW_NANOS) {
+                    return false;
+                }
+                if (fullTime.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the time in milliseconds when the bucket is full again.
+         */
+        long getFullTime() {
+            return TimeUnit.NANOSECONDS.toMillis(fullTime.get());
+        }
+    }
+}
@@ -41,6 +41,12 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * When {@link Config.Agent#SAMPLE_N_PER_3_SECS_PER_ENDPOINT} is set, every endpoint is sampled by its own quota, see
+ * {@link EndpointSampler}.
+ * <p>
+ * When {@link Config.Agent#TAIL_SAMPLING_MAX_PENDING} is set, the requests beyond the sampling limit are tail sampled,
+ * their segments are reported or not according to the {@link TailSamplingPolicy} when they finish.
  */
 @DefaultImplementor
 public class SamplingService implements BootService {
@@ -49,8 +55,11 @@ public class SamplingService implements BootService {
     private volatile boolean on = false;
     private volatile AtomicInteger samplingFactorHolder;
     private volatile ScheduledFuture<?> scheduledFuture;
+    private volatile TailSamplingPolicy tailSamplingPolicy;
+    private volatile EndpointSampler endpointSampler;
 
     private SamplingRateWatcher samplingRateWatcher;
+    private SamplingRateWatcher endpointSamplingRateWatcher;
     private ScheduledExecutorService service;
 
     @Override
@@ -62,9 +71,19 @@ public class SamplingService implements BootService {
         service = Executors.newSingleThreadScheduledExecutor(
                 new DefaultNamedThreadFactory("SamplingService"));
         samplingRateWatcher = new SamplingRateWatcher("agent.sample_n_per_3_secs", this);
-        ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
-                               .registerAgentConfigChangeWatcher(samplingRateWatcher);
+        endpointSamplingRateWatcher = new SamplingRateWatcher(
+            "agent.sample_n_per_3_secs_per_endpoint", Config.Agent.SAMPLE_N_PER_3_SECS_PER_ENDPOINT, this);
+        ConfigurationDiscoveryService configurationDiscoveryService = ServiceManager.INSTANCE.findService(
+            ConfigurationDiscoveryService.class);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(samplingRateWatcher);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(endpointSamplingRateWatcher);
 
+        if (Config.Agent.TAIL_SAMPLING_MAX_PENDING > 0) {
+            tailSamplingPolicy = new TailSamplingPolicy(
+                Config.Agent.TAIL_SAMPLING_MAX_PENDING, Config.Agent.TAIL_SAMPLING_LATENCY_THRESHOLD,
+                Config.Agent.TAIL_SAMPLING_N_PER_ENDPOINT_PER_3_SECS
+            );
+        }
         handleSamplingRateChanged();
     }
 
@@ -88,6 +107,10 @@ public class SamplingService implements BootService {
      * @return true if should sample this trace segment. When sampling mechanism is on, return true if sample limited is not reached.
      */
     public boolean trySampling(String operationName) {
+        EndpointSampler sampler = endpointSampler;
+        if (sampler != null) {
+            return sampler.trySampling(operationName, System.currentTimeMillis());
+        }
         if (on) {
             int factor = samplingFactorHolder.get();
             if (factor < samplingRateWatcher.getSamplingRate()) {
@@ -101,7 +124,8 @@ public class SamplingService implements BootService {
 
     /**
      * Increase the sampling factor by force, to avoid sampling too many traces. If many distributed traces require
-     * sampled, the trace beginning at local, has less chance to be sampled.
+     * sampled, the trace beginning at local, has less chance to be sampled. The quotas of the endpoints are not
+     * affected, as the endpoint is unknown here.
      */
     public void forceSampled() {
         if (on) {
@@ -109,6 +133,36 @@ public class SamplingService implements BootService {
         }
     }
 
+    /**
+     * Try to trace a request, which is not sampled by {@link #trySampling(String)}, and decide whether to report it
+     * when it finishes, through {@link #finishTailSampling(String, long, boolean)}.
+     *
+     * @return true if the tail sampling is on, and the pending tail sampled segments are less than the max.
+     */
+    public boolean tryTailSampling() {
+        TailSamplingPolicy policy = tailSamplingPolicy;
+        return policy != null && policy.tryAcquire();
+    }
+
+    /**
+     * Decide whether to report a tail sampled segment.
+     *
+     * @param endpointName  the primary endpoint of the segment.
+     * @param duration      the time since the tracing context is created, in milliseconds.
+     * @param errorOccurred true if any span of the segment is erroneous.
+     * @return true if the segment should be reported.
+     */
+    public boolean finishTailSampling(String endpointName, long duration, boolean errorOccurred) {
+        return tailSamplingPolicy.decide(endpointName, duration, errorOccurred, System.currentTimeMillis());
+    }
+
+    /**
+     * The tail sampled tracing context is ignored before it finishes.
+     */
+    public void cancelTailSampling() {
+        tailSamplingPolicy.release();
+    }
+
     private void resetSamplingFactor() {
         samplingFactorHolder = new AtomicInteger(0);
     }
@@ -117,6 +171,7 @@ public class SamplingService implements BootService {
      * Handle the samplingRate changed.
      */
     public void handleSamplingRateChanged() {
+        handleEndpointSamplingRateChanged();
         if (samplingRateWatcher.getSamplingRate() > 0) {
             if (!on) {
                 on = true;
@@ -137,4 +192,20 @@ public class SamplingService implements BootService {
             }
         }
     }
+
+    private void handleEndpointSamplingRateChanged() {
+        int rate = endpointSamplingRateWatcher.getSamplingRate();
+        EndpointSampler sampler = endpointSampler;
+        if (rate > 0) {
+            if (sampler == null || sampler.getRate() != rate) {
+                endpointSampler = new EndpointSampler(rate, System.currentTimeMillis());
+                LOGGER.debug(
+                    "Agent endpoint sampling mechanism started. Sample {} traces of every endpoint in 3 seconds.",
+                    rate
+                );
+            }
+        } else {
+            endpointSampler = null;
+        }
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The <code>TailSamplingPolicy</code> decides whether to report a tail sampled segment when its tracing context
+ * finishes. The count of the pending segments is capped by {@link Config.Agent#TAIL_SAMPLING_MAX_PENDING}, to keep
+ * the memory cost estimatable.
+ */
+class TailSamplingPolicy {
+    /**
+     * The max count of the endpoints in the reservoir of a 3 seconds window, the segments of the other endpoints are
+     * reported only when they are erroneous or slow.
+     */
+    static final int MAX_RESERVOIR_ENDPOINTS = 1000;
+    private static final long WINDOW = TimeUnit.SECONDS.toMillis(3);
+
+    private final int maxPending;
+    private final long latencyThreshold;
+    private final int nPerEndpoint;
+
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private volatile ConcurrentHashMap<String, AtomicInteger> reservoir = new ConcurrentHashMap<>();
+    private final AtomicLong windowStartTime = new AtomicLong(0);
+
+    TailSamplingPolicy(int maxPending, long latencyThreshold, int nPerEndpoint) {
+        this.maxPending = maxPending;
+        this.latencyThreshold = latencyThreshold;
+        this.nPerEndpoint = nPerEndpoint;
+    }
+
+    /**
+     * @return true if the pending segments are less than the max, then a new one is pending.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = pending.get();
+            if (current >= maxPending) {
+                return false;
+            }
+            if (pending.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The pending segment is discarded without the decision.
+     */
+    void release() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * Release the pending segment, and decide whether to report it.
+     *
+     * @param endpointName  the primary endpoint of the segment, null if there is no span.
+     * @param duration      the time since the tracing context is created, in milliseconds.
+     * @param errorOccurred true if any span of the segment is erroneous.
+     * @param now           the current time, in milliseconds.
+     * @return true if the segment should be reported.
+     */
+    boolean decide(String endpointName, long duration, boolean errorOccurred, long now) {
+        release();
+        if (errorOccurred || duration >= latencyThreshold) {
+            return true;
+        }
+        return tryReserve(endpointName, now);
+    }
+
+    private boolean tryReserve(String endpointName, long now) {
+        if (nPerEndpoint <= 0 || endpointName == null) {
+            return false;
+        }
+        rollWindow(now);
+        ConcurrentHashMap<String, AtomicInteger> currentReservoir = reservoir;
+        AtomicInteger counter = currentReservoir.get(endpointName);
+        if (counter == null) {
+            if (currentReservoir.size() >= MAX_RESERVOIR_ENDPOINTS) {
+                return false;
+            }
+            counter = currentReservoir.computeIfAbsent(endpointName, key -> new AtomicInteger(0));
+        }
+        while (true) {
+            int current = counter.get();
+            if (current >= nPerEndpoint) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Start a new window of the per-endpoint reservoir, once the current one has lasted {@link #WINDOW}. The window
+     * rolls lazily by the time of the decisions, so it doesn't rely on any other sampling mechanism being on.
+     */
+    private void rollWindow(long now) {
+        long windowStart = windowStartTime.get();
+        if (now - windowStart >= WINDOW && windowStartTime.compareAndSet(windowStart, now)) {
+            reservoir = new ConcurrentHashMap<>();
+        }
+    }
+
+    int getPending() {
+        return pending.get();
+    }
+}
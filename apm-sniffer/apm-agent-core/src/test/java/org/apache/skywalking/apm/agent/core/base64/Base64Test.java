@@ -33,4 +33,37 @@ public class Base64Test {
     public void testEncode() {
         assertEquals(Base64.encode("SkyWalking"), "U2t5V2Fsa2luZw==");
     }
+
+    @Test
+    public void testEncodeTo() {
+        assertEquals("-U2t5V2Fsa2luZw==", Base64.encodeTo("SkyWalking", new StringBuilder("-")).toString());
+        assertEquals("U2t5", Base64.encodeTo("Sky", new StringBuilder()).toString());
+        assertEquals("U2s=", Base64.encodeTo("Sk", new StringBuilder()).toString());
+        String unicode = "\u5929\u7a7a\u6f2b\u6b65";
+        assertEquals(Base64.encode(unicode), Base64.encodeTo(unicode, new StringBuilder()).toString());
+        assertEquals("", Base64.encodeTo("", new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testDecodeRange() {
+        assertEquals("SkyWalking", Base64.decode2UTFString("1-U2t5V2Fsa2luZw==-2", 2, 18));
+        assertEquals("SkyWalking", Base64.decode2UTFString("U2t5V2Fsa2luZw", 0, 14));
+        String unicode = "\u5929\u7a7a\u6f2b\u6b65";
+        assertEquals(unicode, Base64.decode2UTFString(Base64.encode(unicode), 0, 16));
+        assertEquals("", Base64.decode2UTFString("1--2", 2, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalCharacter() {
+        Base64.decode2UTFString("U2t5-2Fs", 0, 8);
+    }
+
+    @Test
+    public void testNameCache() {
+        Base64NameCache cache = new Base64NameCache();
+        assertEquals("U2t5V2Fsa2luZw==", cache.encodeTo("SkyWalking", new StringBuilder()).toString());
+        assertEquals("U2t5V2Fsa2luZw==", cache.encodeTo("SkyWalking", new StringBuilder()).toString());
+        assertEquals("SkyWalking", cache.decode2UTFString("1-U2t5V2Fsa2luZw==", 2, 18));
+        assertEquals("SkyWalking", cache.decode2UTFString("U2t5V2Fsa2luZw==", 0, 16));
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
+import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The cost of the segment and trace id generation, with and without rendering the string, and of injecting them into
+ * the sw8 header.
+ */
+public class GlobalIdBenchmark {
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void generateString(Blackhole bh) {
+        bh.consume(GlobalIdGenerator.generate());
+        bh.consume(GlobalIdGenerator.generate());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void generateGlobalId(Blackhole bh) {
+        bh.consume(GlobalIdGenerator.generateGlobalId());
+        bh.consume(new NewDistributedTraceId());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void generateAndInject(Blackhole bh) {
+        GlobalId segmentId = GlobalIdGenerator.generateGlobalId();
+        NewDistributedTraceId traceId = new NewDistributedTraceId();
+
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceId(traceId.getId());
+        carrier.setTraceSegmentId(segmentId.toString());
+        carrier.setSpanId(1);
+        carrier.setParentService("benchmark-service");
+        carrier.setParentServiceInstance("benchmark-instance");
+        carrier.setParentEndpoint("/benchmark/entry");
+        carrier.setAddressUsedAtClient("127.0.0.1:8080");
+        bh.consume(carrier.serialize(ContextCarrier.HeaderVersion.v3));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(GlobalIdBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
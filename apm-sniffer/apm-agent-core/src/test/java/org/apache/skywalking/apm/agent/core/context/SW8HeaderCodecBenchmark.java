@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The per-hop cost of the sw8 and sw8-correlation headers, {@link SW8HeaderCodec} against the previous split/join
+ * implementation, which is kept here as the baseline.
+ */
+@State(Scope.Thread)
+public class SW8HeaderCodecBenchmark {
+    private final ContextCarrier carrier = new ContextCarrier();
+    private final Map<String, String> correlation = new ConcurrentHashMap<>();
+    private String header;
+    private String correlationHeader;
+
+    public SW8HeaderCodecBenchmark() {
+        carrier.setTraceId("b5a1d1a0e5b04f7aa1c5e5a3f2b7d7c1.58.16738475630120000");
+        carrier.setTraceSegmentId("b5a1d1a0e5b04f7aa1c5e5a3f2b7d7c1.58.16738475630120001");
+        carrier.setSpanId(3);
+        carrier.setParentService("order-service");
+        carrier.setParentServiceInstance("8e1c3b1f0a4f4c55@10.0.12.34");
+        carrier.setParentEndpoint("/api/v1/orders/{id}");
+        carrier.setAddressUsedAtClient("payment-service:8080");
+        correlation.put("tenant", "acme");
+        correlation.put("region", "eu-west-1");
+        header = SW8HeaderCodec.encode(carrier);
+        correlationHeader = SW8HeaderCodec.encodeCorrelation(correlation);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void legacyEncode(Blackhole bh) {
+        bh.consume(StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        ));
+        bh.consume(correlation.entrySet().stream()
+                              .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
+                              .collect(Collectors.joining(",")));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void codecEncode(Blackhole bh) {
+        bh.consume(SW8HeaderCodec.encode(carrier));
+        bh.consume(SW8HeaderCodec.encodeCorrelation(correlation));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void legacyDecode(Blackhole bh) {
+        String[] parts = header.split("-", 8);
+        bh.consume(Base64.decode2UTFString(parts[1]));
+        bh.consume(Base64.decode2UTFString(parts[2]));
+        bh.consume(Integer.parseInt(parts[3]));
+        bh.consume(Base64.decode2UTFString(parts[4]));
+        bh.consume(Base64.decode2UTFString(parts[5]));
+        bh.consume(Base64.decode2UTFString(parts[6]));
+        bh.consume(Base64.decode2UTFString(parts[7]));
+        for (String perData : correlationHeader.split(",")) {
+            final String[] kv = perData.split(":");
+            bh.consume(Base64.decode2UTFString(kv[0]));
+            bh.consume(Base64.decode2UTFString(kv[1]));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void codecDecode(Blackhole bh) {
+        ContextCarrier decoded = new ContextCarrier();
+        SW8HeaderCodec.decode(header, decoded);
+        bh.consume(decoded);
+        Map<String, String> data = new ConcurrentHashMap<>();
+        SW8HeaderCodec.decodeCorrelation(correlationHeader, data, 3);
+        bh.consume(data);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(SW8HeaderCodecBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
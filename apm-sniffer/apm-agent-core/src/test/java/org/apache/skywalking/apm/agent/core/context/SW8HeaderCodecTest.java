@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SW8HeaderCodecTest {
+
+    @Test
+    public void testEncodeSameAsJoin() {
+        ContextCarrier carrier = newCarrier();
+        String expected = String.join(
+            "-", "1", Base64.encode("3.4.5"), Base64.encode("1.2.3"), "4", Base64.encode("service"),
+            Base64.encode("instance"), Base64.encode("/app"), Base64.encode("127.0.0.1:8080")
+        );
+        Assert.assertEquals(expected, SW8HeaderCodec.encode(carrier));
+        // the second one is encoded through the cached names
+        Assert.assertEquals(expected, SW8HeaderCodec.encode(carrier));
+    }
+
+    @Test
+    public void testDecode() {
+        ContextCarrier carrier = new ContextCarrier();
+        SW8HeaderCodec.decode(SW8HeaderCodec.encode(newCarrier()), carrier);
+        Assert.assertEquals("3.4.5", carrier.getTraceId());
+        Assert.assertEquals("1.2.3", carrier.getTraceSegmentId());
+        Assert.assertEquals(4, carrier.getSpanId());
+        Assert.assertEquals("service", carrier.getParentService());
+        Assert.assertEquals("instance", carrier.getParentServiceInstance());
+        Assert.assertEquals("/app", carrier.getParentEndpoint());
+        Assert.assertEquals("127.0.0.1:8080", carrier.getAddressUsedAtClient());
+        Assert.assertTrue(carrier.isValid());
+    }
+
+    @Test
+    public void testDecodeMalformedHeader() {
+        ContextCarrier carrier = new ContextCarrier();
+        SW8HeaderCodec.decode("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==", carrier);
+        Assert.assertNull(carrier.getTraceId());
+        Assert.assertFalse(carrier.isValid());
+
+        carrier = new ContextCarrier();
+        SW8HeaderCodec.decode("1-My40LjU=-MS4yLjM=-x-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=", carrier);
+        Assert.assertEquals(-1, carrier.getSpanId());
+        Assert.assertFalse(carrier.isValid());
+
+        carrier = new ContextCarrier();
+        SW8HeaderCodec.decode("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAu-MC4xOjgwODA=", carrier);
+        Assert.assertNull(carrier.getAddressUsedAtClient());
+        Assert.assertFalse(carrier.isValid());
+    }
+
+    @Test
+    public void testCorrelation() {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("test1", "t1");
+        data.put("test2", "t2");
+        String header = SW8HeaderCodec.encodeCorrelation(data);
+        Assert.assertEquals("dGVzdDE=:dDE=,dGVzdDI=:dDI=", header);
+
+        Map<String, String> decoded = new HashMap<>();
+        SW8HeaderCodec.decodeCorrelation(header + ",,dGVzdDM=:,dGVzdDQ=:dDQ=:dDQ=", decoded, 3);
+        Assert.assertEquals(2, decoded.size());
+        Assert.assertEquals("t1", decoded.get("test1"));
+        Assert.assertEquals("t2", decoded.get("test2"));
+
+        decoded.clear();
+        SW8HeaderCodec.decodeCorrelation(header, decoded, 1);
+        Assert.assertEquals(1, decoded.size());
+    }
+
+    private static ContextCarrier newCarrier() {
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceId("3.4.5");
+        carrier.setTraceSegmentId("1.2.3");
+        carrier.setSpanId(4);
+        carrier.setParentService("service");
+        carrier.setParentServiceInstance("instance");
+        carrier.setParentEndpoint("/app");
+        carrier.setAddressUsedAtClient("127.0.0.1:8080");
+        return carrier;
+    }
+}
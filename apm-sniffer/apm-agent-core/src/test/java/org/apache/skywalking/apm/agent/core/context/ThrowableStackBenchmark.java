@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableStackPair;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The cost of the stack of a logged exception. <code>eagerStack</code> is what the traced thread pays by default,
+ * <code>deferredStack</code> what it pays with <code>agent.defer_exception_stack</code>, and
+ * <code>renderSegmentStacks</code> what the reporter thread pays later for a segment where 5 spans logged the same
+ * exception while it propagated.
+ */
+@State(Scope.Benchmark)
+public class ThrowableStackBenchmark {
+    private final Throwable throwable = deepThrowable(30);
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public String eagerStack() {
+        return ThrowableTransformer.INSTANCE.convert2String(throwable, 4000);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public ThrowableStackPair deferredStack() {
+        return new ThrowableStackPair("stack", throwable, 4000);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public List<ThrowableStackPair> renderSegmentStacks() {
+        List<ThrowableStackPair> pairs = new ArrayList<>(5);
+        for (int i = 0; i < 5; i++) {
+            pairs.add(new ThrowableStackPair("stack", throwable, 4000));
+        }
+        ThrowableTransformer.INSTANCE.render(pairs);
+        return pairs;
+    }
+
+    private static Throwable deepThrowable(int depth) {
+        if (depth == 0) {
+            return new IllegalStateException("benchmark", new IllegalArgumentException("cause"));
+        }
+        return deepThrowable(depth - 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(ThrowableStackBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Create and finish a whole segment through {@link ContextManager}. The deep one nests all spans in the active span
+ * stack, the wide one has many sequential exit spans under the entry span.
+ */
+@State(Scope.Benchmark)
+public class TracingContextBenchmark {
+
+    @Param({"50", "200"})
+    private int spanCount;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ServiceManager.INSTANCE.boot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void deepSegment() {
+        ContextManager.createEntrySpan("/benchmark/deep", null);
+        for (int i = 1; i < spanCount; i++) {
+            ContextManager.createLocalSpan("/benchmark/local");
+        }
+        for (int i = 0; i < spanCount; i++) {
+            ContextManager.stopSpan();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void wideSegment() {
+        ContextManager.createEntrySpan("/benchmark/wide", null);
+        for (int i = 1; i < spanCount; i++) {
+            AbstractSpan exitSpan = ContextManager.createExitSpan("/benchmark/exit", "127.0.0.1:8080");
+            exitSpan.tag("key", "value");
+            ContextManager.stopSpan();
+        }
+        ContextManager.stopSpan();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(TracingContextBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobalIdTest {
+
+    @Test
+    public void testRenderedFormat() {
+        GlobalId id = GlobalIdGenerator.generateGlobalId();
+        String rendered = id.toString();
+        String[] parts = rendered.split("\\.");
+        Assert.assertEquals(3, parts.length);
+        Assert.assertTrue(parts[0].matches("[0-9a-f]{32}"));
+        Assert.assertEquals(String.valueOf(Thread.currentThread().getId()), parts[1]);
+        Assert.assertEquals(String.valueOf(id.getSequence()), parts[2]);
+        Assert.assertSame(rendered, id.toString());
+
+        Assert.assertEquals(parts[0], GlobalIdGenerator.generate().split("\\.")[0]);
+    }
+
+    @Test
+    public void testUniqueInThread() {
+        GlobalId first = GlobalIdGenerator.generateGlobalId();
+        GlobalId second = GlobalIdGenerator.generateGlobalId();
+        Assert.assertNotEquals(first, second);
+        Assert.assertNotEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void testDistributedTraceIdEquals() {
+        NewDistributedTraceId newTraceId = new NewDistributedTraceId();
+        PropagatedTraceId propagatedTraceId = new PropagatedTraceId(newTraceId.getId());
+        Assert.assertEquals(newTraceId, propagatedTraceId);
+        Assert.assertEquals(newTraceId.hashCode(), propagatedTraceId.hashCode());
+        Assert.assertSame(newTraceId.getId(), newTraceId.getId());
+    }
+}
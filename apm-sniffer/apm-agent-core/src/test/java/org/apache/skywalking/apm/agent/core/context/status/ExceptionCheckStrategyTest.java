@@ -58,6 +58,19 @@ public class ExceptionCheckStrategyTest {
         Assert.assertTrue(hierarchyMatchExceptionCheckStrategy.isError(new TestAnnotationMatchException()));
     }
 
+    @Test
+    public void checkHierarchyMatchVerdictsInvalidatedByIgnoredExceptionsChange() throws Throwable {
+        HierarchyMatchExceptionCheckStrategy strategy = new HierarchyMatchExceptionCheckStrategy();
+        Assert.assertFalse(strategy.isError(new TestHierarchyMatchException()));
+        Assert.assertTrue(strategy.isError(new IllegalArgumentException()));
+
+        Config.StatusCheck.IGNORED_EXCEPTIONS = "java.lang.IllegalArgumentException,org.example.NotExistedException";
+        ServiceManager.INSTANCE.findService(StatusCheckService.class).prepare();
+        Assert.assertTrue(strategy.isError(new TestHierarchyMatchException()));
+        Assert.assertFalse(strategy.isError(new IllegalArgumentException()));
+        Assert.assertFalse(strategy.isError(new NumberFormatException()));
+    }
+
     @Test
     public void checkAnnotationMatchExceptionCheckStrategy() {
         AnnotationMatchExceptionCheckStrategy annotationMatchExceptionCheckStrategy = new AnnotationMatchExceptionCheckStrategy();
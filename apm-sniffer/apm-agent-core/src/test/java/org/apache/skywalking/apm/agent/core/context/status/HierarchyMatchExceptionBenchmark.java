@@ -26,6 +26,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
@@ -49,6 +50,10 @@ import java.util.concurrent.TimeUnit;
  * HierarchyMatchExceptionBenchmark.depthOneBenchmark    avgt   25  31.050 ± 0.731  ns/op
  * HierarchyMatchExceptionBenchmark.depthTwoBenchmark    avgt   25  64.918 ± 2.537  ns/op
  * HierarchyMatchExceptionBenchmark.depthThreeBenchmark  avgt   25  89.645 ± 2.556  ns/op
+ * <p/>
+ * The error storm benchmarks check an exception, not ignored, from 8 threads through {@link
+ * HierarchyMatchExceptionCheckStrategy} directly. <code>errorStormCachedBenchmark</code> uses the cached verdicts,
+ * <code>errorStormLookupBenchmark</code> resolves the ignored exceptions on every check, including the missing one.
  */
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -57,7 +62,7 @@ public class HierarchyMatchExceptionBenchmark {
     @State(Scope.Benchmark)
     public static class ThrowableState {
         static {
-            Config.StatusCheck.IGNORED_EXCEPTIONS = "java.lang.NullPointerException";
+            Config.StatusCheck.IGNORED_EXCEPTIONS = "java.lang.NullPointerException,org.example.NotExistedException";
             Config.StatusCheck.MAX_RECURSIVE_DEPTH = 2;
             ServiceManager.INSTANCE.boot();
         }
@@ -65,6 +70,8 @@ public class HierarchyMatchExceptionBenchmark {
         private final Throwable singleT = new NullPointerException();
         private final Throwable doubleT = new RuntimeException(new NullPointerException());
         private final Throwable tripleT = new RuntimeException(new RuntimeException(new NullPointerException()));
+        private final Throwable stormT = new IllegalStateException();
+        private final HierarchyMatchExceptionCheckStrategy strategy = new HierarchyMatchExceptionCheckStrategy();
     }
 
     @Benchmark
@@ -82,6 +89,32 @@ public class HierarchyMatchExceptionBenchmark {
         bh.consume(ServiceManager.INSTANCE.findService(StatusCheckService.class).isError(state.tripleT));
     }
 
+    @Benchmark
+    @Threads(8)
+    public void errorStormCachedBenchmark(Blackhole bh, ThrowableState state) {
+        bh.consume(state.strategy.isError(state.stormT));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void errorStormLookupBenchmark(Blackhole bh, ThrowableState state) {
+        Class<? extends Throwable> clazz = state.stormT.getClass();
+        String[] ignoredExceptionNames = ServiceManager.INSTANCE.findService(StatusCheckService.class)
+                                                                .getIgnoredExceptionNames();
+        boolean isError = true;
+        for (final String ignoredExceptionName : ignoredExceptionNames) {
+            try {
+                Class<?> parentClazz = Class.forName(ignoredExceptionName, true, clazz.getClassLoader());
+                if (parentClazz.isAssignableFrom(clazz)) {
+                    isError = false;
+                    break;
+                }
+            } catch (ClassNotFoundException ignore) {
+            }
+        }
+        bh.consume(isError);
+    }
+
     public static void main(String[] args) throws Exception {
         Options options = new OptionsBuilder()
                 .include(HierarchyMatchExceptionBenchmark.class.getSimpleName()).build();
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThrowableTransformerTest {
+
+    @Test
+    public void testRenderSameAsConvert2String() {
+        Throwable throwable = new IllegalStateException("outer", new IllegalArgumentException("inner"));
+        ThrowableStackPair pair = new ThrowableStackPair("stack", throwable, 4000);
+        ThrowableStackPair shortPair = new ThrowableStackPair("stack", throwable, 100);
+        ThrowableTransformer.INSTANCE.render(Arrays.asList(pair, shortPair));
+
+        Assert.assertTrue(pair.isRendered());
+        Assert.assertEquals(ThrowableTransformer.INSTANCE.convert2String(throwable, 4000), pair.getValue());
+        Assert.assertEquals(ThrowableTransformer.INSTANCE.convert2String(throwable, 100), shortPair.getValue());
+        Assert.assertTrue(pair.getValue().contains("inner"));
+    }
+
+    @Test
+    public void testRenderSameStacksOnce() {
+        Throwable throwable = new IllegalStateException("storm");
+        List<ThrowableStackPair> pairs = new ArrayList<>();
+        pairs.add(new ThrowableStackPair("stack", throwable, 4000));
+        pairs.add(new ThrowableStackPair("stack", throwable, 4000));
+        for (int i = 0; i < 2; i++) {
+            pairs.add(new ThrowableStackPair("stack", new IllegalStateException("storm"), 4000));
+        }
+        pairs.add(new ThrowableStackPair("stack", new IllegalStateException("another"), 4000));
+        ThrowableTransformer.INSTANCE.render(pairs);
+
+        Assert.assertSame(pairs.get(0).getValue(), pairs.get(1).getValue());
+        Assert.assertSame(pairs.get(2).getValue(), pairs.get(3).getValue());
+        Assert.assertNotEquals(pairs.get(0).getValue(), pairs.get(2).getValue());
+        Assert.assertNotEquals(pairs.get(3).getValue(), pairs.get(4).getValue());
+    }
+
+    @Test
+    public void testRenderAtFirstRead() {
+        Throwable throwable = new IllegalStateException("unrendered");
+        ThrowableStackPair pair = new ThrowableStackPair("stack", throwable, 4000);
+        Assert.assertFalse(pair.isRendered());
+        Assert.assertEquals(ThrowableTransformer.INSTANCE.convert2String(throwable, 4000), pair.transform().getValue());
+        Assert.assertTrue(pair.isRendered());
+    }
+}
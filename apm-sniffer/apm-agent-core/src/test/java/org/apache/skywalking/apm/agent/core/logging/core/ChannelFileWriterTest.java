@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChannelFileWriterTest {
+
+    @BeforeClass
+    public static void beforeTestFile() throws IOException {
+        File directory = new File(System.getProperty("java.io.tmpdir", "/tmp"));
+        String dirName4Unique = UUID.randomUUID().toString();
+        Config.Logging.DIR = directory.getCanonicalPath() + Constants.PATH_SEPARATOR + "log-test_" + dirName4Unique;
+    }
+
+    @Test
+    public void testWriteInOrder() throws Exception {
+        ChannelFileWriter writer = ChannelFileWriter.get();
+        for (int i = 0; i < 1000; i++) {
+            writer.write("line-" + i + " written");
+        }
+
+        File logFile = new File(Config.Logging.DIR, Config.Logging.FILE_NAME);
+        String[] lines = new String[0];
+        for (int i = 0; i < 100 && lines.length + writer.getDroppedCount() < 1000; i++) {
+            Thread.sleep(100L);
+            if (logFile.exists()) {
+                String content = new String(Files.readAllBytes(logFile.toPath()));
+                if (content.endsWith(Constants.LINE_SEPARATOR)) {
+                    lines = content.split(Constants.LINE_SEPARATOR);
+                }
+            }
+        }
+
+        assertEquals(1000, lines.length + writer.getDroppedCount());
+        int previous = -1;
+        for (String line : lines) {
+            int index = Integer.parseInt(line.substring("line-".length(), line.indexOf(' ')));
+            assertEquals(true, index > previous);
+            assertEquals(true, line.endsWith(" written"));
+            previous = index;
+        }
+    }
+
+    @AfterClass
+    public static void clear() {
+        deleteDir(new File(Config.Logging.DIR));
+        Config.Logging.DIR = "";
+    }
+
+    private static void deleteDir(File dir) {
+        if (dir.isDirectory()) {
+            String[] children = dir.list();
+            for (int i = 0; i < children.length; i++) {
+                deleteDir(new File(dir, children[i]));
+            }
+        }
+        dir.delete();
+    }
+}
@@ -19,13 +19,21 @@
 package org.apache.skywalking.apm.agent.core.logging.core;
 
 import com.google.gson.Gson;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
 
 public class LoggingBenchmark {
     private static final PatternLogger PATTERN_LOGGER = new PatternLogger(LoggingBenchmark.class, PatternLogger.DEFAULT_PATTERN) {
@@ -58,6 +66,72 @@ public class LoggingBenchmark {
         PATTERN_LOGGER.info("Hello World");
     }
 
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public String replaceParam() {
+        return PATTERN_LOGGER.replaceParam("Hello {}, the {} of {}", "World", 2, "skywalking");
+    }
+
+    /**
+     * The regex based replacement used before by {@link AbstractLogger#replaceParam(String, Object...)}.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public String regexReplaceParam() {
+        String message = "Hello {}, the {} of {}";
+        Object[] parameters = {"World", 2, "skywalking"};
+        int startSize = 0;
+        int parametersIndex = 0;
+        int index;
+        String tmpMessage = message;
+        while ((index = message.indexOf("{}", startSize)) != -1) {
+            if (parametersIndex >= parameters.length) {
+                break;
+            }
+            tmpMessage = tmpMessage.replaceFirst(
+                "\\{\\}", Matcher.quoteReplacement(String.valueOf(parameters[parametersIndex++])));
+            startSize = index + 2;
+        }
+        return tmpMessage;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LogDir {
+        @Setup
+        public void setup() throws IOException {
+            Config.Logging.DIR = Files.createTempDirectory("logging-benchmark").toString();
+        }
+    }
+
+    /**
+     * Write from 4 threads through {@link FileWriter}, which writes every line with its own bytes into an unbuffered
+     * stream once per second.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void fileWriter(LogDir logDir) {
+        FileWriter.get().write(PATTERN_LOGGER.format(LogLevel.INFO, "Hello World", null));
+    }
+
+    /**
+     * Write from 4 threads through {@link ChannelFileWriter}.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void channelFileWriter(LogDir logDir) {
+        ChannelFileWriter.get().write(PATTERN_LOGGER.format(LogLevel.INFO, "Hello World", null));
+    }
+
     public static void main(String[] args) throws Exception {
         org.openjdk.jmh.Main.main(args);
     }
@@ -137,6 +137,10 @@ public class PatternLoggerTest {
         logger.error(new NullPointerException(), "hello {}", "&&&**%%");
         Mockito.verify(output, times(9)).write(argument.capture());
         Assert.assertThat(argument.getValue(), StringContains.containsString("ERROR [testAppFromConfig,,,] [main] PatternLoggerTest:-1 hello &&&**%%"));
+
+        logger.info("{} and {}, {}", "{}", "$1");
+        Mockito.verify(output, times(10)).write(argument.capture());
+        Assert.assertThat(argument.getValue(), StringContains.containsString("INFO [testAppFromConfig,,,] [main] PatternLoggerTest:-1 {} and $1, {}"));
     }
 
     @Test
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BucketIndexerTest {
+
+    @Test
+    public void testUniform() {
+        final double[] steps = new double[50];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = i * 0.1;
+        }
+        verify(steps, BucketIndexer.Layout.UNIFORM);
+
+        // the min value is prepended in front of the uniform steps
+        final double[] withMin = new double[50];
+        withMin[0] = -3;
+        for (int i = 1; i < withMin.length; i++) {
+            withMin[i] = 5 + i * 2.5;
+        }
+        verify(withMin, BucketIndexer.Layout.UNIFORM);
+    }
+
+    @Test
+    public void testExponential() {
+        final double[] steps = new double[41];
+        for (int i = 1; i < steps.length; i++) {
+            steps[i] = 0.5 * Math.pow(1.3, i - 1);
+        }
+        verify(steps, BucketIndexer.Layout.EXPONENTIAL);
+    }
+
+    @Test
+    public void testLogLinear() {
+        for (int subBuckets : new int[] {1, 3, 4, 8, 16}) {
+            final List<Double> steps = BucketIndexer.exponentialSteps(0.001, 30000, subBuckets);
+            Assert.assertTrue(steps.get(steps.size() - 1) >= 30000);
+            verify(toArray(steps), BucketIndexer.Layout.LOG_LINEAR);
+
+            steps.add(0, 0d);
+            verify(toArray(steps), BucketIndexer.Layout.LOG_LINEAR);
+        }
+    }
+
+    @Test
+    public void testIrregular() {
+        verify(new double[] {0, 1, 5, 10, 50, 100, 500}, BucketIndexer.Layout.BINARY);
+        verify(new double[] {3}, BucketIndexer.Layout.BINARY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExponentialStepsWithoutPositiveLowest() {
+        BucketIndexer.exponentialSteps(0, 100, 4);
+    }
+
+    /**
+     * Verify the indexer locates the same bucket as a plain scan, on random values, the steps and their neighbours
+     */
+    private static void verify(double[] steps, BucketIndexer.Layout layout) {
+        final BucketIndexer indexer = BucketIndexer.of(steps);
+        Assert.assertEquals(layout, indexer.getLayout());
+
+        final Random random = new Random(7);
+        final double lowest = steps[0];
+        final double highest = steps[steps.length - 1];
+        for (int i = 0; i < 100_000; i++) {
+            final double value;
+            switch (i % 4) {
+                case 0:
+                    value = lowest - 1 + (highest - lowest + 2) * random.nextDouble();
+                    break;
+                case 1:
+                    value = steps[random.nextInt(steps.length)];
+                    break;
+                case 2:
+                    value = Math.nextDown(steps[random.nextInt(steps.length)]);
+                    break;
+                default:
+                    value = highest * 10 * random.nextDouble();
+            }
+            Assert.assertEquals("value " + value, scan(steps, value), indexer.indexOf(value));
+        }
+        for (double value : new double[] {Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}) {
+            Assert.assertEquals("value " + value, scan(steps, value), indexer.indexOf(value));
+        }
+    }
+
+    private static int scan(double[] steps, double value) {
+        if (!(value >= steps[0])) {
+            return -1;
+        }
+        int index = steps.length - 1;
+        while (steps[index] > value) {
+            index--;
+        }
+        return index;
+    }
+
+    private static double[] toArray(List<Double> steps) {
+        return steps.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
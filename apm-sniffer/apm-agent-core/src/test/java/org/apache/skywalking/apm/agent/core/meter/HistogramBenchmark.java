@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Record latencies from 8 threads into a histogram of about 100 buckets, through the striped buckets with the direct
+ * bucket index, and through the {@link AtomicLong} buckets with the binary search used before.
+ */
+@State(Scope.Benchmark)
+public class HistogramBenchmark {
+    private static final double HIGHEST = 30_000;
+
+    /**
+     * irregular: the steps are searched, uniform and exponential: the bucket is computed
+     */
+    @Param({"irregular", "uniform", "exponential"})
+    private String layout;
+
+    private Histogram histogram;
+    private double[] steps;
+    private AtomicLong[] counts;
+
+    @Setup
+    public void setup() {
+        final List<Double> stepList = new ArrayList<>();
+        switch (layout) {
+            case "uniform":
+                for (int i = 0; i < 100; i++) {
+                    stepList.add(i * HIGHEST / 100);
+                }
+                break;
+            case "exponential":
+                stepList.addAll(BucketIndexer.exponentialSteps(0.01, HIGHEST, 8));
+                break;
+            default:
+                for (int i = 0; i < 100; i++) {
+                    stepList.add(Math.floor(Math.pow(i, 2.2)));
+                }
+        }
+        final MeterId meterId = new MeterId("benchmark", MeterType.HISTOGRAM, new ArrayList<>());
+        histogram = new Histogram.Builder("benchmark").steps(stepList).create(meterId);
+        steps = Arrays.stream(histogram.buckets).mapToDouble(bucket -> bucket.bucket).toArray();
+        counts = new AtomicLong[steps.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new AtomicLong();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void stripedAddValue() {
+        histogram.addValue(ThreadLocalRandom.current().nextDouble(HIGHEST));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void atomicBinarySearchAddValue() {
+        final double value = ThreadLocalRandom.current().nextDouble(HIGHEST);
+        int low = 0;
+        int high = steps.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) / 2;
+            if (steps[mid] < value) {
+                low = mid + 1;
+            } else if (steps[mid] > value) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+                break;
+            }
+        }
+        if (low > 0) {
+            counts[low - 1].incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public Object transform() {
+        return histogram.transform();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(HistogramBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -80,6 +80,49 @@ public class HistogramTest {
         verifyHistogram("test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 2L), histogram.transform());
     }
 
+    @Test
+    public void testSnapshot() {
+        final Histogram histogram = MeterFactory.histogram("test").steps(Arrays.asList(10d, 20d, 30d, 40d)).build();
+        Assert.assertTrue(Double.isNaN(histogram.snapshot().valueAtPercentile(50)));
+
+        for (int i = 0; i < 100; i++) {
+            histogram.addValue(i * 0.5);
+        }
+        final Histogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100, snapshot.getTotalCount());
+        Assert.assertEquals(5, snapshot.size());
+        Assert.assertEquals(20, snapshot.getCount(2));
+        Assert.assertEquals(0, snapshot.valueAtPercentile(0), 0.0);
+        Assert.assertEquals(25, snapshot.valueAtPercentile(50), 0.0);
+        // the last bucket has no upper bound
+        Assert.assertEquals(40, snapshot.valueAtPercentile(99), 0.0);
+
+        // the snapshots are reused in turn, recording doesn't change a taken one
+        histogram.addValue(5);
+        final Histogram.Snapshot next = histogram.snapshot();
+        Assert.assertNotSame(snapshot, next);
+        Assert.assertEquals(100, snapshot.getTotalCount());
+        Assert.assertEquals(101, next.getTotalCount());
+        Assert.assertSame(snapshot, histogram.snapshot());
+    }
+
+    @Test
+    public void testExponentialSteps() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        final Histogram histogram = MeterFactory.histogram("test")
+                                                .exponentialSteps(1, 4, 2)
+                                                .tag("k1", "v1")
+                                                .build();
+        histogram.addValue(0.5);
+        histogram.addValue(1.2);
+        histogram.addValue(1.5);
+        histogram.addValue(3.9);
+        histogram.addValue(100);
+        verifyHistogram("test", labels, Arrays.asList(0d, 1d, 1.5d, 2d, 3d, 4d),
+                        Arrays.asList(1L, 1L, 1L, 0L, 1L, 1L), histogram.transform());
+    }
+
     /**
      * Check histogram message
      */
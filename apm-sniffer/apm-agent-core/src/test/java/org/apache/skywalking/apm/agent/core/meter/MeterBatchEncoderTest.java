@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.util.IOUtils;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterDataCollection;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MeterBatchEncoderTest {
+    private final Map<MeterId, BaseMeter> meterMap = new LinkedHashMap<>();
+    private final MeterBatchEncoder encoder = new MeterBatchEncoder();
+
+    private Counter counter;
+    private Counter rateCounter;
+    private double gaugeValue;
+    private Gauge gauge;
+    private Histogram histogram;
+
+    @Before
+    public void setUp() {
+        Config.Agent.SERVICE_NAME = "testService";
+        Config.Agent.INSTANCE_NAME = "testServiceInstance";
+        Config.Meter.FULL_REPORT_PERIOD = 15;
+        Config.Meter.MAX_BATCH_BYTES = 256 * 1024;
+
+        counter = register(new Counter(
+            new MeterId("test_counter", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+            CounterMode.INCREMENT
+        ));
+        rateCounter = register(new Counter(
+            new MeterId("test_rate_counter", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+            CounterMode.RATE
+        ));
+        gauge = register(new Gauge(
+            new MeterId("test_gauge", MeterType.GAUGE,
+                        Arrays.asList(new MeterTag("k1", "v1"), new MeterTag("k2", "v2"))),
+            () -> gaugeValue
+        ));
+        histogram = register(new Histogram(
+            new MeterId("test_histogram", MeterType.HISTOGRAM, new ArrayList<>()), Arrays.asList(0d, 2d, 5d)
+        ));
+    }
+
+    @After
+    public void tearDown() {
+        Config.Meter.FULL_REPORT_PERIOD = 3;
+        Config.Meter.MAX_BATCH_BYTES = 256 * 1024;
+    }
+
+    @Test
+    public void testSameWithTransform() throws Exception {
+        counter.increment(2);
+        rateCounter.increment(3);
+        gaugeValue = 1.5;
+        histogram.addValue(1);
+        histogram.addValue(3);
+
+        final List<MeterDataCollection> batches = encode();
+        Assert.assertEquals(1, batches.size());
+        final List<MeterData> meterDataList = batches.get(0).getMeterDataList();
+        Assert.assertEquals(4, meterDataList.size());
+        assertServiceInfo(meterDataList.get(0));
+
+        // the same meters reported through the protobuf builders
+        final Counter expectedCounter = new Counter(counter.getId(), CounterMode.INCREMENT);
+        expectedCounter.increment(2);
+        final Counter expectedRateCounter = new Counter(rateCounter.getId(), CounterMode.RATE);
+        expectedRateCounter.increment(3);
+        final List<MeterData> expected = Arrays.asList(
+            expectedCounter.transform().build(),
+            expectedRateCounter.transform().build(),
+            new Gauge(gauge.getId(), () -> 1.5).transform().build(),
+            histogram.transform().build()
+        );
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getSingleValue(), meterDataList.get(i).getSingleValue());
+            Assert.assertEquals(expected.get(i).getHistogram(), meterDataList.get(i).getHistogram());
+        }
+    }
+
+    @Test
+    public void testChangedOnly() throws Exception {
+        counter.increment(1);
+        rateCounter.increment(1);
+        Assert.assertEquals(4, encode().get(0).getMeterDataCount());
+
+        // the rate counter reports the increment of 0 once
+        List<MeterDataCollection> batches = encode();
+        Assert.assertEquals(1, batches.get(0).getMeterDataCount());
+        Assert.assertEquals("test_rate_counter", batches.get(0).getMeterData(0).getSingleValue().getName());
+        assertServiceInfo(batches.get(0).getMeterData(0));
+
+        // nothing changed
+        Assert.assertTrue(encode().isEmpty());
+
+        // a repeated increment of the rate counter is a change
+        rateCounter.increment(1);
+        Assert.assertEquals(1, encode().get(0).getMeterDataCount());
+        rateCounter.increment(1);
+        batches = encode();
+        Assert.assertEquals(1, batches.get(0).getMeterDataCount());
+        Assert.assertEquals(1, batches.get(0).getMeterData(0).getSingleValue().getValue(), 0.0);
+
+        counter.increment(1);
+        histogram.addValue(6);
+        batches = encode();
+        Assert.assertEquals(3, batches.get(0).getMeterDataCount());
+        Assert.assertEquals(2, batches.get(0).getMeterData(0).getSingleValue().getValue(), 0.0);
+        Assert.assertEquals(1, batches.get(0).getMeterData(2).getHistogram().getValues(2).getCount());
+    }
+
+    @Test
+    public void testFullReport() throws Exception {
+        Config.Meter.FULL_REPORT_PERIOD = 3;
+        Assert.assertEquals(4, encode().get(0).getMeterDataCount());
+        Assert.assertTrue(encode().isEmpty());
+        Assert.assertTrue(encode().isEmpty());
+        Assert.assertEquals(4, encode().get(0).getMeterDataCount());
+        Assert.assertTrue(encode().isEmpty());
+
+        // such as after a failed report
+        encoder.resync();
+        Assert.assertEquals(4, encode().get(0).getMeterDataCount());
+    }
+
+    @Test
+    public void testBatchSize() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            register(new Counter(
+                new MeterId("test_counter_" + i, MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+                CounterMode.INCREMENT
+            ));
+        }
+        Config.Meter.MAX_BATCH_BYTES = 512;
+
+        final List<MeterDataCollection> batches = encode();
+        Assert.assertTrue(batches.size() > 1);
+        int count = 0;
+        for (MeterDataCollection batch : batches) {
+            Assert.assertTrue(batch.getSerializedSize() <= 512);
+            assertServiceInfo(batch.getMeterData(0));
+            for (int i = 1; i < batch.getMeterDataCount(); i++) {
+                Assert.assertEquals("", batch.getMeterData(i).getService());
+            }
+            count += batch.getMeterDataCount();
+        }
+        Assert.assertEquals(meterMap.size(), count);
+    }
+
+    @Test
+    public void testEncodedBatchStreamedAgain() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            register(new Counter(
+                new MeterId("test_counter_" + i, MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1"))),
+                CounterMode.INCREMENT
+            ));
+        }
+        Config.Meter.MAX_BATCH_BYTES = 512;
+
+        final List<MeterBatchEncoder.EncodedBatch> batches = new ArrayList<>();
+        final List<byte[]> expected = new ArrayList<>();
+        encoder.encode(meterMap, batch -> {
+            batches.add(batch);
+            expected.add(batch.toByteArray());
+        });
+        Assert.assertTrue(batches.size() > 1);
+        // gRPC marshals the buffered messages again in a retry, after the later batches are encoded.
+        for (int i = 0; i < batches.size(); i++) {
+            try (InputStream stream = MeterBatchEncoder.COLLECT_BATCH_METHOD.streamRequest(batches.get(i))) {
+                Assert.assertArrayEquals(expected.get(i), IOUtils.toByteArray(stream));
+            }
+        }
+    }
+
+    private <T extends BaseMeter> T register(T meter) {
+        meterMap.put(meter.getId(), meter);
+        return meter;
+    }
+
+    private List<MeterDataCollection> encode() throws Exception {
+        final List<MeterDataCollection> batches = new ArrayList<>();
+        encoder.encode(meterMap, batch -> {
+            try {
+                batches.add(MeterDataCollection.parseFrom(batch.toByteArray()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return batches;
+    }
+
+    private static void assertServiceInfo(MeterData meterData) {
+        Assert.assertEquals("testService", meterData.getService());
+        Assert.assertEquals("testServiceInstance", meterData.getServiceInstance());
+        Assert.assertTrue(meterData.getTimestamp() > 0);
+    }
+}
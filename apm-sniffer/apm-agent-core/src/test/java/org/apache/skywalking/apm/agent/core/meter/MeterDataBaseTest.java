@@ -75,7 +75,7 @@ public class MeterDataBaseTest {
         // Check buckets
         for (int i = 0; i < data.length / 2; i++) {
             Assert.assertEquals(data[i * 2], histogram.buckets[i].bucket, 0.0);
-            Assert.assertEquals(data[i * 2 + 1].longValue(), histogram.buckets[i].count.get());
+            Assert.assertEquals(data[i * 2 + 1].longValue(), histogram.buckets[i].count.sum());
         }
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterDataCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Report 500 counters and 500 gauges with 3 tags, of which the given percent changes between two reports, through the
+ * MeterData builders and through the {@link MeterBatchEncoder}.
+ */
+@State(Scope.Benchmark)
+public class MeterReportBenchmark {
+    @Param({"1", "100"})
+    private int changedPercent;
+
+    private final Map<MeterId, BaseMeter> meterMap = new LinkedHashMap<>();
+    private final MeterSender sender = new MeterSender();
+    private final MeterBatchEncoder encoder = new MeterBatchEncoder();
+    private Counter[] counters;
+
+    @Setup
+    public void setup() {
+        counters = new Counter[500];
+        for (int i = 0; i < 500; i++) {
+            counters[i] = new Counter(new MeterId("benchmark_counter_" + i, MeterType.COUNTER, Arrays.asList(
+                new MeterTag("application", "benchmark"), new MeterTag("method", "GET"), new MeterTag("uri", "/" + i)
+            )), CounterMode.INCREMENT);
+            meterMap.put(counters[i].getId(), counters[i]);
+
+            final double value = i;
+            final Gauge gauge = new Gauge(new MeterId("benchmark_gauge_" + i, MeterType.GAUGE, Arrays.asList(
+                new MeterTag("application", "benchmark"), new MeterTag("pool", "pool-" + i), new MeterTag("id", "1")
+            )), () -> value);
+            meterMap.put(gauge.getId(), gauge);
+        }
+    }
+
+    private void change() {
+        for (int i = 0; i < counters.length * changedPercent / 100; i++) {
+            counters[i].increment(1);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void transform(Blackhole bh) {
+        change();
+        final MeterDataCollection.Builder builder = MeterDataCollection.newBuilder();
+        sender.transform(meterMap, builder::addMeterData);
+        bh.consume(builder.build().toByteArray());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void batchEncode(Blackhole bh) throws IOException {
+        change();
+        encoder.encode(meterMap, batch -> bh.consume(batch.length()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(MeterReportBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
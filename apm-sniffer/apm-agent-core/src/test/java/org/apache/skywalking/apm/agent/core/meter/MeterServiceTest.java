@@ -37,6 +37,7 @@ import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterDataCollection;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterReportServiceGrpc;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
@@ -87,6 +88,26 @@ public class MeterServiceTest {
                 }
             };
         }
+
+        @Override
+        public StreamObserver<MeterDataCollection> collectBatch(final StreamObserver<Commands> responseObserver) {
+            return new StreamObserver<MeterDataCollection>() {
+                @Override
+                public void onNext(MeterDataCollection value) {
+                    upstreamMeters.addAll(value.getMeterDataList());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onNext(Commands.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
     };
 
     @BeforeClass
@@ -98,6 +119,7 @@ public class MeterServiceTest {
 
     @AfterClass
     public static void afterClass() {
+        Config.Meter.REPORT_CHANGED_ONLY = false;
         Config.Agent.KEEP_TRACING = false;
         ServiceManager.INSTANCE.shutdown();
     }
@@ -160,6 +182,40 @@ public class MeterServiceTest {
         }
     }
 
+    @Test
+    public void testReportChangedOnly() throws Throwable {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Meter.REPORT_CHANGED_ONLY = true;
+        try {
+            final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
+            map.clear();
+
+            final MeterId counterId = new MeterId("test1", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1")));
+            final Counter counter = new Counter(counterId, CounterMode.INCREMENT);
+            counter.increment(2);
+            registryService.register(counter);
+            final MeterId gaugeId = new MeterId("test2", MeterType.GAUGE, Arrays.asList(new MeterTag("k1", "v1")));
+            registryService.register(new Gauge(gaugeId, () -> 1d));
+
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(2));
+            for (int i = 0; i < upstreamMeters.size(); i++) {
+                if (Objects.equals(upstreamMeters.get(i).getSingleValue().getName(), "test1")) {
+                    isSameWithCounter(upstreamMeters.get(i), i == 0, counterId, 2);
+                }
+            }
+
+            // only the changed counter
+            upstreamMeters.clear();
+            counter.increment(1);
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(1));
+            isSameWithCounter(upstreamMeters.get(0), true, counterId, 3);
+        } finally {
+            Config.Meter.REPORT_CHANGED_ONLY = false;
+        }
+    }
+
     @Test
     public void testMeterSizeAndShutdown() throws Throwable {
         final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Match a synthetic class path of 50k classes, as the classes loaded during a boot, without the {@link
+ * ClassMatchCache}, with a cold cache (the first boot) and with a warm cache (the next boots).
+ */
+@State(Scope.Benchmark)
+public class ClassMatchCacheBenchmark {
+    private static final int PACKAGE_COUNT = 500;
+    private static final int CLASSES_PER_PACKAGE = 100;
+    private static final int INTERFACE_COUNT = 30;
+
+    /**
+     * The binary name of the synthetic classes to the class bytes, in the loading order.
+     */
+    private final Map<String, byte[]> classes = new LinkedHashMap<>();
+    private PluginFinder pluginFinder;
+    private ElementMatcher<? super TypeDescription> matcher;
+    private File cacheFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        for (int i = 0; i < INTERFACE_COUNT; i++) {
+            define("synthetic.api.Service" + i, "java/lang/Object",
+                   Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT
+            );
+        }
+        for (int p = 0; p < PACKAGE_COUNT; p++) {
+            for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+                // the classes extend the previous ones, up to a depth of 8, and 1% of them implement an interface.
+                String superName = c % 8 == 0 ? "java/lang/Object" : ("synthetic/p" + p + "/Class" + (c - 1));
+                String[] interfaces = c == CLASSES_PER_PACKAGE - 1
+                    ? new String[] {"synthetic/api/Service" + (p % INTERFACE_COUNT)} : null;
+                define("synthetic.p" + p + ".Class" + c, superName, Opcodes.ACC_PUBLIC, interfaces);
+            }
+        }
+
+        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<>();
+        for (int i = 0; i < INTERFACE_COUNT; i++) {
+            plugins.add(new SyntheticPluginDefine(HierarchyMatch.byHierarchyMatch("synthetic.api.Service" + i)));
+        }
+        for (int i = 0; i < 10; i++) {
+            plugins.add(new SyntheticPluginDefine(PrefixMatch.nameStartsWith("synthetic.plugin" + i + ".")));
+            plugins.add(
+                new SyntheticPluginDefine(ClassAnnotationMatch.byClassAnnotationMatch("synthetic.Annotation" + i)));
+        }
+        pluginFinder = new PluginFinder(plugins);
+        matcher = pluginFinder.buildMatch();
+
+        cacheFile = File.createTempFile("class-match", ".cache");
+        ClassMatchCache cache = new ClassMatchCache(cacheFile, pluginFinder.getPluginsFingerprint());
+        matchAll(cache.wrap(matcher), cache);
+        cache.save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheFile.delete();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int noCache() {
+        return matchAll(matcher, null);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int coldCache() {
+        ClassMatchCache cache = new ClassMatchCache(
+            new File(cacheFile.getPath() + ".absent"), pluginFinder.getPluginsFingerprint());
+        return matchAll(cache.wrap(matcher), cache);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int warmCache() {
+        ClassMatchCache cache = new ClassMatchCache(cacheFile, pluginFinder.getPluginsFingerprint());
+        return matchAll(cache.wrap(matcher), cache);
+    }
+
+    /**
+     * Describe every class through a new lazy type pool, like the agent builder, and match it.
+     *
+     * @return the count of the matched classes.
+     */
+    private int matchAll(ElementMatcher<? super TypeDescription> typeMatcher, ClassMatchCache cache) {
+        TypePool typePool = new TypePool.Default.WithLazyResolution(
+            new TypePool.CacheProvider.Simple(),
+            new ClassFileLocator.Compound(
+                new ClassFileLocator.Simple(classes), ClassFileLocator.ForClassLoader.ofSystemLoader()),
+            TypePool.Default.ReaderMode.FAST
+        );
+        int matched = 0;
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            if (cache != null) {
+                cache.transform(null, entry.getKey().replace('.', '/'), null, null, entry.getValue());
+            }
+            if (typeMatcher.matches(typePool.describe(entry.getKey()).resolve())) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private void define(String name, String superName, int modifiers, String... interfaces) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, modifiers, name.replace('.', '/'), null, superName, interfaces);
+        writer.visitEnd();
+        classes.put(name, writer.toByteArray());
+    }
+
+    private static class SyntheticPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private SyntheticPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(ClassMatchCacheBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
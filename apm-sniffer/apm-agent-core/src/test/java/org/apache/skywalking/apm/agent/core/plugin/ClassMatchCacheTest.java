@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassMatchCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TypeDescription target = TypeDescription.ForLoadedType.of(ClassMatchCacheTest.class);
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private final ElementMatcher<TypeDescription> unmatched = type -> {
+        evaluated.incrementAndGet();
+        return false;
+    };
+
+    @Test
+    public void testSkipCachedClasses() {
+        File file = new File(folder.getRoot(), "class-match.cache");
+        ClassMatchCache cache = new ClassMatchCache(file, "v1");
+        Assert.assertFalse(cache.isMatched("a.B", 1, ClassMatchCache.RUNTIME, unmatched, target));
+        Assert.assertTrue(cache.isMatched("a.C", 2, ClassMatchCache.RUNTIME, type -> true, target));
+        Assert.assertEquals(1, cache.size());
+        cache.save();
+
+        cache = new ClassMatchCache(file, "v1");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertFalse(cache.isMatched("a.B", 1, ClassMatchCache.RUNTIME, unmatched, target));
+        Assert.assertEquals(1, evaluated.get());
+        Assert.assertEquals(1, cache.getHits());
+
+        // the class bytes changed.
+        Assert.assertFalse(cache.isMatched("a.B", 3, ClassMatchCache.RUNTIME, unmatched, target));
+        Assert.assertEquals(2, evaluated.get());
+        // the class matches now.
+        Assert.assertTrue(cache.isMatched("a.B", 4, ClassMatchCache.RUNTIME, type -> true, target));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDropOutdatedCache() {
+        File file = new File(folder.getRoot(), "class-match.cache");
+        ClassMatchCache cache = new ClassMatchCache(file, "v1");
+        cache.isMatched("a.B", 1, ClassMatchCache.RUNTIME, unmatched, target);
+        cache.save();
+
+        Assert.assertEquals(0, new ClassMatchCache(file, "v2").size());
+    }
+
+    @Test
+    public void testDropCacheOfChangedJar() throws IOException {
+        File jar = folder.newFile("a.jar");
+        Files.write(jar.toPath(), new byte[] {1});
+        File file = new File(folder.getRoot(), "class-match.cache");
+        ClassMatchCache cache = new ClassMatchCache(file, "v1");
+        cache.isMatched("a.B", 1, ClassMatchCache.fingerprintOf(jar.toURI().toURL()), unmatched, target);
+        cache.save();
+        Assert.assertEquals(1, new ClassMatchCache(file, "v1").size());
+
+        // such as the jar of the super class is upgraded.
+        Files.write(jar.toPath(), new byte[] {1, 2});
+        Assert.assertEquals(0, new ClassMatchCache(file, "v1").size());
+    }
+
+    @Test
+    public void testSkipClassesOutOfJar() throws IOException {
+        File file = new File(folder.getRoot(), "class-match.cache");
+        ClassMatchCache cache = new ClassMatchCache(file, "v1");
+        ClassMatchCache.JarFingerprint classFolder = ClassMatchCache.fingerprintOf(folder.getRoot().toURI().toURL());
+        Assert.assertFalse(cache.isMatched("a.B", 1, classFolder, unmatched, target));
+        Assert.assertFalse(cache.isMatched("a.B", 1, classFolder, unmatched, target));
+        Assert.assertEquals(2, evaluated.get());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testWrap() {
+        File file = new File(folder.getRoot(), "class-match.cache");
+        ClassMatchCache cache = new ClassMatchCache(file, "v1");
+        ElementMatcher<? super TypeDescription> matcher = cache.wrap(unmatched);
+        byte[] classBytes = new byte[] {1, 2, 3};
+
+        // not being transformed, always evaluated.
+        Assert.assertFalse(matcher.matches(target));
+        Assert.assertEquals(0, cache.size());
+
+        cache.transform(null, target.getInternalName(), null, null, classBytes);
+        Assert.assertFalse(matcher.matches(target));
+        Assert.assertFalse(matcher.matches(target));
+        Assert.assertEquals(2, evaluated.get());
+        Assert.assertEquals(1, cache.getHits());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Find the plugin defines of the types reachable from the JDK collections, IO, networking, JDBC and the agent core,
+ * through the indices of {@link PluginFinder#find(TypeDescription)} and through checking every define one by one.
+ * The plugin set looks like the bundled plugins, mostly matched by the hierarchy and some by the name prefixes.
+ */
+@State(Scope.Benchmark)
+public class PluginFinderBenchmark {
+    private static final int MAX_CORPUS_SIZE = 3000;
+
+    private static final String[] PARENT_TYPES = {
+        "java.sql.Connection", "java.sql.Statement", "java.sql.PreparedStatement", "java.sql.CallableStatement",
+        "java.sql.Driver", "java.lang.Runnable", "java.util.concurrent.Callable", "java.util.concurrent.Executor",
+        "java.util.concurrent.ExecutorService", "java.util.concurrent.Future", "java.util.function.Supplier",
+        "java.util.function.Function", "java.util.function.Consumer", "java.net.URLStreamHandler",
+        "java.net.URLConnection", "java.io.Closeable", "java.io.InputStream", "java.io.OutputStream",
+        "java.nio.channels.SocketChannel", "java.lang.AutoCloseable", "java.util.EventListener",
+        "java.lang.reflect.InvocationHandler", "java.util.Map", "java.util.Collection", "java.util.Iterator",
+        "java.lang.Thread", "java.util.TimerTask", "java.util.concurrent.ThreadFactory", "java.security.Principal",
+        "javax.sql.DataSource"
+    };
+
+    private static final String[] PREFIXES = {
+        "java.util.concurrent.atomic.", "java.util.concurrent.locks.", "java.net.http.", "java.sql.", "java.nio.",
+        "sun.net.www.protocol.", "org.apache.skywalking.apm.agent.core.context.", "net.bytebuddy.description.",
+        "com.mysql.", "org.postgresql.", "io.netty.", "org.springframework.", "com.alibaba.", "redis.clients.",
+        "org.apache.http.", "okhttp3."
+    };
+
+    private final List<TypeDescription> corpus = new ArrayList<>();
+    private final List<AbstractClassEnhancePluginDefine> signatureMatchDefines = new ArrayList<>();
+    private PluginFinder pluginFinder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        for (int i = 0; i < PARENT_TYPES.length; i++) {
+            signatureMatchDefines.add(new BenchmarkPluginDefine(HierarchyMatch.byHierarchyMatch(PARENT_TYPES[i])));
+            // the plugins of the different versions of a library are matched by the same super types.
+            signatureMatchDefines.add(new BenchmarkPluginDefine(
+                HierarchyMatch.byHierarchyMatch(PARENT_TYPES[i], PARENT_TYPES[(i + 1) % PARENT_TYPES.length])));
+        }
+        for (String prefix : PREFIXES) {
+            signatureMatchDefines.add(new BenchmarkPluginDefine(PrefixMatch.nameStartsWith(prefix)));
+        }
+        pluginFinder = new PluginFinder(signatureMatchDefines);
+
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collect(types, java.util.concurrent.ConcurrentHashMap.class, java.util.concurrent.ThreadPoolExecutor.class,
+                java.io.BufferedInputStream.class, java.net.HttpURLConnection.class, java.sql.DriverManager.class,
+                java.nio.channels.SocketChannel.class, java.util.stream.Collectors.class,
+                PluginFinder.class, TypeDescription.class
+        );
+        for (Class<?> type : types) {
+            if (!type.isInterface() && !type.isArray() && !type.isPrimitive()) {
+                corpus.add(TypeDescription.ForLoadedType.of(type));
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int indexedFind() {
+        int matched = 0;
+        for (TypeDescription typeDescription : corpus) {
+            matched += pluginFinder.find(typeDescription).size();
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int linearFind() {
+        int matched = 0;
+        for (TypeDescription typeDescription : corpus) {
+            List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<>();
+            for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefines) {
+                if (((IndirectMatch) pluginDefine.getClassMatch()).isMatch(typeDescription)) {
+                    matchedPlugins.add(pluginDefine);
+                }
+            }
+            matched += matchedPlugins.size();
+        }
+        return matched;
+    }
+
+    /**
+     * Collect the types reachable from the roots through the super types, the fields, the methods and the nested
+     * classes, as the classes loaded by an application.
+     */
+    private static void collect(Set<Class<?>> types, Class<?>... roots) {
+        List<Class<?>> queue = new ArrayList<>();
+        for (Class<?> root : roots) {
+            if (types.add(root)) {
+                queue.add(root);
+            }
+        }
+        for (int i = 0; i < queue.size() && types.size() < MAX_CORPUS_SIZE; i++) {
+            Class<?> type = queue.get(i);
+            List<Class<?>> reachable = new ArrayList<>();
+            if (type.getSuperclass() != null) {
+                reachable.add(type.getSuperclass());
+            }
+            for (Class<?> implInterface : type.getInterfaces()) {
+                reachable.add(implInterface);
+            }
+            try {
+                for (Field field : type.getDeclaredFields()) {
+                    reachable.add(field.getType());
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    reachable.add(method.getReturnType());
+                    for (Class<?> parameterType : method.getParameterTypes()) {
+                        reachable.add(parameterType);
+                    }
+                }
+                for (Class<?> nestedClass : type.getDeclaredClasses()) {
+                    reachable.add(nestedClass);
+                }
+            } catch (Throwable ignored) {
+                // the types of some members can't be loaded.
+            }
+            for (Class<?> reachableType : reachable) {
+                if (types.add(reachableType)) {
+                    queue.add(reachableType);
+                }
+            }
+        }
+    }
+
+    private static class BenchmarkPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private BenchmarkPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginFinderBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private final AbstractClassEnhancePluginDefine concurrentPrefix = new TestPluginDefine(
+        nameStartsWith("java.util.concurrent."));
+    private final AbstractClassEnhancePluginDefine concurrentHashPrefixes = new TestPluginDefine(
+        nameStartsWith("java.util.concurrent.ConcurrentHash", "java.util.concurrent.Concurrent"));
+    private final AbstractClassEnhancePluginDefine mapHierarchy = new TestPluginDefine(
+        byHierarchyMatch("java.util.Map"));
+    private final AbstractClassEnhancePluginDefine concurrentMapHierarchy = new TestPluginDefine(
+        byHierarchyMatch("java.util.Map", "java.util.concurrent.ConcurrentMap"));
+    private final AbstractClassEnhancePluginDefine navigableMapHierarchy = new TestPluginDefine(
+        byHierarchyMatch("java.util.concurrent.ConcurrentNavigableMap", "java.util.SortedMap"));
+    private final AbstractClassEnhancePluginDefine hashMapRegex = new TestPluginDefine(byRegexMatch(".*HashMap"));
+    private final AbstractClassEnhancePluginDefine arrayListName = new TestPluginDefine(
+        NameMatch.byName("java.util.ArrayList"));
+
+    private final List<AbstractClassEnhancePluginDefine> plugins = Arrays.asList(
+        arrayListName, concurrentPrefix, mapHierarchy, concurrentHashPrefixes, hashMapRegex, concurrentMapHierarchy,
+        navigableMapHierarchy
+    );
+
+    @Test
+    public void testFindInPluginOrder() {
+        PluginFinder finder = new PluginFinder(plugins);
+
+        Assert.assertEquals(
+            Arrays.asList(concurrentPrefix, mapHierarchy, concurrentHashPrefixes, hashMapRegex, concurrentMapHierarchy),
+            finder.find(TypeDescription.ForLoadedType.of(ConcurrentHashMap.class))
+        );
+        Assert.assertEquals(
+            Arrays.asList(
+                concurrentPrefix, mapHierarchy, concurrentHashPrefixes, concurrentMapHierarchy, navigableMapHierarchy),
+            finder.find(TypeDescription.ForLoadedType.of(ConcurrentSkipListMap.class))
+        );
+        Assert.assertEquals(
+            Arrays.asList(arrayListName), finder.find(TypeDescription.ForLoadedType.of(ArrayList.class)));
+        Assert.assertEquals(
+            Arrays.asList(mapHierarchy), finder.find(TypeDescription.ForLoadedType.of(java.util.TreeMap.class)));
+    }
+
+    @Test
+    public void testFindAsTheMatches() {
+        PluginFinder finder = new PluginFinder(plugins);
+
+        for (Class<?> type : Arrays.asList(ConcurrentHashMap.class, ConcurrentSkipListMap.class, ArrayList.class,
+                                           java.util.HashMap.class, java.util.TreeMap.class, String.class,
+                                           java.util.concurrent.Executors.class, java.util.Map.class)) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            List<AbstractClassEnhancePluginDefine> expected = new ArrayList<>();
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                ClassMatch match = plugin.getClassMatch();
+                if (match instanceof NameMatch
+                    ? ((NameMatch) match).getClassName().equals(type.getName())
+                    : ((IndirectMatch) match).isMatch(typeDescription)) {
+                    expected.add(plugin);
+                }
+            }
+            // The name matched defines are found first.
+            expected.sort((a, b) -> Boolean.compare(
+                !(a.getClassMatch() instanceof NameMatch), !(b.getClassMatch() instanceof NameMatch)));
+            Assert.assertEquals(type.getName(), expected, finder.find(typeDescription));
+        }
+    }
+
+    private static class TestPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private TestPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Enhance the {@link Calculator} in an isolated class loader, through the delegation or the inlined interception.
+ */
+public class CalculatorInstrumentation extends ClassEnhancePluginDefine {
+    private final boolean inlined;
+
+    public CalculatorInstrumentation(boolean inlined) {
+        this.inlined = inlined;
+    }
+
+    static Class<?> enhance(boolean inlined) {
+        ClassLoader classLoader = CalculatorInstrumentation.class.getClassLoader();
+        DynamicType.Builder<?> builder = new CalculatorInstrumentation(inlined).define(
+            TypeDescription.ForLoadedType.of(Calculator.class), new ByteBuddy().rebase(Calculator.class), classLoader,
+            new EnhanceContext()
+        );
+        return builder.make().load(classLoader, ClassLoadingStrategy.Default.CHILD_FIRST).getLoaded();
+    }
+
+    @Override
+    public boolean isInlinedInterception() {
+        return inlined;
+    }
+
+    @Override
+    protected ClassMatch enhanceClass() {
+        return NameMatch.byName(Calculator.class.getName());
+    }
+
+    @Override
+    public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+        return new ConstructorInterceptPoint[0];
+    }
+
+    @Override
+    public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+        return new InstanceMethodsInterceptPoint[] {
+            new InstanceMethodsInterceptPoint() {
+                @Override
+                public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                    return named("add");
+                }
+
+                @Override
+                public String getMethodsInterceptor() {
+                    return CalculatorInterceptor.class.getName();
+                }
+
+                @Override
+                public boolean isOverrideArgs() {
+                    return true;
+                }
+            },
+            new InstanceMethodsInterceptPoint() {
+                @Override
+                public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                    return named("greet").or(named("fail"));
+                }
+
+                @Override
+                public String getMethodsInterceptor() {
+                    return CalculatorInterceptor.class.getName();
+                }
+
+                @Override
+                public boolean isOverrideArgs() {
+                    return false;
+                }
+            }
+        };
+    }
+
+    @Override
+    public StaticMethodsInterceptPoint[] getStaticMethodsInterceptPoints() {
+        return new StaticMethodsInterceptPoint[] {
+            new StaticMethodsInterceptPoint() {
+                @Override
+                public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                    return named("twice");
+                }
+
+                @Override
+                public String getMethodsInterceptor() {
+                    return CalculatorStaticInterceptor.class.getName();
+                }
+
+                @Override
+                public boolean isOverrideArgs() {
+                    return false;
+                }
+
+                @Override
+                public boolean isArgumentsRequired() {
+                    return false;
+                }
+            }
+        };
+    }
+}
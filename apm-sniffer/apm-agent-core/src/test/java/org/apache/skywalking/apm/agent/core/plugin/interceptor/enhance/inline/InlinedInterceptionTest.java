@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.inline;
+
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InlinedInterceptionTest {
+
+    @Before
+    public void setUp() {
+        CalculatorInterceptor.BEFORE_COUNT = 0;
+        CalculatorInterceptor.LAST_ARGUMENTS = null;
+        CalculatorInterceptor.LAST_METHOD = null;
+        CalculatorInterceptor.LAST_THROWABLE = null;
+        CalculatorStaticInterceptor.LAST_ARGUMENTS = null;
+    }
+
+    @Test
+    public void testInlinedInstanceMethods() throws Exception {
+        Class<?> type = CalculatorInstrumentation.enhance(true);
+        Calculation calculation = (Calculation) type.newInstance();
+        Assert.assertTrue(calculation instanceof EnhancedInstance);
+
+        // the first argument is doubled by the interceptor, then the return value is increased.
+        Assert.assertEquals(6, calculation.add(1, 3));
+        Assert.assertEquals(type.getDeclaredMethod("add", int.class, int.class), CalculatorInterceptor.LAST_METHOD);
+        Assert.assertArrayEquals(new Object[] {2, 3}, CalculatorInterceptor.LAST_ARGUMENTS);
+
+        Assert.assertEquals("hello world", calculation.greet("world"));
+        Assert.assertEquals("skipped", calculation.greet("skip"));
+        Assert.assertEquals(3, CalculatorInterceptor.BEFORE_COUNT);
+
+        try {
+            calculation.fail();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertSame(e, CalculatorInterceptor.LAST_THROWABLE);
+        }
+        Assert.assertSame(InlinedInterceptors.EMPTY_ARGUMENTS, CalculatorInterceptor.LAST_ARGUMENTS);
+    }
+
+    @Test
+    public void testInlinedStaticMethods() throws Exception {
+        Class<?> type = CalculatorInstrumentation.enhance(true);
+        Assert.assertEquals(7L, type.getMethod("twice", long.class).invoke(null, 3L));
+        // the arguments are not required by the intercept point.
+        Assert.assertSame(InlinedInterceptors.EMPTY_ARGUMENTS, CalculatorStaticInterceptor.LAST_ARGUMENTS);
+    }
+
+    @Test
+    public void testSameAsDelegation() throws Exception {
+        Calculation inlined = (Calculation) CalculatorInstrumentation.enhance(true).newInstance();
+        Calculation delegated = (Calculation) CalculatorInstrumentation.enhance(false).newInstance();
+        Assert.assertEquals(delegated.add(5, 7), inlined.add(5, 7));
+        Assert.assertEquals(delegated.greet("world"), inlined.greet("world"));
+        Assert.assertEquals(delegated.greet("skip"), inlined.greet("skip"));
+    }
+}
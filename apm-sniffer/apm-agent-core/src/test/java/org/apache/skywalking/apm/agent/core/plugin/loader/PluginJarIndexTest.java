@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginJarIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLookup() throws IOException {
+        File plugins = folder.newFolder("plugins");
+        File activations = folder.newFolder("activations");
+        writeJar(new File(plugins, "a.jar"), "skywalking-plugin.def", "a", "org/example/A.class", "A");
+        writeJar(new File(activations, "b.jar"), "skywalking-plugin.def", "b", "org/example/B.class", "B");
+
+        List<File> classpath = Arrays.asList(plugins, activations);
+        PluginJarIndex index = PluginJarIndex.of(classpath);
+        Assert.assertSame(index, PluginJarIndex.of(Arrays.asList(plugins, activations)));
+
+        Assert.assertEquals(2, index.findAll("skywalking-plugin.def").length);
+        Assert.assertEquals("a", read(index.findFirst("skywalking-plugin.def"), "skywalking-plugin.def"));
+        Assert.assertEquals("B", read(index.findFirst("org/example/B.class"), "org/example/B.class"));
+        Assert.assertTrue(index.findFirst("org/example/B.class").getResource("org/example/B.class")
+                               .toString().endsWith("b.jar!/org/example/B.class"));
+
+        Assert.assertNull(index.findFirst("org/example/C.class"));
+        Assert.assertNull(index.findFirst("org/none"));
+
+        // the directories are resolved with or without the trailing slash
+        Assert.assertEquals(2, index.findAll("org/example/").length);
+        Assert.assertEquals(2, index.findAll("org/example").length);
+        Assert.assertTrue(index.findFirst("org/example").getResource("org/example")
+                               .toString().endsWith("a.jar!/org/example"));
+    }
+
+    private static String read(PluginJarIndex.Jar jar, String name) throws IOException {
+        return new String(jar.read(name), StandardCharsets.UTF_8);
+    }
+
+    private static void writeJar(File file, String... namesAndContents) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new JarEntry("org/example/"));
+            out.closeEntry();
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                out.putNextEntry(new JarEntry(namesAndContents[i]));
+                out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+    }
+}
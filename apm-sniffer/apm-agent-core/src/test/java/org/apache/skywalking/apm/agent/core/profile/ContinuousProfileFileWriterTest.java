@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContinuousProfileFileWriterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndKeepLatestFiles() throws Exception {
+        final File dir = new File(folder.getRoot(), "profiles");
+        final ContinuousProfileFileWriter writer = new ContinuousProfileFileWriter(dir, 2);
+        writer.write(Collections.singletonList("/users;Foo.handle:1 1"), 1000);
+        writer.write(Collections.singletonList("/users;Foo.handle:1 2"), 2000);
+        writer.write(Arrays.asList("/users;Foo.handle:1 3", "/orders;Foo.handle:1 4"), 3000);
+
+        final String[] files = dir.list();
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        Assert.assertEquals(2, files.length);
+        for (String file : files) {
+            Assert.assertTrue(file.startsWith(ContinuousProfileFileWriter.FILE_PREFIX));
+            Assert.assertTrue(file.endsWith(ContinuousProfileFileWriter.FILE_SUFFIX));
+        }
+        Assert.assertEquals(
+            Collections.singletonList("/users;Foo.handle:1 2"),
+            Files.readAllLines(new File(dir, files[0]).toPath(), StandardCharsets.UTF_8)
+        );
+        Assert.assertEquals(
+            Arrays.asList("/users;Foo.handle:1 3", "/orders;Foo.handle:1 4"),
+            Files.readAllLines(new File(dir, files[1]).toPath(), StandardCharsets.UTF_8)
+        );
+    }
+}
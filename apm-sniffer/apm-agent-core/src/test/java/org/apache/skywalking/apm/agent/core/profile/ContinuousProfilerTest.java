@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class ContinuousProfilerTest {
+
+    @Test
+    public void testSampleTracingThreads() throws InterruptedException {
+        final ContinuousProfiler profiler = new ContinuousProfiler(1000, 500, false);
+        final TracingContext tracingContext = mock(TracingContext.class);
+        final CountDownLatch watched = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            profiler.watch(tracingContext, "/users");
+            // the endpoint is changed after the tracing context is created
+            profiler.rename(tracingContext, "/orders");
+            watched.countDown();
+            awaitInEndpoint(finished);
+        });
+        thread.start();
+        try {
+            watched.await();
+            // sample the thread inside the endpoint only
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            for (int i = 0; i < 5; i++) {
+                profiler.sample();
+            }
+        } finally {
+            finished.countDown();
+            thread.join();
+        }
+
+        int samples = 0;
+        final List<String> foldedStacks = profiler.flush();
+        for (String foldedStack : foldedStacks) {
+            Assert.assertTrue(foldedStack.startsWith("/orders;"));
+            Assert.assertTrue(foldedStack.contains(ContinuousProfilerTest.class.getName() + ".awaitInEndpoint:"));
+            samples += Integer.parseInt(foldedStack.substring(foldedStack.lastIndexOf(' ') + 1));
+        }
+        Assert.assertEquals(5, samples);
+
+        // the thread is not alive, so it is not watched anymore
+        profiler.sample();
+        Assert.assertEquals(0, profiler.watchedCount());
+        Assert.assertTrue(profiler.flush().isEmpty());
+    }
+
+    @Test
+    public void testWatchLatestTracingContext() {
+        final ContinuousProfiler profiler = new ContinuousProfiler(1000, 500, false);
+        final TracingContext ignored = mock(TracingContext.class);
+        final TracingContext latest = mock(TracingContext.class);
+        profiler.watch(ignored, "/users");
+        // the new tracing context of the thread replaces the ignored one
+        profiler.watch(latest, "/orders");
+        Assert.assertEquals(1, profiler.watchedCount());
+
+        // the ignored tracing context doesn't change the watching of the latest one
+        profiler.rename(ignored, "/users");
+        profiler.unwatch(ignored);
+        Assert.assertEquals(1, profiler.watchedCount());
+        profiler.sample();
+        Assert.assertTrue(profiler.flush().get(0).startsWith("/orders;"));
+
+        profiler.unwatch(latest);
+        Assert.assertEquals(0, profiler.watchedCount());
+    }
+
+    @Test
+    public void testCpuOnly() throws InterruptedException {
+        final ContinuousProfiler profiler = new ContinuousProfiler(1000, 500, true);
+        final TracingContext tracingContext = mock(TracingContext.class);
+        final CountDownLatch watched = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            profiler.watch(tracingContext, "/users");
+            watched.countDown();
+            awaitInEndpoint(finished);
+            profiler.unwatch(tracingContext);
+        });
+        thread.start();
+        try {
+            watched.await();
+            // the waiting thread is not on CPU
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            profiler.sample();
+        } finally {
+            finished.countDown();
+            thread.join();
+        }
+        Assert.assertEquals(0, profiler.watchedCount());
+        Assert.assertTrue(profiler.flush().isEmpty());
+    }
+
+    private static void awaitInEndpoint(CountDownLatch finished) {
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileCallTreeTest {
+
+    @Test
+    public void testFlushFoldedStacks() {
+        final ProfileCallTree callTree = new ProfileCallTree(100);
+        final StackTraceElement[] query = stack("Foo.query", "Foo.handle", "Thread.run");
+        final StackTraceElement[] render = stack("Foo.render", "Foo.handle", "Thread.run");
+        callTree.add("/users", query, query.length);
+        callTree.add("/users", query, query.length);
+        callTree.add("/users", render, render.length);
+        callTree.add("/orders", query, query.length);
+        // root, 3 shared frames and the render frame of /users, then root and 3 frames of /orders
+        Assert.assertEquals(9, callTree.size());
+
+        final List<String> foldedStacks = callTree.flush();
+        Assert.assertEquals(3, foldedStacks.size());
+        Assert.assertTrue(foldedStacks.contains("/users;Thread.run:1;Foo.handle:1;Foo.query:1 2"));
+        Assert.assertTrue(foldedStacks.contains("/users;Thread.run:1;Foo.handle:1;Foo.render:1 1"));
+        Assert.assertTrue(foldedStacks.contains("/orders;Thread.run:1;Foo.handle:1;Foo.query:1 1"));
+
+        // the tree is cleared for the next period
+        Assert.assertEquals(0, callTree.size());
+        Assert.assertTrue(callTree.flush().isEmpty());
+    }
+
+    @Test
+    public void testMaxNodes() {
+        final ProfileCallTree callTree = new ProfileCallTree(3);
+        final StackTraceElement[] query = stack("Foo.query", "Foo.handle", "Thread.run");
+        callTree.add("/users", query, query.length);
+        callTree.add("/orders", query, query.length);
+        Assert.assertEquals(3, callTree.size());
+        Assert.assertEquals(1, callTree.getTruncatedSamples());
+        Assert.assertEquals(1, callTree.getDroppedSamples());
+
+        // the truncated sample is counted on the deepest existing frame
+        final List<String> foldedStacks = callTree.flush();
+        Assert.assertEquals(1, foldedStacks.size());
+        Assert.assertEquals("/users;Thread.run:1;Foo.handle:1 1", foldedStacks.get(0));
+    }
+
+    @Test
+    public void testEndpointInFoldedFormat() {
+        final ProfileCallTree callTree = new ProfileCallTree(100);
+        final StackTraceElement[] query = stack("Foo.query");
+        callTree.add("/users;v1\n", query, query.length);
+        Assert.assertEquals(Collections.singletonList("/users,v1 ;Foo.query:1 1"), callTree.flush());
+    }
+
+    private static StackTraceElement[] stack(String... methods) {
+        final StackTraceElement[] stackTrace = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            final int dot = methods[i].lastIndexOf('.');
+            stackTrace[i] = new StackTraceElement(
+                methods[i].substring(0, dot), methods[i].substring(dot + 1), "Foo.java", 1);
+        }
+        return stackTrace;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileFrameDictionaryTest {
+
+    @Test
+    public void testIntern() {
+        final ProfileFrameDictionary dictionary = new ProfileFrameDictionary();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, dictionary.intern(new StackTraceElement("Foo", "bar", "Foo.java", i)));
+        }
+        Assert.assertEquals(1000, dictionary.size());
+
+        // the same frame has the same id
+        Assert.assertEquals(500, dictionary.intern(new StackTraceElement("Foo", "bar", "Foo.java", 500)));
+        Assert.assertEquals(1000, dictionary.size());
+        Assert.assertEquals("Foo.bar:500", dictionary.signature(500));
+    }
+
+    @Test
+    public void testExpandInternedStack() {
+        final ProfileFrameDictionary dictionary = new ProfileFrameDictionary();
+        final int[] frameIds = new int[] {
+            dictionary.intern(new StackTraceElement("java.lang.Thread", "run", "Thread.java", 748)),
+            dictionary.intern(new StackTraceElement("Foo", "handle", "Foo.java", 10)),
+            dictionary.intern(new StackTraceElement("Foo", "query", "Foo.java", 20))
+        };
+        final TracingThreadSnapshot.InternedStack stack = new TracingThreadSnapshot.InternedStack(frameIds, dictionary);
+        Assert.assertTrue(stack.matches(new int[] {0, 1, 2, 3}, 3));
+        Assert.assertFalse(stack.matches(new int[] {0, 1, 3}, 3));
+        Assert.assertFalse(stack.matches(new int[] {0, 1}, 2));
+
+        final ThreadSnapshot first = new TracingThreadSnapshot("task", "segment", 0, 100, stack).transform();
+        final ThreadSnapshot second = new TracingThreadSnapshot("task", "segment", 1, 110, stack).transform();
+        Assert.assertEquals(0, first.getSequence());
+        Assert.assertEquals(110, second.getTime());
+        Assert.assertEquals(3, first.getStack().getCodeSignaturesCount());
+        Assert.assertEquals("java.lang.Thread.run:748", first.getStack().getCodeSignatures(0));
+        Assert.assertEquals("Foo.query:20", first.getStack().getCodeSignatures(2));
+        // the stack is expanded once for the snapshots sharing it
+        Assert.assertSame(first.getStack(), second.getStack());
+    }
+}
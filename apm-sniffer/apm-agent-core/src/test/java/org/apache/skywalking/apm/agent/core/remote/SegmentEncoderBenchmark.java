@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.EntrySpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the encoding through {@link TraceSegment#transform()} with the direct encoding of {@link SegmentEncoder}.
+ * Check the gc.alloc.rate.norm of the GC profiler for the allocation per segment.
+ */
+public class SegmentEncoderBenchmark {
+
+    @State(Scope.Thread)
+    public static class SegmentState {
+        private TraceSegment segment;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Config.Agent.SERVICE_NAME = "benchmark-service";
+            Config.Agent.INSTANCE_NAME = "benchmark-instance";
+            segment = new TraceSegment();
+
+            EntrySpan entrySpan = new EntrySpan(0, -1, "/benchmark/entry", null);
+            entrySpan.start();
+            entrySpan.setComponent(ComponentsDefine.TOMCAT);
+            SpanLayer.asHttp(entrySpan);
+            Tags.URL.set(entrySpan, "http://127.0.0.1:8080/benchmark/entry");
+            Tags.HTTP.METHOD.set(entrySpan, "GET");
+
+            for (int i = 1; i <= 5; i++) {
+                AbstractTracingSpan localSpan = new LocalSpan(i * 2 - 1, 0, "/benchmark/local/" + i, null);
+                localSpan.start();
+                localSpan.tag("key", "value-" + i);
+                localSpan.finish(segment);
+
+                ExitSpan exitSpan = new ExitSpan(i * 2, 0, "/benchmark/exit/" + i, "127.0.0.1:3306", null);
+                exitSpan.start();
+                exitSpan.setComponent(ComponentsDefine.MYSQL_JDBC_DRIVER);
+                SpanLayer.asDB(exitSpan);
+                Tags.DB_STATEMENT.set(exitSpan, "select * from benchmark where id = ?");
+                exitSpan.finish(segment);
+            }
+            entrySpan.finish(segment);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void transform(SegmentState state, Blackhole bh) throws IOException {
+        Config.Collector.DIRECT_SEGMENT_ENCODING = false;
+        bh.consume(SegmentEncoder.encode(state.segment));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void direct(SegmentState state, Blackhole bh) throws IOException {
+        Config.Collector.DIRECT_SEGMENT_ENCODING = true;
+        bh.consume(SegmentEncoder.encode(state.segment));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(SegmentEncoderBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.InputStream;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.SW8CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
+import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
+import org.apache.skywalking.apm.agent.core.util.IOUtils;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(TracingSegmentRunner.class)
+public class SegmentEncoderTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @SegmentStoragePoint
+    private SegmentStorage storage;
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @After
+    public void tearDown() {
+        Config.Collector.DIRECT_SEGMENT_ENCODING = false;
+    }
+
+    @Test
+    public void testDirectEncodingSameAsTransform() throws Exception {
+        ContextCarrier contextCarrier = new ContextCarrier();
+        CarrierItem next = contextCarrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (next.getHeadKey().equals(SW8CarrierItem.HEADER_NAME)) {
+                next.setHeadValue("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=");
+            }
+        }
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/testEntry", contextCarrier);
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.URL.set(entrySpan, "127.0.0.1:8080");
+        SpanLayer.asHttp(entrySpan);
+
+        AbstractSpan localSpan = ContextManager.createLocalSpan("/testLocal");
+        localSpan.log(new IllegalStateException("test"));
+        localSpan.errorOccurred();
+        ContextManager.stopSpan();
+
+        AbstractSpan exitSpan = ContextManager.createExitSpan("/testExit", new ContextCarrier(), "127.0.0.1:12800");
+        exitSpan.setComponent(ComponentsDefine.DUBBO);
+        SpanLayer.asRPCFramework(exitSpan);
+        exitSpan.skipAnalysis();
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+
+        List<TraceSegment> segments = storage.getTraceSegments();
+        Assert.assertEquals(1, segments.size());
+        TraceSegment segment = segments.get(0);
+        byte[] expected = segment.transform().toByteArray();
+
+        Config.Collector.DIRECT_SEGMENT_ENCODING = false;
+        Assert.assertArrayEquals(expected, SegmentEncoder.encode(segment).toByteArray());
+
+        Config.Collector.DIRECT_SEGMENT_ENCODING = true;
+        Assert.assertEquals(expected.length, segment.computeSerializedSize());
+        Assert.assertArrayEquals(expected, SegmentEncoder.encode(segment).toByteArray());
+    }
+
+    @Test
+    public void testEncodedSegmentStreamedAgain() throws Exception {
+        ContextManager.createEntrySpan("/first", null);
+        ContextManager.stopSpan();
+        ContextManager.createEntrySpan("/second", null);
+        ContextManager.stopSpan();
+
+        List<TraceSegment> segments = storage.getTraceSegments();
+        Assert.assertEquals(2, segments.size());
+        byte[] expected = segments.get(0).transform().toByteArray();
+
+        Config.Collector.DIRECT_SEGMENT_ENCODING = true;
+        SegmentEncoder.EncodedSegment first = SegmentEncoder.encode(segments.get(0));
+        SegmentEncoder.encode(segments.get(1));
+        // gRPC marshals the buffered messages again in a retry, after the later segments are encoded.
+        Assert.assertArrayEquals(expected, stream(first));
+        Assert.assertArrayEquals(expected, stream(first));
+    }
+
+    private static byte[] stream(SegmentEncoder.EncodedSegment encodedSegment) throws Exception {
+        try (InputStream stream = SegmentEncoder.COLLECT_METHOD.streamRequest(encodedSegment)) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+}
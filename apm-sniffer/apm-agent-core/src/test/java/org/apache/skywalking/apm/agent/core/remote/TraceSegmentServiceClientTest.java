@@ -161,4 +161,39 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testPipelinedUplink() throws InterruptedException, IllegalAccessException, NoSuchFieldException {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.PIPELINED_UPLINK = true;
+        try {
+            AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+            firstEntrySpan.setComponent(ComponentsDefine.TOMCAT);
+            SpanLayer.asHttp(firstEntrySpan);
+            ContextManager.stopSpan();
+
+            serviceClient.consume(storage.getTraceSegments());
+            for (int i = 0; i < 100 && upstreamSegments.isEmpty(); i++) {
+                Thread.sleep(10);
+                serviceClient.nothingToConsume();
+            }
+            assertThat(upstreamSegments.size(), is(1));
+            assertThat(upstreamSegments.get(0).getSpansCount(), is(1));
+            // the segment is in flight until the stream is completed.
+            assertThat(serviceClient.getBufferedCount(), is(1L));
+
+            serviceClient.onExit();
+            PipelinedSegmentUplink uplink = FieldGetter.getValue(serviceClient, "pipelinedUplink");
+            for (int i = 0; i < 100 && uplink.getUplinkedCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(uplink.getUplinkedCount(), is(1L));
+            assertThat(uplink.getInFlightCount(), is(0L));
+            assertThat(uplink.getAbandonedCount(), is(0L));
+            assertThat(serviceClient.getBufferedCount(), is(0L));
+            assertThat(serviceClient.getAbandonedCount(), is(0L));
+        } finally {
+            Config.Collector.PIPELINED_UPLINK = false;
+        }
+    }
 }
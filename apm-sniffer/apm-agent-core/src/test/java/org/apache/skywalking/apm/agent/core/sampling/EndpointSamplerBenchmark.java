@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Sample the requests of 100 endpoints, half of them to a hot one, from 8 threads. <code>globalCounter</code> is the
+ * shared counter of {@link SamplingService}, <code>endpointBuckets</code> the token buckets of {@link
+ * EndpointSampler}.
+ */
+@State(Scope.Benchmark)
+public class EndpointSamplerBenchmark {
+    private static final String[] ENDPOINTS = new String[100];
+
+    static {
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            ENDPOINTS[i] = "/benchmark/endpoint/" + i;
+        }
+    }
+
+    private final AtomicInteger samplingFactor = new AtomicInteger(0);
+    private final EndpointSampler sampler = new EndpointSampler(5, System.currentTimeMillis());
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean globalCounter() {
+        nextEndpoint();
+        int factor = samplingFactor.get();
+        if (factor < 500) {
+            return samplingFactor.compareAndSet(factor, factor + 1);
+        }
+        // the scheduled reset of every 3 seconds.
+        if (ThreadLocalRandom.current().nextInt(100_000) == 0) {
+            samplingFactor.set(0);
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean endpointBuckets() {
+        return sampler.trySampling(nextEndpoint(), System.currentTimeMillis());
+    }
+
+    private static String nextEndpoint() {
+        int random = ThreadLocalRandom.current().nextInt(ENDPOINTS.length * 2);
+        return random < ENDPOINTS.length ? ENDPOINTS[0] : ENDPOINTS[random - ENDPOINTS.length];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(EndpointSamplerBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
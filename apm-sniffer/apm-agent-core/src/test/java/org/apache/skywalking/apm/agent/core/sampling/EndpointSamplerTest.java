@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointSamplerTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void testQuotaOfEveryEndpoint() {
+        EndpointSampler sampler = new EndpointSampler(2, NOW);
+        Assert.assertTrue(sampler.trySampling("/hot", NOW));
+        Assert.assertTrue(sampler.trySampling("/hot", NOW));
+        Assert.assertFalse(sampler.trySampling("/hot", NOW));
+        // the hot endpoint doesn't take the quota of the rare one.
+        Assert.assertTrue(sampler.trySampling("/rare", NOW));
+        Assert.assertTrue(sampler.trySampling("/rare", NOW));
+        Assert.assertFalse(sampler.trySampling("/rare", NOW));
+    }
+
+    @Test
+    public void testRefillByElapsedTime() {
+        EndpointSampler sampler = new EndpointSampler(3, NOW);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(sampler.trySampling("/endpoint", NOW));
+        }
+        Assert.assertFalse(sampler.trySampling("/endpoint", NOW + 999));
+        Assert.assertTrue(sampler.trySampling("/endpoint", NOW + 1000));
+        Assert.assertFalse(sampler.trySampling("/endpoint", NOW + 1500));
+        Assert.assertTrue(sampler.trySampling("/endpoint", NOW + 2000));
+
+        // the tokens are never more than the rate.
+        long later = NOW + 60_000;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(sampler.trySampling("/endpoint", later));
+        }
+        Assert.assertFalse(sampler.trySampling("/endpoint", later));
+    }
+
+    @Test
+    public void testRefillOfSubMillisecondInterval() {
+        // 2000 per 3 seconds, a token every 1.5ms.
+        EndpointSampler sampler = drain(2000);
+        Assert.assertEquals(0, sampleAt(sampler, NOW + 1));
+        Assert.assertEquals(1, sampleAt(sampler, NOW + 2));
+        Assert.assertEquals(1, sampleAt(sampler, NOW + 3));
+
+        // 5000 per 3 seconds, a token every 0.6ms.
+        sampler = drain(5000);
+        Assert.assertEquals(1, sampleAt(sampler, NOW + 1));
+        Assert.assertEquals(2, sampleAt(sampler, NOW + 2));
+        Assert.assertEquals(2, sampleAt(sampler, NOW + 3));
+    }
+
+    @Test
+    public void testSamplesPerWindowNeverBeyondRate() {
+        for (int rate : new int[] {400, 2000, 5000}) {
+            EndpointSampler sampler = drain(rate);
+            int sampled = 0;
+            for (long elapsed = 1; elapsed <= 3000; elapsed++) {
+                sampled += sampleAt(sampler, NOW + elapsed);
+            }
+            Assert.assertEquals(rate, sampled);
+        }
+    }
+
+    private static EndpointSampler drain(int rate) {
+        EndpointSampler sampler = new EndpointSampler(rate, NOW);
+        Assert.assertEquals(rate, sampleAt(sampler, NOW));
+        return sampler;
+    }
+
+    private static int sampleAt(EndpointSampler sampler, long now) {
+        int sampled = 0;
+        while (sampler.trySampling("/endpoint", now)) {
+            sampled++;
+        }
+        return sampled;
+    }
+
+    @Test
+    public void testOverflowAndEviction() {
+        EndpointSampler sampler = new EndpointSampler(1, NOW);
+        for (int i = 0; i < EndpointSampler.MAX_ENDPOINTS; i++) {
+            Assert.assertTrue(sampler.trySampling("/endpoint" + i, NOW));
+        }
+        // the endpoints beyond the max share the overflow bucket.
+        Assert.assertTrue(sampler.trySampling("/overflow1", NOW));
+        Assert.assertFalse(sampler.trySampling("/overflow2", NOW));
+        Assert.assertEquals(EndpointSampler.MAX_ENDPOINTS, sampler.size());
+
+        // the buckets are full again 3 seconds after the last sampling, then idle for the timeout.
+        long later = NOW + 3000 + EndpointSampler.IDLE_TIMEOUT + 1;
+        Assert.assertTrue(sampler.trySampling("/endpoint0", later));
+        Assert.assertTrue(sampler.trySampling("/new", later));
+        Assert.assertEquals(2, sampler.size());
+    }
+}
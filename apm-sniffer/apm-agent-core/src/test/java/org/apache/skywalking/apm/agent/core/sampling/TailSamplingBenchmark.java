@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The overhead of a request beyond the sampling limit. <code>ignored</code> is the head sampling only, the request is
+ * not traced. <code>tailSampled</code> traces the request and discards the segment when it finishes. <code>sampled
+ * </code> is the request traced and reported, for reference.
+ */
+@State(Scope.Benchmark)
+public class TailSamplingBenchmark {
+    private static final int SPAN_COUNT = 20;
+
+    @Param({"ignored", "tailSampled", "sampled"})
+    private String mode;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Config.Agent.KEEP_TRACING = true;
+        Config.Agent.SAMPLE_N_PER_3_SECS = "sampled".equals(mode) ? -1 : 1;
+        Config.Agent.TAIL_SAMPLING_MAX_PENDING = "tailSampled".equals(mode) ? 1000 : 0;
+        Config.Agent.TAIL_SAMPLING_N_PER_ENDPOINT_PER_3_SECS = 0;
+        ServiceManager.INSTANCE.boot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void request() {
+        ContextManager.createEntrySpan("/benchmark/tail", null);
+        for (int i = 1; i < SPAN_COUNT; i++) {
+            AbstractSpan exitSpan = ContextManager.createExitSpan("/benchmark/exit", "127.0.0.1:8080");
+            exitSpan.tag("key", "value");
+            ContextManager.stopSpan();
+        }
+        ContextManager.stopSpan();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(TailSamplingBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
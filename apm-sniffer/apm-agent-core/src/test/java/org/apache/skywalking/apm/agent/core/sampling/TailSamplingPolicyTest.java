@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TailSamplingPolicyTest {
+    @Test
+    public void testMaxPending() {
+        TailSamplingPolicy policy = new TailSamplingPolicy(2, 1000, 0);
+        Assert.assertTrue(policy.tryAcquire());
+        Assert.assertTrue(policy.tryAcquire());
+        Assert.assertFalse(policy.tryAcquire());
+        Assert.assertEquals(2, policy.getPending());
+
+        policy.decide("/endpoint", 0, false, 0);
+        Assert.assertTrue(policy.tryAcquire());
+        policy.release();
+        Assert.assertEquals(1, policy.getPending());
+    }
+
+    @Test
+    public void testErroneousAndSlowSegments() {
+        TailSamplingPolicy policy = new TailSamplingPolicy(10, 1000, 0);
+        policy.tryAcquire();
+        Assert.assertFalse(policy.decide("/endpoint", 999, false, 0));
+        policy.tryAcquire();
+        Assert.assertTrue(policy.decide("/endpoint", 1000, false, 0));
+        policy.tryAcquire();
+        Assert.assertTrue(policy.decide("/endpoint", 1, true, 0));
+        Assert.assertEquals(0, policy.getPending());
+    }
+
+    @Test
+    public void testEndpointReservoir() {
+        TailSamplingPolicy policy = new TailSamplingPolicy(10, 1000, 2);
+        Assert.assertTrue(policy.decide("/a", 0, false, 0));
+        Assert.assertTrue(policy.decide("/a", 0, false, 0));
+        Assert.assertFalse(policy.decide("/a", 0, false, 0));
+        Assert.assertTrue(policy.decide("/b", 0, false, 0));
+        Assert.assertFalse(policy.decide(null, 0, false, 0));
+
+        Assert.assertFalse(policy.decide("/a", 0, false, 2999));
+        Assert.assertTrue(policy.decide("/a", 0, false, 3000));
+        Assert.assertTrue(policy.decide("/a", 0, false, 3000));
+        Assert.assertFalse(policy.decide("/a", 0, false, 3000));
+    }
+
+    @Test
+    public void testReservoirEndpointLimit() {
+        TailSamplingPolicy policy = new TailSamplingPolicy(10, 1000, 1);
+        for (int i = 0; i < TailSamplingPolicy.MAX_RESERVOIR_ENDPOINTS; i++) {
+            Assert.assertTrue(policy.decide("/endpoint" + i, 0, false, 0));
+        }
+        Assert.assertFalse(policy.decide("/another", 0, false, 0));
+        Assert.assertTrue(policy.decide("/another", 1000, false, 0));
+    }
+}
@@ -23,6 +23,7 @@ import java.security.ProtectionDomain;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -48,7 +49,12 @@ import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
 import org.apache.skywalking.apm.agent.core.jvm.LoadedLibraryCollector;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.logging.core.ChannelFileWriter;
+import org.apache.skywalking.apm.agent.core.logging.core.IWriter;
+import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
 import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.ClassMatchCache;
 import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
 import org.apache.skywalking.apm.agent.core.plugin.InstrumentDebuggingClass;
 import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
@@ -57,6 +63,7 @@ import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.matcher.ElementMatchers.nameContains;
 import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
@@ -73,6 +80,7 @@ public class SkyWalkingAgent {
      * Main entrance. Use byte-buddy transform to enhance all classes, which define in plugins.
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
+        final long premainStartTime = System.nanoTime();
         final PluginFinder pluginFinder;
         try {
             SnifferConfigInitializer.initializeCoreConfig(agentArgs);
@@ -91,8 +99,11 @@ public class SkyWalkingAgent {
             return;
         }
 
+        final long pluginBootstrapTime;
         try {
+            final long pluginBootstrapStartTime = System.nanoTime();
             pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
+            pluginBootstrapTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pluginBootstrapStartTime);
         } catch (AgentPackageNotFoundException ape) {
             LOGGER.error(ape, "Locate agent.jar failure. Shutting down.");
             return;
@@ -109,6 +120,18 @@ public class SkyWalkingAgent {
 
         try {
             ServiceManager.INSTANCE.boot();
+
+            final long premainTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - premainStartTime);
+            LOGGER.info("Skywalking agent premain finished in {} ms, loading plugins took {} ms.",
+                        premainTime, pluginBootstrapTime);
+            MeterFactory.gauge("sw_agent_premain_time_ms", () -> (double) premainTime).build();
+            MeterFactory.gauge("sw_agent_plugin_bootstrap_time_ms", () -> (double) pluginBootstrapTime).build();
+            IWriter logWriter = WriterFactory.getLogWriter();
+            if (logWriter instanceof ChannelFileWriter) {
+                ChannelFileWriter channelFileWriter = (ChannelFileWriter) logWriter;
+                MeterFactory.gauge("sw_agent_log_dropped_count", () -> (double) channelFileWriter.getDroppedCount())
+                            .build();
+            }
         } catch (Exception e) {
             LOGGER.error(e, "Skywalking agent boot failure.");
         }
@@ -144,7 +167,17 @@ public class SkyWalkingAgent {
             throw new Exception("SkyWalking agent open read edge in JDK 9+ failure. Shutting down.", e);
         }
 
-        agentBuilder.type(pluginFinder.buildMatch())
+        ElementMatcher<? super TypeDescription> typeMatcher = pluginFinder.buildMatch();
+        if (StringUtil.isNotEmpty(Config.Plugin.CLASS_MATCH_CACHE_FILE)) {
+            final ClassMatchCache classMatchCache = ClassMatchCache.open(pluginFinder.getPluginsFingerprint());
+            // registered ahead of the agent transformer, to hash the class bytes before the matching.
+            instrumentation.addTransformer(classMatchCache, true);
+            typeMatcher = classMatchCache.wrap(typeMatcher);
+            Runtime.getRuntime()
+                   .addShutdownHook(new Thread(classMatchCache::save, "skywalking class match cache thread"));
+        }
+
+        agentBuilder.type(typeMatcher)
                     .transform(new Transformer(pluginFinder))
                     .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
                     .with(new RedefinitionListener())
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A whole set of ignore patterns compiled into one automaton, so a path is checked against all patterns in a single
+ * pass instead of running {@link FastPathMatcher} once per pattern.
+ *
+ * <p>The pattern semantics are the ones of {@link FastPathMatcher}: {@code ?} matches one non-'/' char, {@code *}
+ * matches zero or more non-'/' chars (plus one optional '/' when it ends the pattern), and {@code **} matches any
+ * chars, swallowing the following '/' so that it can match zero path parts.</p>
+ *
+ * <p>Every pattern is translated into a chain of NFA states, and the union of the chains is turned into a DFA
+ * lazily, by subset construction on the paths really seen. The DFA states are cached up to
+ * {@link #MAX_CACHED_STATES}, beyond which the transitions are still computed but no longer kept. An instance is
+ * immutable from the outside and safe for concurrent use, rebuild a new one when the patterns change.</p>
+ */
+public class TracePathAutomaton {
+    private static final int MAX_CACHED_STATES = 1024;
+
+    /**
+     * Matches the literal char of the state.
+     */
+    private static final byte LITERAL = 0;
+    /**
+     * Matches one non-'/' char, '?' in pattern.
+     */
+    private static final byte SINGLE_CHAR = 1;
+    /**
+     * Matches zero or more non-'/' chars, '*' in pattern.
+     */
+    private static final byte SEGMENT_WILDCARD = 2;
+    /**
+     * Matches zero or one '/', the tail of a '*' ending the pattern.
+     */
+    private static final byte OPTIONAL_SLASH = 3;
+    /**
+     * Matches zero or more chars of any kind, '**' in pattern.
+     */
+    private static final byte MULTI_WILDCARD = 4;
+    /**
+     * The end of a pattern.
+     */
+    private static final byte ACCEPT = 5;
+
+    private static final int SLASH_CLASS = 0;
+
+    private final String[] patterns;
+    private final byte[] kinds;
+    /**
+     * The char class a {@link #LITERAL} state matches.
+     */
+    private final int[] literalClasses;
+
+    /**
+     * Char classes of ASCII chars, chars which don't appear in any pattern share the last class.
+     */
+    private final int[] asciiClasses = new int[128];
+    private final Map<Character, Integer> nonAsciiClasses = new HashMap<>();
+    private final int otherClass;
+
+    private final Map<StateKey, State> states = new ConcurrentHashMap<>();
+    private final State start;
+
+    private TracePathAutomaton(String[] patterns) {
+        this.patterns = patterns;
+
+        List<Character> literals = new ArrayList<>();
+        int stateCount = 0;
+        for (String pattern : patterns) {
+            stateCount += pattern.length() + 2;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c != '*' && c != '?' && c != '/' && !literals.contains(c)) {
+                    literals.add(c);
+                }
+            }
+        }
+        for (int i = 0; i < literals.size(); i++) {
+            char c = literals.get(i);
+            if (c < asciiClasses.length) {
+                asciiClasses[c] = i + 1;
+            } else {
+                nonAsciiClasses.put(c, i + 1);
+            }
+        }
+        otherClass = literals.size() + 1;
+        for (int c = 0; c < asciiClasses.length; c++) {
+            if (c != '/' && asciiClasses[c] == 0) {
+                asciiClasses[c] = otherClass;
+            }
+        }
+
+        byte[] kinds = new byte[stateCount];
+        int[] literalClasses = new int[stateCount];
+        int[] startStates = new int[patterns.length];
+        int next = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            String pattern = patterns[i];
+            startStates[i] = next;
+            int p = 0;
+            while (p < pattern.length()) {
+                char pc = pattern.charAt(p++);
+                if (pc == '*') {
+                    if (p < pattern.length() && pattern.charAt(p) == '*') {
+                        kinds[next++] = MULTI_WILDCARD;
+                        p++;
+                        // '**' swallows the following '/' to match zero path parts
+                        if (p < pattern.length() && pattern.charAt(p) == '/') {
+                            p++;
+                        }
+                    } else {
+                        kinds[next++] = SEGMENT_WILDCARD;
+                        // '*' ending the pattern accepts one trailing '/'
+                        if (p == pattern.length()) {
+                            kinds[next++] = OPTIONAL_SLASH;
+                        }
+                    }
+                } else if (pc == '?') {
+                    kinds[next++] = SINGLE_CHAR;
+                } else {
+                    kinds[next] = LITERAL;
+                    literalClasses[next++] = classOf(pc);
+                }
+            }
+            kinds[next++] = ACCEPT;
+        }
+        this.kinds = Arrays.copyOf(kinds, next);
+        this.literalClasses = Arrays.copyOf(literalClasses, next);
+
+        this.start = stateOf(closure(startStates));
+    }
+
+    /**
+     * Compile the given patterns into one automaton.
+     */
+    public static TracePathAutomaton compile(String[] patterns) {
+        return new TracePathAutomaton(patterns.clone());
+    }
+
+    /**
+     * @return true if the path matches any of the compiled patterns.
+     */
+    public boolean match(String path) {
+        State state = start;
+        for (int i = 0; i < path.length(); i++) {
+            if (state.acceptsAll) {
+                return true;
+            }
+            if (state.nfaStates.length == 0) {
+                return false;
+            }
+            int charClass = classOf(path.charAt(i));
+            State next = state.transitions[charClass];
+            if (next == null) {
+                next = transit(state, charClass);
+            }
+            state = next;
+        }
+        return state.accepting;
+    }
+
+    public String[] getPatterns() {
+        return patterns.clone();
+    }
+
+    private int classOf(char c) {
+        if (c < asciiClasses.length) {
+            return asciiClasses[c];
+        }
+        Integer charClass = nonAsciiClasses.get(c);
+        return charClass == null ? otherClass : charClass;
+    }
+
+    private State transit(State from, int charClass) {
+        int[] targets = new int[from.nfaStates.length * 2];
+        int count = 0;
+        for (int s : from.nfaStates) {
+            switch (kinds[s]) {
+                case LITERAL:
+                    if (literalClasses[s] == charClass) {
+                        targets[count++] = s + 1;
+                    }
+                    break;
+                case SINGLE_CHAR:
+                    if (charClass != SLASH_CLASS) {
+                        targets[count++] = s + 1;
+                    }
+                    break;
+                case SEGMENT_WILDCARD:
+                    if (charClass != SLASH_CLASS) {
+                        targets[count++] = s;
+                    }
+                    break;
+                case OPTIONAL_SLASH:
+                    if (charClass == SLASH_CLASS) {
+                        targets[count++] = s + 1;
+                    }
+                    break;
+                case MULTI_WILDCARD:
+                    targets[count++] = s;
+                    break;
+                default:
+                    break;
+            }
+        }
+        StateKey key = closure(Arrays.copyOf(targets, count));
+        State cached = states.get(key);
+        if (cached != null) {
+            from.transitions[charClass] = cached;
+            return cached;
+        }
+        State state = stateOf(key);
+        if (states.size() < MAX_CACHED_STATES) {
+            State previous = states.putIfAbsent(key, state);
+            from.transitions[charClass] = previous == null ? state : previous;
+        }
+        return state;
+    }
+
+    /**
+     * Add the states reachable through the wildcards matching nothing, sorted and distinct.
+     */
+    private StateKey closure(int[] seeds) {
+        boolean[] reached = new boolean[kinds.length];
+        int count = 0;
+        for (int s : seeds) {
+            while (!reached[s]) {
+                reached[s] = true;
+                count++;
+                byte kind = kinds[s];
+                if (kind != SEGMENT_WILDCARD && kind != OPTIONAL_SLASH && kind != MULTI_WILDCARD) {
+                    break;
+                }
+                s++;
+            }
+        }
+        int[] closure = new int[count];
+        for (int s = 0, i = 0; i < count; s++) {
+            if (reached[s]) {
+                closure[i++] = s;
+            }
+        }
+        return new StateKey(closure);
+    }
+
+    private State stateOf(StateKey key) {
+        boolean accepting = false;
+        boolean acceptsAll = false;
+        for (int s : key.nfaStates) {
+            if (kinds[s] == ACCEPT) {
+                accepting = true;
+            } else if (kinds[s] == MULTI_WILDCARD && kinds[s + 1] == ACCEPT) {
+                acceptsAll = true;
+            }
+        }
+        return new State(key.nfaStates, accepting, acceptsAll, otherClass + 1);
+    }
+
+    private static final class State {
+        private final int[] nfaStates;
+        private final boolean accepting;
+        /**
+         * A trailing '**' is reached, any remaining chars match.
+         */
+        private final boolean acceptsAll;
+        /**
+         * Lazily filled, indexed by char class. Racy writes are fine, as a state is fully built through final fields.
+         */
+        private final State[] transitions;
+
+        private State(int[] nfaStates, boolean accepting, boolean acceptsAll, int classCount) {
+            this.nfaStates = nfaStates;
+            this.accepting = accepting;
+            this.acceptsAll = acceptsAll;
+            this.transitions = new State[classCount];
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] nfaStates;
+        private final int hashCode;
+
+        private StateKey(int[] nfaStates) {
+            this.nfaStates = nfaStates;
+            this.hashCode = Arrays.hashCode(nfaStates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(nfaStates, ((StateKey) o).nfaStates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
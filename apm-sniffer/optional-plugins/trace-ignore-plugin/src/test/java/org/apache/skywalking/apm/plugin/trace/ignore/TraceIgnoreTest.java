@@ -20,10 +20,11 @@ package org.apache.skywalking.apm.plugin.trace.ignore;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
-import java.lang.reflect.Field;
 import java.util.Properties;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.agent.test.helper.FieldGetter;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.util.ConfigInitializer;
@@ -51,15 +52,23 @@ public class TraceIgnoreTest {
     @Test
     public void testTraceIgnore() throws Exception {
         SamplingService service = ServiceManager.INSTANCE.findService(SamplingService.class);
-        Field patterns = TraceIgnoreExtendService.class.getDeclaredField("patterns");
-        patterns.setAccessible(true);
-        patterns.set(
-            service,
-            new String[] {"/eureka/**"}
-        );
+        TraceIgnorePatternWatcher watcher = FieldGetter.getValue(service, "traceIgnorePatternWatcher");
+        watcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            "/eureka/**",
+            AgentConfigChangeWatcher.EventType.MODIFY
+        ));
 
         Assert.assertFalse(service.trySampling("/eureka/apps"));
         Assert.assertTrue(service.trySampling("/consul/apps"));
+
+        watcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            "/consul/**,/eureka/*/",
+            AgentConfigChangeWatcher.EventType.MODIFY
+        ));
+
+        Assert.assertFalse(service.trySampling("/consul/apps"));
+        Assert.assertFalse(service.trySampling("/eureka/apps/"));
+        Assert.assertTrue(service.trySampling("/eureka/apps/list"));
     }
 
     @Test
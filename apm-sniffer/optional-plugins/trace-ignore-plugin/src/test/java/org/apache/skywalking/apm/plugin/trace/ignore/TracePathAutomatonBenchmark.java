@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathAutomaton;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Check a few operation names, mostly not ignored, against a growing set of ignore patterns.
+ * <code>patternLoop</code> runs {@link FastPathMatcher} once per pattern as the plugin used to,
+ * <code>automaton</code> checks all patterns at once through {@link TracePathAutomaton}.
+ */
+@State(Scope.Benchmark)
+public class TracePathAutomatonBenchmark {
+    private static final String[] PATHS = {
+        "/api/v1/orders/1024/items",
+        "/api/v2/users/profile",
+        "/static/js/app.bundle.js",
+        "/health",
+        "/service-42/internal/ping/",
+        "/eureka/apps/delta"
+    };
+
+    @Param({"1", "10", "100", "1000"})
+    private int patternCount;
+
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+    private String[] patterns;
+    private TracePathAutomaton automaton;
+    private int index;
+
+    @Setup
+    public void setup() {
+        String[] templates = {
+            "/service-%d/internal/**", "/static/v%d/*.js", "/api/v%d/admin/?/*", "/eureka/%d/**/delta"
+        };
+        patterns = new String[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            patterns[i] = String.format(templates[i % templates.length], i);
+        }
+        automaton = TracePathAutomaton.compile(patterns);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean patternLoop() {
+        String path = nextPath();
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean automaton() {
+        return automaton.match(nextPath());
+    }
+
+    private String nextPath() {
+        index = (index + 1) % PATHS.length;
+        return PATHS[index];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(TracePathAutomatonBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.Random;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathAutomaton;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TracePathAutomatonTest {
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+
+    @Test
+    public void testSamePatternsAsFastPathMatcher() {
+        String[] patterns = {
+            "/eureka/*",
+            "/eureka/*/",
+            "eureka/apps/?",
+            "eureka/**/lists",
+            "eureka/**/test/**",
+            "/eureka/**/b/**/*.txt",
+            "abc/*"
+        };
+        String[] paths = {
+            "/eureka/apps",
+            "/eureka/",
+            "/eureka/apps/",
+            "/eureka/apps/list",
+            "/eureka/test",
+            "eureka/apps/list",
+            "eureka/apps/",
+            "eureka/apps/a",
+            "eureka/apps/lists",
+            "eureka/apps/test/lists",
+            "eureka/apps/test/",
+            "eureka/apps/test",
+            "eureka/apps/test/list",
+            "eureka/apps/foo/test/list/bar",
+            "eureka/test/list",
+            "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx.txt",
+            "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx",
+            "abc/foo/bar",
+            "abc/foo",
+            ""
+        };
+        for (String pattern : patterns) {
+            TracePathAutomaton automaton = TracePathAutomaton.compile(new String[] {pattern});
+            for (String path : paths) {
+                Assert.assertEquals(
+                    pattern + " -> " + path, pathMatcher.match(pattern, path), automaton.match(path));
+            }
+        }
+
+        TracePathAutomaton automaton = TracePathAutomaton.compile(patterns);
+        for (String path : paths) {
+            Assert.assertEquals(path, anyMatch(patterns, path), automaton.match(path));
+        }
+    }
+
+    @Test
+    public void testRandomPatternSets() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            String[] patterns = new String[1 + random.nextInt(5)];
+            for (int j = 0; j < patterns.length; j++) {
+                patterns[j] = randomString(random, "ab/.*?", 8);
+            }
+            TracePathAutomaton automaton = TracePathAutomaton.compile(patterns);
+            for (int j = 0; j < 100; j++) {
+                String path = randomString(random, "ab/.x", 10);
+                Assert.assertEquals(
+                    String.join(",", patterns) + " -> " + path, anyMatch(patterns, path), automaton.match(path));
+            }
+        }
+    }
+
+    @Test
+    public void testNoPattern() {
+        TracePathAutomaton automaton = TracePathAutomaton.compile(new String[] {});
+        Assert.assertFalse(automaton.match(""));
+        Assert.assertFalse(automaton.match("/eureka/apps"));
+    }
+
+    private boolean anyMatch(String[] patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String randomString(Random random, String chars, int maxLength) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = random.nextInt(maxLength + 1); i > 0; i--) {
+            builder.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.backpressure.policy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The admission probability of the new traces, updated every second by the status of the segment buffer. It is
+ * halved when the buffer is filled over the threshold or any segment is abandoned, and increased step by step when the
+ * reporter keeps up, so the tracing cost drops fast while the backend is saturated and recovers smoothly.
+ */
+class BackpressureAdmission {
+    /**
+     * The probability lower than it is taken as zero, no trace is admitted until the reporter recovers.
+     */
+    static final double MIN_PROBABILITY = 0.01;
+
+    private final double fillThreshold;
+    private final double recoveryStep;
+
+    private volatile double probability = 1;
+    private long lastAbandonedCount = -1;
+
+    BackpressureAdmission(double fillThreshold, double recoveryStep) {
+        this.fillThreshold = fillThreshold;
+        this.recoveryStep = recoveryStep;
+    }
+
+    /**
+     * Update the probability by the current status of the buffer. It is called by a single thread.
+     *
+     * @param abandonedCount the count of the abandoned segments since the reporter booted.
+     */
+    void update(long bufferedCount, long bufferCapacity, long abandonedCount) {
+        long abandoned = lastAbandonedCount < 0 ? 0 : abandonedCount - lastAbandonedCount;
+        lastAbandonedCount = abandonedCount;
+        double fillRatio = bufferCapacity > 0 ? (double) bufferedCount / bufferCapacity : 0;
+
+        double current = probability;
+        if (abandoned > 0 || fillRatio > fillThreshold) {
+            current = current / 2;
+            probability = current < MIN_PROBABILITY ? 0 : current;
+        } else {
+            probability = Math.min(1, current + recoveryStep);
+        }
+    }
+
+    /**
+     * @return true if a new trace is admitted.
+     */
+    boolean tryAdmit() {
+        double current = probability;
+        return current >= 1 || current > 0 && ThreadLocalRandom.current().nextDouble() < current;
+    }
+
+    double getProbability() {
+        return probability;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.backpressure.policy;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.remote.SegmentBufferStatus;
+import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.plugin.backpressure.policy.conf.TraceSamplerBackpressurePolicyPluginConfig;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+/**
+ * Shed the new traces before their tracing contexts are created, when the segment reporter can't keep up with the
+ * backend. See {@link BackpressureAdmission}.
+ */
+@OverrideImplementor(SamplingService.class)
+public class TraceSamplerBackpressurePolicyExtendService extends SamplingService {
+    private static final ILog LOGGER = LogManager.getLogger(TraceSamplerBackpressurePolicyExtendService.class);
+
+    private volatile BackpressureAdmission admission;
+    private ScheduledExecutorService service;
+
+    @Override
+    public void prepare() {
+        super.prepare();
+    }
+
+    @Override
+    public void boot() {
+        super.boot();
+        // The reporter could be overridden by another implementation, such as the kafka reporter.
+        BootService reporter = ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class);
+        if (!(reporter instanceof SegmentBufferStatus)) {
+            LOGGER.warn("TraceSamplerBackpressurePolicyExtendService is off, as the segment reporter {} doesn't "
+                            + "provide the status of its buffer.", reporter);
+            return;
+        }
+        final SegmentBufferStatus bufferStatus = (SegmentBufferStatus) reporter;
+        final BackpressureAdmission backpressureAdmission = new BackpressureAdmission(
+            TraceSamplerBackpressurePolicyPluginConfig.Plugin.BackpressurePolicy.BUFFER_FILL_THRESHOLD,
+            TraceSamplerBackpressurePolicyPluginConfig.Plugin.BackpressurePolicy.RECOVERY_STEP
+        );
+        service = Executors.newSingleThreadScheduledExecutor(
+            new DefaultNamedThreadFactory("TraceSamplerBackpressurePolicy"));
+        service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
+            () -> backpressureAdmission.update(
+                bufferStatus.getBufferedCount(), bufferStatus.getBufferCapacity(), bufferStatus.getAbandonedCount()),
+            t -> LOGGER.error("unexpected exception.", t)
+        ), 1, 1, TimeUnit.SECONDS);
+        MeterFactory.gauge("sw_agent_sampling_admission_probability", backpressureAdmission::getProbability).build();
+        admission = backpressureAdmission;
+        LOGGER.info("TraceSamplerBackpressurePolicyExtendService backpressure policy open");
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Override
+    public boolean trySampling(final String operationName) {
+        BackpressureAdmission currentAdmission = admission;
+        if (currentAdmission != null && !currentAdmission.tryAdmit()) {
+            return false;
+        }
+        return super.trySampling(operationName);
+    }
+
+    @Override
+    public boolean tryTailSampling() {
+        BackpressureAdmission currentAdmission = admission;
+        if (currentAdmission != null && !currentAdmission.tryAdmit()) {
+            return false;
+        }
+        return super.tryTailSampling();
+    }
+
+    @Override
+    public void forceSampled() {
+        super.forceSampled();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.backpressure.policy.conf;
+
+import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
+
+public class TraceSamplerBackpressurePolicyPluginConfig {
+    public static class Plugin {
+        @PluginConfig(root = TraceSamplerBackpressurePolicyPluginConfig.class)
+        public static class BackpressurePolicy {
+            /**
+             * The admission probability of the new traces is halved every second, when the segment buffer of the
+             * reporter is filled over this ratio, or any segment is abandoned.
+             */
+            public static double BUFFER_FILL_THRESHOLD = 0.5;
+
+            /**
+             * The admission probability of the new traces is increased by this step every second, when the reporter
+             * keeps up.
+             */
+            public static double RECOVERY_STEP = 0.1;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.backpressure.policy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BackpressureAdmissionTest {
+    @Test
+    public void testShedAndRecover() {
+        BackpressureAdmission admission = new BackpressureAdmission(0.5, 0.25);
+        admission.update(100, 1000, 0);
+        Assert.assertEquals(1, admission.getProbability(), 0);
+        Assert.assertTrue(admission.tryAdmit());
+
+        // the buffer is filled over the threshold.
+        admission.update(600, 1000, 0);
+        Assert.assertEquals(0.5, admission.getProbability(), 0);
+        // the segments are abandoned.
+        admission.update(0, 1000, 10);
+        Assert.assertEquals(0.25, admission.getProbability(), 0);
+        for (int i = 0; i < 5; i++) {
+            admission.update(0, 1000, 20 + i);
+        }
+        Assert.assertEquals(0, admission.getProbability(), 0);
+        Assert.assertFalse(admission.tryAdmit());
+
+        // recover step by step.
+        admission.update(0, 1000, 24);
+        Assert.assertEquals(0.25, admission.getProbability(), 0);
+        admission.update(0, 1000, 24);
+        admission.update(0, 1000, 24);
+        admission.update(0, 1000, 24);
+        admission.update(0, 1000, 24);
+        Assert.assertEquals(1, admission.getProbability(), 0);
+        Assert.assertTrue(admission.tryAdmit());
+    }
+}
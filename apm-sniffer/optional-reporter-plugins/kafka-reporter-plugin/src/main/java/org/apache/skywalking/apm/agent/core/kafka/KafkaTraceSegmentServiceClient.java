@@ -21,6 +21,8 @@ package org.apache.skywalking.apm.agent.core.kafka;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.utils.Bytes;
@@ -32,10 +34,12 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.remote.SegmentBufferStatus;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.StripedPartitioner;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
@@ -45,7 +49,7 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SI
  * A tracing segment data reporter.
  */
 @OverrideImplementor(TraceSegmentServiceClient.class)
-public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, KafkaConnectionStatusListener {
+public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, KafkaConnectionStatusListener, SegmentBufferStatus {
     private static final ILog LOGGER = LogManager.getLogger(KafkaTraceSegmentServiceClient.class);
 
     private String topic;
@@ -53,6 +57,10 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
 
     private volatile DataCarrier<TraceSegment> carrier;
 
+    private final LongAdder producedCounter = new LongAdder();
+    private final AtomicLong consumedCounter = new AtomicLong(0);
+    private final LongAdder abandonedCounter = new LongAdder();
+
     @Override
     public void prepare() {
         KafkaProducerManager producerManager = ServiceManager.INSTANCE.findService(KafkaProducerManager.class);
@@ -63,6 +71,7 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
     @Override
     public void boot() {
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        carrier.setPartitioner(new StripedPartitioner<>());
         carrier.consume(this, 1);
     }
 
@@ -84,7 +93,9 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
 
     @Override
     public void consume(final List<TraceSegment> data) {
+        consumedCounter.addAndGet(data.size());
         if (producer == null) {
+            abandonedCounter.add(data.size());
             return;
         }
         data.forEach(traceSegment -> {
@@ -122,7 +133,26 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
             return;
         }
-        carrier.produce(traceSegment);
+        if (carrier.produce(traceSegment)) {
+            producedCounter.increment();
+        } else {
+            abandonedCounter.increment();
+        }
+    }
+
+    @Override
+    public long getBufferedCount() {
+        return Math.max(0, producedCounter.sum() - consumedCounter.get());
+    }
+
+    @Override
+    public long getBufferCapacity() {
+        return carrier.capacity();
+    }
+
+    @Override
+    public long getAbandonedCount() {
+        return abandonedCounter.sum();
     }
 
     @Override